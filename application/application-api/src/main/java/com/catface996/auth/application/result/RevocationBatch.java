@@ -0,0 +1,36 @@
+package com.catface996.auth.application.result;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Batch of revocations sent on the revocation stream, held column-wise so that a large
+ * snapshot stays compact: {@code tokenIds[i]} is revoked until {@code tokenExpiresAt[i]},
+ * and every token of {@code userIds[i]} issued at or before {@code userEpochs[i]} is
+ * revoked. Times are epoch seconds.
+ */
+@Data
+public class RevocationBatch {
+
+    /**
+     * Revoked token IDs (jti)
+     */
+    private List<String> tokenIds = new ArrayList<>();
+
+    /**
+     * Expiry of each revoked token, after which the entry can be dropped
+     */
+    private List<Long> tokenExpiresAt = new ArrayList<>();
+
+    /**
+     * Users whose earlier tokens are all revoked
+     */
+    private List<Long> userIds = new ArrayList<>();
+
+    /**
+     * Revocation epoch of each user
+     */
+    private List<Long> userEpochs = new ArrayList<>();
+}
@@ -5,6 +5,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
 import java.util.Set;
 
 /**
@@ -36,6 +37,11 @@ public class TokenValidationResult {
      */
     private Set<String> roles;
 
+    /**
+     * Token expiration time, used to bound how long a decision may be cached
+     */
+    private LocalDateTime expiresAt;
+
     /**
      * Error message if token is invalid
      */
@@ -44,12 +50,14 @@ public class TokenValidationResult {
     /**
      * Create a successful validation result
      */
-    public static TokenValidationResult success(Long userId, String username, Set<String> roles) {
+    public static TokenValidationResult success(Long userId, String username, Set<String> roles,
+                                                LocalDateTime expiresAt) {
         return TokenValidationResult.builder()
                 .valid(true)
                 .userId(userId)
                 .username(username)
                 .roles(roles)
+                .expiresAt(expiresAt)
                 .build();
     }
 
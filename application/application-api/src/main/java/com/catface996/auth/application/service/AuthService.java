@@ -4,6 +4,13 @@ import com.catface996.auth.application.command.LoginCommand;
 import com.catface996.auth.application.command.RegisterCommand;
 import com.catface996.auth.application.result.AuthResult;
 import com.catface996.auth.application.result.UserInfo;
+import com.catface996.auth.domain.model.session.TokenVerification;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Application service for authentication operations
@@ -11,18 +18,20 @@ import com.catface996.auth.application.result.UserInfo;
 public interface AuthService {
 
     /**
-     * Register a new user
+     * Register a new user; the password is hashed on the hashing executor
      * @param command registration details
-     * @return user info
+     * @return future of the user info
+     * @throws com.catface996.auth.common.exception.AuthException if the username or email is taken, or the hashing queue is full
      */
-    UserInfo register(RegisterCommand command);
+    CompletableFuture<UserInfo> register(RegisterCommand command);
 
     /**
-     * Authenticate user and generate token
+     * Authenticate user and generate token; the password is checked on the hashing executor
      * @param command login credentials
-     * @return authentication result with token
+     * @return future of the authentication result with token
+     * @throws com.catface996.auth.common.exception.AuthException if the user cannot log in or the hashing queue is full
      */
-    AuthResult login(LoginCommand command);
+    CompletableFuture<AuthResult> login(LoginCommand command);
 
     /**
      * Logout user and invalidate token
@@ -30,6 +39,20 @@ public interface AuthService {
      */
     void logout(String token);
 
+    /**
+     * Logout user using an already verified token
+     * @param verification result of verifying the token to invalidate
+     */
+    void logout(TokenVerification verification);
+
+    /**
+     * Revoke every token the given users currently hold ("log out everywhere"), including
+     * tokens whose IDs were never recorded
+     * @param userIds the users whose tokens to revoke
+     * @return tokens of these users issued at or before this time are rejected
+     */
+    LocalDateTime revokeAllTokens(Collection<Long> userIds);
+
     /**
      * Refresh access token
      * @param refreshToken the refresh token
@@ -44,10 +67,38 @@ public interface AuthService {
      */
     UserInfo getCurrentUser(String token);
 
+    /**
+     * Get current user info from an already verified token
+     * @param verification result of verifying the access token
+     * @return user info
+     */
+    UserInfo getCurrentUser(TokenVerification verification);
+
     /**
      * Validate token and extract user information (for Gateway authentication)
      * @param token the access token to validate
      * @return validation result with user info if valid
      */
     com.catface996.auth.application.result.TokenValidationResult validateToken(String token);
+
+    /**
+     * Validate an already verified token (blacklist and expiry checks only)
+     * @param verification result of verifying the access token
+     * @return validation result with user info if valid
+     */
+    com.catface996.auth.application.result.TokenValidationResult validateToken(TokenVerification verification);
+
+    /**
+     * Validate many tokens together; duplicate tokens are verified once and
+     * blacklist lookups are done in bulk
+     * @param tokens the access tokens to validate
+     * @return validation results, in the same order as the tokens
+     */
+    List<com.catface996.auth.application.result.TokenValidationResult> validateTokens(List<String> tokens);
+
+    /**
+     * Get the public token verification keys (for gateways verifying tokens locally)
+     * @return public JWKs, one per verification key
+     */
+    List<Map<String, Object>> getJsonWebKeys();
 }
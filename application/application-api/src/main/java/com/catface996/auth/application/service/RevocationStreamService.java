@@ -0,0 +1,27 @@
+package com.catface996.auth.application.service;
+
+/**
+ * Streams revocations to gateways so that they can keep an exact local replica of the
+ * blacklist and the user revocation epochs instead of asking on every request.
+ * <p>
+ * A new subscriber receives a {@code reset} event, the revocations in force as
+ * {@code snapshot} batches and a {@code ready} event; from then on every revocation
+ * arrives in {@code revocations} batches as it happens. Every {@code ready} and
+ * {@code revocations} event carries an ID; a subscriber that reconnects with the last ID
+ * it applied resumes after it, or starts over from {@code reset} if that position is
+ * gone. All events are {@link com.catface996.auth.application.result.RevocationBatch}
+ * payloads, empty for {@code reset} and {@code ready}.
+ */
+public interface RevocationStreamService {
+
+    /**
+     * Start streaming to a subscriber on a stream thread and return
+     * @param accessKey key presented by the subscriber
+     * @param lastEventId ID of the last event the subscriber applied, or null on first connect
+     * @param sink connection to the subscriber
+     * @throws com.catface996.auth.common.exception.AuthException with ACCESS_DENIED if the
+     * access key does not match or none is configured, or SERVICE_UNAVAILABLE if every stream
+     * thread is busy
+     */
+    void stream(String accessKey, String lastEventId, RevocationStreamSink sink);
+}
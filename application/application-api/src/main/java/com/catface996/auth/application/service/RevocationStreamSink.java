@@ -0,0 +1,29 @@
+package com.catface996.auth.application.service;
+
+import java.io.IOException;
+
+/**
+ * Connection to one revocation stream subscriber, written by a single thread
+ */
+public interface RevocationStreamSink {
+
+    /**
+     * Send an event
+     * @param id position to resume after once this event is applied, or null
+     * @param name event name
+     * @param data event payload
+     * @throws IOException if the subscriber has gone away
+     */
+    void send(String id, String name, Object data) throws IOException;
+
+    /**
+     * Send a keep-alive that subscribers ignore
+     * @throws IOException if the subscriber has gone away
+     */
+    void heartbeat() throws IOException;
+
+    /**
+     * End the stream; the subscriber reconnects and resumes
+     */
+    void complete();
+}
@@ -0,0 +1,77 @@
+package com.catface996.auth.application.service.impl;
+
+import com.catface996.auth.common.exception.AuthException;
+import com.catface996.auth.common.result.ErrorCode;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executor for the database and token work that follows a password hash, so that hashing
+ * threads only ever hash. Sized to the connection pool: more threads would only queue on
+ * connections. A full queue refuses the work with SERVICE_UNAVAILABLE, and the submitting
+ * thread's MDC is carried over so that the stage logs and is timed under the same request.
+ */
+@Slf4j
+@Component
+public class AuthIoExecutor implements Executor {
+
+    @Value("${auth.io.threads:20}")
+    private int threads;
+
+    @Value("${auth.io.queue-capacity:256}")
+    private int queueCapacity;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "auth-io-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        log.info("Post-hash work on {} threads with room for {} queued tasks", threads, queueCapacity);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        Map<String, String> context = MDC.getCopyOfContextMap();
+        try {
+            executor.execute(() -> {
+                if (context != null) {
+                    MDC.setContextMap(context);
+                }
+                try {
+                    command.run();
+                } finally {
+                    MDC.clear();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("Post-hash work refused: all {} queued slots are taken", queueCapacity);
+            throw new AuthException(ErrorCode.SERVICE_UNAVAILABLE);
+        }
+    }
+}
@@ -7,26 +7,50 @@ import com.catface996.auth.application.result.TokenValidationResult;
 import com.catface996.auth.application.result.UserInfo;
 import com.catface996.auth.application.service.AuthService;
 import com.catface996.auth.common.exception.AuthException;
+import com.catface996.auth.common.result.ErrorCode;
 import com.catface996.auth.domain.model.session.TokenClaims;
+import com.catface996.auth.domain.model.session.TokenVerification;
 import com.catface996.auth.domain.model.user.LoginAttempt;
 import com.catface996.auth.domain.model.user.User;
 import com.catface996.auth.domain.model.user.UserStatus;
 import com.catface996.auth.domain.repository.LoginAttemptRepository;
+import com.catface996.auth.domain.repository.RevocationEpochRepository;
 import com.catface996.auth.domain.repository.RoleRepository;
 import com.catface996.auth.domain.repository.UserRepository;
+import com.catface996.auth.domain.security.PasswordHasher;
+import com.catface996.auth.domain.security.RevocationEpochs;
 import com.catface996.auth.domain.security.TokenBlacklist;
 import com.catface996.auth.domain.security.TokenProvider;
 import com.catface996.auth.domain.service.UserDomainService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 /**
- * Implementation of AuthService
+ * Implementation of AuthService.
+ * <p>
+ * Login and register run in three phases: short reads that borrow a connection per
+ * statement, the password hash on the {@link PasswordHasher} executor with no connection
+ * held, and short writes on the {@link AuthIoExecutor} once the hash is done (a
+ * single-statement lockout update for login, one transaction for register). Hashing
+ * threads only hash, and a login burst ties up neither servlet threads nor pooled
+ * connections.
  */
 @Slf4j
 @Service
@@ -34,6 +58,7 @@ import java.util.Set;
 public class AuthServiceImpl implements AuthService {
 
     private static final String DEFAULT_ROLE = "ROLE_USER";
+    private static final String REVOCATION_UNAVAILABLE = "Revocation status unavailable";
 
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
@@ -41,11 +66,14 @@ public class AuthServiceImpl implements AuthService {
     private final UserDomainService userDomainService;
     private final TokenProvider tokenProvider;
     private final TokenBlacklist tokenBlacklist;
-    private final PasswordEncoder passwordEncoder;
+    private final RevocationEpochs revocationEpochs;
+    private final RevocationEpochRepository revocationEpochRepository;
+    private final PasswordHasher passwordHasher;
+    private final TransactionTemplate transactionTemplate;
+    private final AuthIoExecutor ioExecutor;
 
     @Override
-    @Transactional
-    public UserInfo register(RegisterCommand command) {
+    public CompletableFuture<UserInfo> register(RegisterCommand command) {
         // Validate username uniqueness
         if (userRepository.existsByUsername(command.getUsername())) {
             throw AuthException.usernameExists();
@@ -56,68 +84,128 @@ public class AuthServiceImpl implements AuthService {
             throw AuthException.emailExists();
         }
 
-        // Create user
-        User user = User.builder()
-                .username(command.getUsername())
-                .email(command.getEmail())
-                .passwordHash(passwordEncoder.encode(command.getPassword()))
-                .status(UserStatus.ACTIVE)
-                .failedAttempts(0)
-                .roles(Set.of(DEFAULT_ROLE))
-                .build();
-
-        User savedUser = userRepository.save(user);
-
-        // Assign default role
-        roleRepository.findByName(DEFAULT_ROLE)
-                .ifPresent(role -> roleRepository.assignRole(savedUser.getId(), role.getId()));
+        // Hash with no connection held, then write the user and its role in one transaction
+        return passwordHasher.encode(command.getPassword()).thenApplyAsync(passwordHash -> {
+            // Create user
+            User user = User.builder()
+                    .username(command.getUsername())
+                    .email(command.getEmail())
+                    .passwordHash(passwordHash)
+                    .status(UserStatus.ACTIVE)
+                    .failedAttempts(0)
+                    .roles(Set.of(DEFAULT_ROLE))
+                    .build();
+
+            User savedUser;
+            try {
+                savedUser = transactionTemplate.execute(status -> {
+                    User saved = userRepository.save(user);
+
+                    // Assign default role
+                    roleRepository.findByName(DEFAULT_ROLE)
+                            .ifPresent(role -> roleRepository.assignRole(saved.getId(), role.getId()));
+                    return saved;
+                });
+            } catch (DuplicateKeyException e) {
+                // A concurrent registration took the username or email after the checks above
+                throw userRepository.existsByUsername(command.getUsername())
+                        ? AuthException.usernameExists()
+                        : AuthException.emailExists();
+            }
 
-        log.info("User registered successfully: {}", savedUser.getUsername());
+            log.info("User registered successfully: {}", savedUser.getUsername());
 
-        return toUserInfo(savedUser);
+            return toUserInfo(savedUser);
+        }, ioExecutor);
     }
 
     @Override
-    @Transactional
-    public AuthResult login(LoginCommand command) {
-        User user = userDomainService.authenticate(command.getIdentifier(), command.getPassword());
-
-        // Record login attempt
-        LoginAttempt attempt = LoginAttempt.builder()
-                .userId(user.getId())
-                .username(user.getUsername())
-                .success(true)
-                .ipAddress(command.getIpAddress())
-                .userAgent(command.getUserAgent())
-                .build();
-        loginAttemptRepository.save(attempt);
-
-        // Generate token
-        String token = tokenProvider.generateToken(user, command.isRememberMe());
-        long expiresIn = tokenProvider.getExpirationSeconds(command.isRememberMe());
+    public CompletableFuture<AuthResult> login(LoginCommand command) {
+        // Read the credentials; the statements borrow a connection only while they run
+        User user;
+        try {
+            user = userDomainService.loadForLogin(command.getIdentifier());
+        } catch (AuthException e) {
+            recordFailedAttempt(null, command, failureReason(e.getErrorCode()));
+            throw e;
+        }
 
-        log.info("User logged in successfully: {}", user.getUsername());
+        // Check the password with no connection held
+        return userDomainService.checkPassword(user, command.getPassword()).thenApplyAsync(matched -> {
+            if (!matched) {
+                userDomainService.handleFailedLoginAttempt(user);
+                recordFailedAttempt(user.getId(), command, LoginAttempt.REASON_INVALID_PASSWORD);
+                throw AuthException.invalidCredentials();
+            }
 
-        return AuthResult.of(token, expiresIn, toUserInfo(user));
+            // Reset the lockout counter; the login attempt is written behind in a batch
+            userDomainService.resetFailedAttempts(user);
+            LoginAttempt attempt = LoginAttempt.builder()
+                    .userId(user.getId())
+                    .username(user.getUsername())
+                    .success(true)
+                    .ipAddress(command.getIpAddress())
+                    .userAgent(command.getUserAgent())
+                    .build();
+            loginAttemptRepository.save(attempt);
+            userDomainService.upgradePasswordHash(user, command.getPassword(), ioExecutor);
+
+            // Generate token
+            String token = tokenProvider.generateToken(user, command.isRememberMe());
+            long expiresIn = tokenProvider.getExpirationSeconds(command.isRememberMe());
+
+            log.info("User logged in successfully: {}", user.getUsername());
+
+            return AuthResult.of(token, expiresIn, toUserInfo(user));
+        }, ioExecutor);
     }
 
     @Override
     public void logout(String token) {
-        if (token != null && tokenProvider.validateToken(token)) {
-            String tokenId = tokenProvider.getTokenId(token);
-            TokenClaims claims = tokenProvider.parseToken(token);
+        if (token != null) {
+            logout(tokenProvider.verify(token));
+        }
+    }
+
+    @Override
+    public void logout(TokenVerification verification) {
+        if (verification.valid()) {
+            TokenClaims claims = verification.claims();
+            // Opaque tokens are revoked by deleting their session; JWTs must be blacklisted
+            if (tokenProvider.revoke(claims)) {
+                log.info("User logged out, token {} revoked", claims.tokenId());
+                return;
+            }
             long remainingSeconds = java.time.Duration.between(
                     java.time.LocalDateTime.now(), claims.expiresAt()).getSeconds();
             if (remainingSeconds > 0) {
-                tokenBlacklist.addToBlacklist(tokenId, remainingSeconds);
+                tokenBlacklist.addToBlacklist(claims.tokenId(), remainingSeconds);
             }
-            log.info("User logged out, token {} blacklisted", tokenId);
+            log.info("User logged out, token {} blacklisted", claims.tokenId());
+        }
+    }
+
+    @Override
+    @Transactional
+    public LocalDateTime revokeAllTokens(Collection<Long> userIds) {
+        long epochSecond = Instant.now().getEpochSecond();
+        Set<Long> distinctUserIds = new LinkedHashSet<>(userIds);
+        revocationEpochRepository.raise(distinctUserIds, epochSecond);
+        // Other instances pick the persisted epochs up through RevocationEpochSynchronizer
+        for (Long userId : distinctUserIds) {
+            revocationEpochs.raise(userId, epochSecond);
         }
+        log.info("Revoked all tokens issued up to {} for {} users", epochSecond, distinctUserIds.size());
+        return LocalDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), ZoneId.systemDefault());
     }
 
     @Override
     public AuthResult refreshToken(String refreshToken) {
         TokenClaims claims = tokenProvider.parseToken(refreshToken);
+        // A logged-out token, alone or with all tokens of its user, must not buy a fresh one
+        if (revocationEpochs.isRevoked(claims) || tokenBlacklist.isBlacklisted(claims.tokenId())) {
+            throw AuthException.invalidToken();
+        }
 
         User user = userRepository.findById(claims.userId())
                 .orElseThrow(AuthException::invalidToken);
@@ -134,9 +222,16 @@ public class AuthServiceImpl implements AuthService {
 
     @Override
     public UserInfo getCurrentUser(String token) {
-        TokenClaims claims = tokenProvider.parseToken(token);
+        return getCurrentUser(tokenProvider.verify(token));
+    }
 
-        User user = userRepository.findById(claims.userId())
+    @Override
+    public UserInfo getCurrentUser(TokenVerification verification) {
+        if (!verification.valid()) {
+            throw verification.toException();
+        }
+
+        User user = userRepository.findById(verification.claims().userId())
                 .orElseThrow(AuthException::invalidToken);
 
         return toUserInfo(user);
@@ -144,22 +239,27 @@ public class AuthServiceImpl implements AuthService {
 
     @Override
     public TokenValidationResult validateToken(String token) {
+        return validateToken(tokenProvider.verify(token));
+    }
+
+    @Override
+    public TokenValidationResult validateToken(TokenVerification verification) {
         try {
-            // Check if token is valid
-            if (!tokenProvider.validateToken(token)) {
-                return TokenValidationResult.failure("Invalid token");
+            // Check if token signature and expiry were valid
+            if (!verification.valid()) {
+                return verification.errorCode() == ErrorCode.TOKEN_EXPIRED
+                        ? TokenValidationResult.failure("Token has expired")
+                        : TokenValidationResult.failure("Invalid token");
             }
 
-            // Check if token is blacklisted
-            String tokenId = tokenProvider.getTokenId(token);
-            if (tokenBlacklist.isBlacklisted(tokenId)) {
+            TokenClaims claims = verification.claims();
+
+            // Check if token is blacklisted, alone or with all tokens of its user
+            if (revocationEpochs.isRevoked(claims) || tokenBlacklist.isBlacklisted(claims.tokenId())) {
                 return TokenValidationResult.failure("Token has been revoked");
             }
 
-            // Parse token claims
-            TokenClaims claims = tokenProvider.parseToken(token);
-
-            // Check if token is expired
+            // Check if token expired since it was verified
             if (claims.isExpired()) {
                 return TokenValidationResult.failure("Token has expired");
             }
@@ -169,12 +269,85 @@ public class AuthServiceImpl implements AuthService {
             return TokenValidationResult.success(
                     claims.userId(),
                     claims.username(),
-                    claims.roles()
+                    claims.roles(),
+                    claims.expiresAt()
             );
         } catch (Exception e) {
-            log.warn("Token validation failed: {}", e.getMessage());
-            return TokenValidationResult.failure(e.getMessage());
+            // As in the batch path, store details stay in the log
+            log.warn("Token revocation lookup failed", e);
+            return TokenValidationResult.failure(REVOCATION_UNAVAILABLE);
+        }
+    }
+
+    @Override
+    public List<TokenValidationResult> validateTokens(List<String> tokens) {
+        // Verify each distinct token once
+        Map<String, TokenVerification> verifications = new HashMap<>();
+        Set<String> tokenIds = new HashSet<>();
+        for (String token : tokens) {
+            TokenVerification verification = verifications.computeIfAbsent(token, tokenProvider::verify);
+            if (verification.valid()) {
+                tokenIds.add(verification.claims().tokenId());
+            }
+        }
+
+        Set<String> revoked;
+        try {
+            revoked = tokenIds.isEmpty() ? Set.of() : tokenBlacklist.findBlacklisted(tokenIds);
+        } catch (Exception e) {
+            // Store details stay in the log; callers only learn that the check could not be made
+            log.warn("Batch blacklist lookup failed", e);
+            return tokens.stream()
+                    .map(token -> TokenValidationResult.failure(REVOCATION_UNAVAILABLE))
+                    .toList();
+        }
+
+        List<TokenValidationResult> results = new ArrayList<>(tokens.size());
+        for (String token : tokens) {
+            TokenVerification verification = verifications.get(token);
+            if (!verification.valid()) {
+                results.add(verification.errorCode() == ErrorCode.TOKEN_EXPIRED
+                        ? TokenValidationResult.failure("Token has expired")
+                        : TokenValidationResult.failure("Invalid token"));
+                continue;
+            }
+            TokenClaims claims = verification.claims();
+            if (revoked.contains(claims.tokenId()) || revocationEpochs.isRevoked(claims)) {
+                results.add(TokenValidationResult.failure("Token has been revoked"));
+            } else if (claims.isExpired()) {
+                results.add(TokenValidationResult.failure("Token has expired"));
+            } else {
+                results.add(TokenValidationResult.success(
+                        claims.userId(), claims.username(), claims.roles(), claims.expiresAt()));
+            }
+        }
+
+        log.debug("Batch validated {} tokens ({} distinct)", tokens.size(), verifications.size());
+        return results;
+    }
+
+    @Override
+    public List<Map<String, Object>> getJsonWebKeys() {
+        return tokenProvider.getPublicJwks();
+    }
+
+    /**
+     * Hand a failed attempt to the write-behind queue; never waits, since failures are what
+     * floods in during a credential-stuffing attack
+     */
+    private void recordFailedAttempt(Long userId, LoginCommand command, String reason) {
+        loginAttemptRepository.save(LoginAttempt.failure(userId, command.getIdentifier(),
+                command.getIpAddress(), command.getUserAgent(), reason));
+    }
+
+    private static String failureReason(ErrorCode errorCode) {
+        if (errorCode == ErrorCode.ACCOUNT_LOCKED) {
+            return LoginAttempt.REASON_ACCOUNT_LOCKED;
+        }
+        if (errorCode == ErrorCode.ACCOUNT_DISABLED) {
+            return LoginAttempt.REASON_ACCOUNT_DISABLED;
         }
+        return LoginAttempt.REASON_USER_NOT_FOUND;
     }
 
     private UserInfo toUserInfo(User user) {
@@ -0,0 +1,86 @@
+package com.catface996.auth.application.service.impl;
+
+import com.catface996.auth.domain.model.session.RevocationEpoch;
+import com.catface996.auth.domain.repository.RevocationEpochRepository;
+import com.catface996.auth.domain.security.RevocationEpochs;
+import com.catface996.auth.domain.security.TokenProvider;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Keeps the in-memory revocation epochs in step with the database, so validation never
+ * queries it: all epochs are loaded at startup, then epochs raised by other instances
+ * are polled. Each poll re-reads a short overlap so that a row committed late with an
+ * earlier timestamp is not missed; applying an epoch twice is harmless since epochs only
+ * move forward.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RevocationEpochSynchronizer {
+
+    private static final Duration OVERLAP = Duration.ofSeconds(10);
+
+    private final RevocationEpochRepository revocationEpochRepository;
+    private final RevocationEpochs revocationEpochs;
+    private final TokenProvider tokenProvider;
+
+    private LocalDateTime lastSeen = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    @PostConstruct
+    public void load() {
+        log.info("Loaded {} token revocation epochs", sync());
+    }
+
+    /**
+     * Apply epochs raised since the last poll
+     */
+    @Scheduled(fixedDelayString = "${auth.revocation.epoch-sync-interval-ms:5000}")
+    public void poll() {
+        try {
+            int applied = sync();
+            if (applied > 0) {
+                log.debug("Applied {} token revocation epochs", applied);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to poll token revocation epochs: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Delete epochs that no unexpired token can predate
+     */
+    @Scheduled(fixedRate = 3600000)
+    public void purgeExpired() {
+        long longestLifetime = Math.max(tokenProvider.getExpirationSeconds(false), tokenProvider.getExpirationSeconds(true));
+        try {
+            int deleted = revocationEpochRepository.deleteUpTo(Instant.now().getEpochSecond() - longestLifetime - 1);
+            if (deleted > 0) {
+                log.info("Deleted {} expired token revocation epochs", deleted);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to delete expired token revocation epochs: {}", e.getMessage());
+        }
+    }
+
+    private synchronized int sync() {
+        List<RevocationEpoch> epochs = revocationEpochRepository.findUpdatedSince(lastSeen.minus(OVERLAP));
+        LocalDateTime newest = lastSeen;
+        for (RevocationEpoch epoch : epochs) {
+            revocationEpochs.raise(epoch.userId(), epoch.epochSecond());
+            if (epoch.updatedAt() != null && epoch.updatedAt().isAfter(newest)) {
+                newest = epoch.updatedAt();
+            }
+        }
+        lastSeen = newest;
+        return epochs.size();
+    }
+}
@@ -0,0 +1,201 @@
+package com.catface996.auth.application.service.impl;
+
+import com.catface996.auth.application.result.RevocationBatch;
+import com.catface996.auth.application.service.RevocationStreamService;
+import com.catface996.auth.application.service.RevocationStreamSink;
+import com.catface996.auth.common.exception.AuthException;
+import com.catface996.auth.common.result.ErrorCode;
+import com.catface996.auth.domain.model.session.RevocationEvent;
+import com.catface996.auth.domain.security.RevocationFeed;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Revocation stream implementation: one stream thread per subscriber, at most
+ * {@code auth.revocation.stream.max-subscribers}, reading from the {@link RevocationFeed}.
+ * Streams end after {@code max-duration-ms} so that subscribers reconnect, resume and
+ * spread over instances; an idle stream sends a heartbeat every {@code heartbeat-interval-ms},
+ * which is also how a vanished subscriber is noticed.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RevocationStreamServiceImpl implements RevocationStreamService {
+
+    private static final String RESET = "reset";
+    private static final String SNAPSHOT = "snapshot";
+    private static final String READY = "ready";
+    private static final String REVOCATIONS = "revocations";
+
+    private final RevocationFeed revocationFeed;
+
+    /**
+     * Key subscribers must present; while empty the stream refuses every caller
+     */
+    @Value("${auth.revocation.stream.access-key:}")
+    private String accessKey;
+
+    @Value("${auth.revocation.stream.max-subscribers:64}")
+    private int maxSubscribers;
+
+    @Value("${auth.revocation.stream.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${auth.revocation.stream.heartbeat-interval-ms:15000}")
+    private long heartbeatIntervalMs;
+
+    @Value("${auth.revocation.stream.max-duration-ms:1800000}")
+    private long maxDurationMs;
+
+    private ThreadPoolExecutor streamThreads;
+
+    @PostConstruct
+    public void start() {
+        if (accessKey.isEmpty()) {
+            log.warn("auth.revocation.stream.access-key is not set, the revocation stream refuses all subscribers");
+        }
+        AtomicInteger threadNumber = new AtomicInteger();
+        streamThreads = new ThreadPoolExecutor(0, maxSubscribers, 60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "revocation-stream-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void stop() {
+        // Interrupted streams complete, and subscribers resume on another instance
+        streamThreads.shutdownNow();
+    }
+
+    @Override
+    public void stream(String presentedKey, String lastEventId, RevocationStreamSink sink) {
+        if (accessKey.isEmpty() || presentedKey == null || !MessageDigest.isEqual(
+                accessKey.getBytes(StandardCharsets.UTF_8), presentedKey.getBytes(StandardCharsets.UTF_8))) {
+            throw AuthException.accessDenied();
+        }
+        try {
+            streamThreads.execute(() -> run(lastEventId, sink));
+        } catch (RejectedExecutionException e) {
+            log.warn("Revocation stream refused: all {} stream threads are busy", maxSubscribers);
+            throw new AuthException(ErrorCode.SERVICE_UNAVAILABLE);
+        }
+    }
+
+    private void run(String lastEventId, RevocationStreamSink sink) {
+        long deadline = System.currentTimeMillis() + maxDurationMs;
+        try {
+            long position = resumePosition(lastEventId);
+            if (position < 0) {
+                position = sendSnapshot(sink);
+            }
+            while (System.currentTimeMillis() < deadline) {
+                RevocationBatch batch = new RevocationBatch();
+                long last = revocationFeed.poll(position, batchSize,
+                        Math.min(heartbeatIntervalMs, Math.max(1, deadline - System.currentTimeMillis())),
+                        event -> add(batch, event));
+                if (last < 0) {
+                    log.info("Revocation subscriber fell behind the feed, sending a new snapshot");
+                    position = sendSnapshot(sink);
+                } else if (last == position) {
+                    sink.heartbeat();
+                } else {
+                    sink.send(eventId(last), REVOCATIONS, batch);
+                    position = last;
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Revocation subscriber went away: {}", e.toString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.warn("Revocation stream failed", e);
+        } finally {
+            sink.complete();
+        }
+    }
+
+    /**
+     * @return sequence number to resume after, or -1 if the subscriber needs a snapshot
+     */
+    private long resumePosition(String lastEventId) {
+        if (lastEventId == null) {
+            return -1;
+        }
+        int separator = lastEventId.lastIndexOf('-');
+        if (separator < 0 || !lastEventId.substring(0, separator).equals(revocationFeed.feedId())) {
+            return -1;
+        }
+        try {
+            long sequence = Long.parseLong(lastEventId.substring(separator + 1));
+            return revocationFeed.canResumeAfter(sequence) ? sequence : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Send the revocations in force in batches, bracketed by reset and ready
+     * @return sequence number the snapshot covers
+     */
+    private long sendSnapshot(RevocationStreamSink sink) throws IOException {
+        long position = revocationFeed.latestSequence();
+        sink.send(null, RESET, new RevocationBatch());
+        RevocationBatch[] batch = {new RevocationBatch()};
+        int[] count = {0};
+        try {
+            revocationFeed.snapshot(event -> {
+                add(batch[0], event);
+                if (++count[0] % batchSize == 0) {
+                    send(sink, batch[0]);
+                    batch[0] = new RevocationBatch();
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        if (count[0] % batchSize != 0) {
+            sink.send(null, SNAPSHOT, batch[0]);
+        }
+        sink.send(eventId(position), READY, new RevocationBatch());
+        log.debug("Sent a snapshot of {} revocations up to {}", count[0], eventId(position));
+        return position;
+    }
+
+    private static void send(RevocationStreamSink sink, RevocationBatch batch) {
+        try {
+            sink.send(null, SNAPSHOT, batch);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void add(RevocationBatch batch, RevocationEvent event) {
+        if (event.type() == RevocationEvent.Type.TOKEN) {
+            batch.getTokenIds().add(event.tokenId());
+            batch.getTokenExpiresAt().add(event.epochSecond());
+        } else {
+            batch.getUserIds().add(event.userId());
+            batch.getUserEpochs().add(event.epochSecond());
+        }
+    }
+
+    private String eventId(long sequence) {
+        return revocationFeed.feedId() + "-" + sequence;
+    }
+}
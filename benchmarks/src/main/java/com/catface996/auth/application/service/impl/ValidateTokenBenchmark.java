@@ -0,0 +1,154 @@
+package com.catface996.auth.application.service.impl;
+
+import com.catface996.auth.application.result.TokenValidationResult;
+import com.catface996.auth.domain.model.session.TokenClaims;
+import com.catface996.auth.domain.model.session.TokenVerification;
+import com.catface996.auth.domain.model.user.User;
+import com.catface996.auth.domain.security.TokenBlacklist;
+import com.catface996.auth.domain.security.TokenProvider;
+import com.catface996.auth.infrastructure.security.jwt.BlacklistProperties;
+import com.catface996.auth.infrastructure.security.jwt.CompactRevocationEpochs;
+import com.catface996.auth.infrastructure.security.jwt.CompactTokenBlacklist;
+import com.catface996.auth.infrastructure.security.jwt.JwtProperties;
+import com.catface996.auth.infrastructure.security.jwt.JwtTokenProvider;
+import com.catface996.auth.infrastructure.security.jwt.SigningKeyRing;
+import com.catface996.auth.infrastructure.security.jwt.VerifiedTokenCache;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CPU per {@code /validate} call before and after tokens were verified once per request.
+ * <p>
+ * {@link #parsePerCall} replays the old path: the authentication filter ran
+ * {@code validateToken}, {@code getTokenId} and {@code parseToken}, each building a new
+ * {@code Jwts.parser()} and checking the HMAC again, plus a blacklist lookup, and
+ * {@code AuthServiceImpl.validateToken(String)} then did all of it a second time.
+ * {@link #verifyOnce} is the current path: one {@link TokenProvider#verify} in the filter,
+ * whose result {@link AuthServiceImpl#validateToken(TokenVerification)} reuses for the
+ * revocation checks. Both use the same HS256 token and compact blacklist; the
+ * {@code verifiedTokenCache} parameter shows the current path with and without
+ * {@link VerifiedTokenCache} hits.
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar ValidateTokenBenchmark -prof gc
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValidateTokenBenchmark {
+
+    private static final String SECRET = "benchmark-only-hmac-secret-of-at-least-256-bits";
+
+    @Param({"false", "true"})
+    public boolean verifiedTokenCache;
+
+    private String token;
+    private SecretKey secretKey;
+    private TokenBlacklist tokenBlacklist;
+    private TokenProvider tokenProvider;
+    private AuthServiceImpl authService;
+
+    @Setup
+    public void setUp() {
+        JwtProperties jwtProperties = new JwtProperties();
+        jwtProperties.setSecret(SECRET);
+        jwtProperties.getCache().setEnabled(verifiedTokenCache);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        SigningKeyRing signingKeyRing = new SigningKeyRing(jwtProperties);
+        signingKeyRing.init();
+        JwtTokenProvider jwtTokenProvider = new JwtTokenProvider(jwtProperties,
+                new VerifiedTokenCache(jwtProperties, meterRegistry), signingKeyRing);
+        jwtTokenProvider.init();
+        tokenProvider = jwtTokenProvider;
+        secretKey = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        tokenBlacklist = new CompactTokenBlacklist(new BlacklistProperties(), meterRegistry);
+        // Validation touches only the token provider and the revocation checks
+        authService = new AuthServiceImpl(null, null, null, null, tokenProvider, tokenBlacklist,
+                new CompactRevocationEpochs(jwtProperties, meterRegistry), null, null, null, null);
+
+        User user = User.builder()
+                .id(1001L)
+                .username("alice")
+                .roles(Set.of("ROLE_USER", "ROLE_ADMIN"))
+                .build();
+        token = tokenProvider.generateToken(user, false);
+        if (!parsePerCall().isValid() || !verifyOnce().isValid()) {
+            throw new IllegalStateException("Benchmark token does not validate");
+        }
+    }
+
+    @Benchmark
+    public TokenValidationResult parsePerCall() {
+        // JwtAuthenticationFilter
+        if (validateByParsing(token) && !tokenBlacklist.isBlacklisted(tokenIdByParsing(token))) {
+            parseClaims(token);
+        }
+        // AuthServiceImpl.validateToken(String)
+        if (!validateByParsing(token)) {
+            return TokenValidationResult.failure("Invalid token");
+        }
+        if (tokenBlacklist.isBlacklisted(tokenIdByParsing(token))) {
+            return TokenValidationResult.failure("Token has been revoked");
+        }
+        TokenClaims claims = parseClaims(token);
+        if (claims.isExpired()) {
+            return TokenValidationResult.failure("Token has expired");
+        }
+        return TokenValidationResult.success(claims.userId(), claims.username(), claims.roles(), claims.expiresAt());
+    }
+
+    @Benchmark
+    public TokenValidationResult verifyOnce() {
+        return authService.validateToken(tokenProvider.verify(token));
+    }
+
+    private boolean validateByParsing(String token) {
+        Jwts.parser().verifyWith(secretKey).build().parseSignedClaims(token);
+        return true;
+    }
+
+    private String tokenIdByParsing(String token) {
+        return Jwts.parser().verifyWith(secretKey).build().parseSignedClaims(token).getPayload().getId();
+    }
+
+    private TokenClaims parseClaims(String token) {
+        Claims claims = Jwts.parser().verifyWith(secretKey).build().parseSignedClaims(token).getPayload();
+        @SuppressWarnings("unchecked")
+        List<String> roles = claims.get("roles", List.class);
+        return new TokenClaims(
+                claims.get("userId", Long.class),
+                claims.get("username", String.class),
+                roles != null ? new HashSet<>(roles) : Set.of(),
+                LocalDateTime.ofInstant(claims.getIssuedAt().toInstant(), ZoneId.systemDefault()),
+                LocalDateTime.ofInstant(claims.getExpiration().toInstant(), ZoneId.systemDefault()),
+                Boolean.TRUE.equals(claims.get("rememberMe", Boolean.class)),
+                claims.getId()
+        );
+    }
+}
@@ -0,0 +1,33 @@
+package com.catface996.auth.infrastructure.security.jwt;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Scratch directories for the journal benchmarks. They are created under
+ * {@code java.io.tmpdir}; point it at the disk under test, since a tmpfs makes every
+ * fsync free.
+ */
+final class BenchmarkFiles {
+
+    private BenchmarkFiles() {
+    }
+
+    static Path createDirectory(String prefix) throws IOException {
+        return Files.createTempDirectory(prefix);
+    }
+
+    static void delete(Path directory) throws IOException {
+        if (directory == null || !Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+}
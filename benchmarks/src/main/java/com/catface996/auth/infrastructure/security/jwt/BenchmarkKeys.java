@@ -0,0 +1,32 @@
+package com.catface996.auth.infrastructure.security.jwt;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.SecureRandom;
+
+/**
+ * Throwaway signing keys for the token benchmarks
+ */
+final class BenchmarkKeys {
+
+    static final String ISSUER = "op-stack-auth";
+
+    private BenchmarkKeys() {
+    }
+
+    /**
+     * Create a signing key
+     * @param algorithm HS256, RS256 (2048-bit) or EdDSA (Ed25519)
+     */
+    static SigningKey create(String algorithm) throws GeneralSecurityException {
+        JwsAlgorithm jwsAlgorithm = JwsAlgorithm.valueOf(algorithm);
+        if (jwsAlgorithm.isMac()) {
+            byte[] secret = new byte[32];
+            new SecureRandom().nextBytes(secret);
+            return SigningKey.hmac("bench", new SecretKeySpec(secret, jwsAlgorithm.jcaName()));
+        }
+        KeyPair keyPair = SigningKeyLoader.generate(jwsAlgorithm);
+        return SigningKey.asymmetric("bench", jwsAlgorithm, keyPair.getPrivate(), keyPair.getPublic());
+    }
+}
@@ -0,0 +1,118 @@
+package com.catface996.auth.infrastructure.security.jwt;
+
+import com.catface996.auth.domain.security.TokenBlacklist;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Memory held by each blacklist store once it holds 1M and 10M revoked tokens: the
+ * {@link CompactTokenBlacklist} with its table on and off the heap, against the
+ * {@code ConcurrentHashMap<String, Instant>} of {@link InMemoryTokenBlacklist}.
+ * <p>
+ * Each iteration fills a new store with fresh token IDs, as revocations would arrive,
+ * and reports the growth of the used heap and of direct buffers after a full GC as the
+ * {@code heapBytesPerEntry} and {@code offHeapBytesPerEntry} secondary results. The
+ * score is the time to fill the store. Both counts include the expiry index and any
+ * slack the table keeps after growing.
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar BlacklistFootprintBenchmark
+ * java -jar benchmarks/target/benchmarks.jar BlacklistFootprintBenchmark -p entries=1000000
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g", "-XX:MaxDirectMemorySize=4g"})
+public class BlacklistFootprintBenchmark {
+
+    private static final long EXPIRATION_SECONDS = 3600;
+
+    /**
+     * {@code compact}, {@code compact-off-heap} or {@code memory}
+     */
+    @Param({"compact", "compact-off-heap", "memory"})
+    public String store;
+
+    @Param({"1000000", "10000000"})
+    public int entries;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+
+        public long heapBytesPerEntry;
+        public long offHeapBytesPerEntry;
+
+        private long heapBefore;
+        private long offHeapBefore;
+
+        @Setup(Level.Iteration)
+        public void setUp() throws InterruptedException {
+            heapBytesPerEntry = 0;
+            offHeapBytesPerEntry = 0;
+            // The previous store's direct buffers are freed by a cleaner thread after the GC
+            long direct;
+            do {
+                direct = usedDirect();
+                heapBefore = usedHeap();
+                Thread.sleep(100);
+            } while (usedDirect() != direct);
+            offHeapBefore = direct;
+        }
+    }
+
+    @Benchmark
+    public TokenBlacklist fill(Footprint footprint) {
+        TokenBlacklist blacklist = newStore();
+        for (int i = 0; i < entries; i++) {
+            blacklist.addToBlacklist(JtiGenerator.next(), EXPIRATION_SECONDS);
+        }
+        footprint.heapBytesPerEntry = (usedHeap() - footprint.heapBefore) / entries;
+        footprint.offHeapBytesPerEntry = (usedDirect() - footprint.offHeapBefore) / entries;
+        Reference.reachabilityFence(blacklist);
+        return blacklist;
+    }
+
+    private TokenBlacklist newStore() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        if ("memory".equals(store)) {
+            return new InMemoryTokenBlacklist(meterRegistry);
+        }
+        BlacklistProperties properties = new BlacklistProperties();
+        properties.getCompact().setOffHeap("compact-off-heap".equals(store));
+        return new CompactTokenBlacklist(properties, meterRegistry);
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static long usedDirect() {
+        return ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class).stream()
+                .filter(pool -> "direct".equals(pool.getName()))
+                .mapToLong(BufferPoolMXBean::getMemoryUsed)
+                .sum();
+    }
+}
@@ -0,0 +1,102 @@
+package com.catface996.auth.infrastructure.security.jwt;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.security.GeneralSecurityException;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tokens signed per second by one shared {@link JwsTokenSigner}, from 1 to 64 threads.
+ * JMH cannot take {@code @Threads} as a parameter, so each thread count is its own
+ * method; the scores show whether signing scales with cores or contends on the signer.
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar JwsTokenSignerBenchmark
+ * java -jar benchmarks/target/benchmarks.jar JwsTokenSignerBenchmark -p algorithm=EdDSA -prof gc
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwsTokenSignerBenchmark {
+
+    private static final String TOKEN_ID = "0b7c1c1e-4a5d-4c1b-9e0f-3d2a1b0c9d8e";
+    private static final Long USER_ID = 1001L;
+    private static final String USERNAME = "alice";
+    private static final List<String> ROLES = List.of("ROLE_USER", "ROLE_ADMIN");
+
+    @Param({"HS256", "RS256", "EdDSA"})
+    public String algorithm;
+
+    private JwsTokenSigner signer;
+    private long issuedAt;
+    private long expiresAt;
+
+    @Setup
+    public void setUp() throws GeneralSecurityException {
+        signer = new JwsTokenSigner(BenchmarkKeys.create(algorithm), BenchmarkKeys.ISSUER);
+        issuedAt = Instant.now().getEpochSecond();
+        expiresAt = issuedAt + 3600;
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String threads01() {
+        return sign();
+    }
+
+    @Benchmark
+    @Threads(2)
+    public String threads02() {
+        return sign();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String threads04() {
+        return sign();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String threads08() {
+        return sign();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public String threads16() {
+        return sign();
+    }
+
+    @Benchmark
+    @Threads(32)
+    public String threads32() {
+        return sign();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public String threads64() {
+        return sign();
+    }
+
+    private String sign() {
+        return signer.sign(TOKEN_ID, USER_ID, USERNAME, ROLES, false, issuedAt, expiresAt);
+    }
+}
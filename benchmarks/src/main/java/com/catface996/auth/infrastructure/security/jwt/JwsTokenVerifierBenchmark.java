@@ -0,0 +1,85 @@
+package com.catface996.auth.infrastructure.security.jwt;
+
+import com.catface996.auth.domain.model.session.TokenVerification;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.JwtParserBuilder;
+import io.jsonwebtoken.Jwts;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.crypto.SecretKey;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.PublicKey;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One token verification on the {@link JwsTokenVerifier} fast path against the same
+ * verification through {@code Jwts.parser()}, which the fast path replaced. Both check
+ * the signature and parse the claims; the parser is built once, as a service would.
+ * Allocation per verification is the other half of the comparison, so run with the GC
+ * profiler and compare {@code gc.alloc.rate.norm}:
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar JwsTokenVerifierBenchmark -prof gc
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwsTokenVerifierBenchmark {
+
+    @Param({"HS256", "RS256", "EdDSA"})
+    public String algorithm;
+
+    private String token;
+    private JwsTokenVerifier verifier;
+    private JwtParser parser;
+
+    @Setup
+    public void setUp() throws GeneralSecurityException {
+        SigningKey signingKey = BenchmarkKeys.create(algorithm);
+        long issuedAt = Instant.now().getEpochSecond();
+        token = new JwsTokenSigner(signingKey, BenchmarkKeys.ISSUER).sign(
+                "0b7c1c1e-4a5d-4c1b-9e0f-3d2a1b0c9d8e", 1001L, "alice", List.of("ROLE_USER", "ROLE_ADMIN"),
+                false, issuedAt, issuedAt + 3600);
+
+        verifier = new JwsTokenVerifier(List.of(signingKey), null);
+        if (verifier.verify(token) == null) {
+            throw new IllegalStateException("Token did not take the fast path");
+        }
+
+        JwtParserBuilder builder = Jwts.parser();
+        Key key = signingKey.verificationKey();
+        if (key instanceof SecretKey secretKey) {
+            builder.verifyWith(secretKey);
+        } else {
+            builder.verifyWith((PublicKey) key);
+        }
+        parser = builder.build();
+    }
+
+    @Benchmark
+    public TokenVerification fastPath() {
+        return verifier.verify(token);
+    }
+
+    @Benchmark
+    public Claims jjwtParser() {
+        return parser.parseSignedClaims(token).getPayload();
+    }
+}
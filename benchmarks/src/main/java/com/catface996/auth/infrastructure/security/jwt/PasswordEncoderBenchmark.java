@@ -0,0 +1,84 @@
+package com.catface996.auth.infrastructure.security.jwt;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one hash and one check per encoder, at the uncalibrated costs configured in
+ * application.yml: bcrypt 10 rounds, Argon2id 19 MiB x 2 passes, PBKDF2-SHA256 310000
+ * iterations. The encoders come from {@link PasswordEncoderFactory}, so the numbers
+ * include the {@code {id}} prefix handling of the delegating encoder.
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar PasswordEncoderBenchmark
+ * java -jar benchmarks/target/benchmarks.jar PasswordEncoderBenchmark -p bcryptStrength=12
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordEncoderBenchmark {
+
+    private static final String PASSWORD = "correct-Horse-battery-7";
+
+    @Param({"bcrypt", "argon2", "pbkdf2"})
+    public String encoder;
+
+    @Param({"10"})
+    public int bcryptStrength;
+
+    @Param({"19456"})
+    public int argon2MemoryKib;
+
+    @Param({"2"})
+    public int argon2Iterations;
+
+    @Param({"310000"})
+    public int pbkdf2Iterations;
+
+    private PasswordEncoder passwordEncoder;
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        PasswordHashingProperties properties = new PasswordHashingProperties();
+        properties.setEncoder(encoder);
+        properties.setCalibrate(false);
+        properties.setBcryptStrength(bcryptStrength);
+        properties.setArgon2MemoryKib(argon2MemoryKib);
+        properties.setArgon2Iterations(argon2Iterations);
+        properties.setPbkdf2Iterations(pbkdf2Iterations);
+        passwordEncoder = new PasswordEncoderFactory(properties).create();
+        hash = passwordEncoder.encode(PASSWORD);
+    }
+
+    /**
+     * Registration and rehash cost: a new salt and a full hash
+     */
+    @Benchmark
+    public String encode() {
+        return passwordEncoder.encode(PASSWORD);
+    }
+
+    /**
+     * Login cost: hash the presented password with the stored salt and compare
+     */
+    @Benchmark
+    public boolean matches() {
+        return passwordEncoder.matches(PASSWORD, hash);
+    }
+}
@@ -0,0 +1,87 @@
+package com.catface996.auth.infrastructure.security.jwt;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Revocations per second through {@link PersistentTokenBlacklist#addToBlacklist}, with
+ * {@code auth.blacklist.persistent.wait-for-sync} on and off. With it on, each call
+ * returns only once its group commit is on disk, so throughput depends on how many
+ * threads share one fsync; each thread count is its own method, as {@code @Threads}
+ * cannot be a parameter. Every iteration starts from an empty store in a new directory.
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar PersistentBlacklistAppendBenchmark
+ * java -jar benchmarks/target/benchmarks.jar PersistentBlacklistAppendBenchmark -jvmArgsAppend -Djava.io.tmpdir=/data/tmp
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class PersistentBlacklistAppendBenchmark {
+
+    private static final long EXPIRATION_SECONDS = 3600;
+
+    @Param({"true", "false"})
+    public boolean waitForSync;
+
+    private Path directory;
+    private PersistentTokenBlacklist blacklist;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws IOException {
+        directory = BenchmarkFiles.createDirectory("blacklist-append");
+        BlacklistProperties properties = new BlacklistProperties();
+        properties.getPersistent().setDirectory(directory.toString());
+        properties.getPersistent().setWaitForSync(waitForSync);
+        blacklist = new PersistentTokenBlacklist(properties, new SimpleMeterRegistry());
+        blacklist.recover();
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws IOException {
+        blacklist.close();
+        BenchmarkFiles.delete(directory);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void threads01() {
+        revoke();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void threads08() {
+        revoke();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public void threads64() {
+        revoke();
+    }
+
+    private void revoke() {
+        blacklist.addToBlacklist(JtiGenerator.next(), EXPIRATION_SECONDS);
+    }
+}
@@ -0,0 +1,100 @@
+package com.catface996.auth.infrastructure.security.jwt;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Startup time of {@link PersistentTokenBlacklist#recover()} on a snapshot of 5M live
+ * revocations followed by a log of further changes, as left by a crash between two
+ * compactions. The files are written once per trial; every iteration recovers a new
+ * store from them.
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar PersistentBlacklistRecoveryBenchmark
+ * java -jar benchmarks/target/benchmarks.jar PersistentBlacklistRecoveryBenchmark -jvmArgsAppend -Djava.io.tmpdir=/data/tmp
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class PersistentBlacklistRecoveryBenchmark {
+
+    private static final long EXPIRATION_SECONDS = 3600;
+
+    @Param({"5000000"})
+    public int snapshotEntries;
+
+    /**
+     * Revocations journaled after the snapshot; every tenth one is removed again
+     */
+    @Param({"0", "1000000"})
+    public int logRecords;
+
+    private Path directory;
+    private PersistentTokenBlacklist recovered;
+
+    @Setup(Level.Trial)
+    public void writeFiles() throws IOException {
+        directory = BenchmarkFiles.createDirectory("blacklist-recovery");
+        PersistentTokenBlacklist blacklist = newStore();
+        blacklist.recover();
+        for (int i = 0; i < snapshotEntries; i++) {
+            blacklist.addToBlacklist(JtiGenerator.next(), EXPIRATION_SECONDS);
+        }
+        blacklist.compact();
+        for (int i = 0; i < logRecords; i++) {
+            String tokenId = JtiGenerator.next();
+            blacklist.addToBlacklist(tokenId, EXPIRATION_SECONDS);
+            if (i % 10 == 0) {
+                blacklist.removeFromBlacklist(tokenId);
+            }
+        }
+        blacklist.close();
+    }
+
+    @Benchmark
+    public PersistentTokenBlacklist recover() throws IOException {
+        recovered = newStore();
+        recovered.recover();
+        return recovered;
+    }
+
+    @TearDown(Level.Iteration)
+    public void closeRecovered() throws IOException {
+        if (recovered != null) {
+            recovered.close();
+            recovered = null;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFiles() throws IOException {
+        BenchmarkFiles.delete(directory);
+    }
+
+    private PersistentTokenBlacklist newStore() {
+        BlacklistProperties properties = new BlacklistProperties();
+        properties.getPersistent().setDirectory(directory.toString());
+        // Only the files matter here; filling them need not wait for each fsync
+        properties.getPersistent().setWaitForSync(false);
+        return new PersistentTokenBlacklist(properties, new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,97 @@
+package com.catface996.auth.infrastructure.security.jwt;
+
+import com.catface996.auth.domain.model.session.TokenVerification;
+import com.catface996.auth.domain.model.user.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.security.GeneralSecurityException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Issuing and verifying one token in each {@code auth.token.mode}: an opaque reference
+ * token through {@link OpaqueTokenProvider} against a JWS through the {@link JwsTokenSigner}
+ * and {@link JwsTokenVerifier} that {@link JwtTokenProvider} uses on a verified-token cache
+ * miss. Opaque issuing stores a session, so the in-memory store is replaced every
+ * iteration to keep its growth out of the scores; journal writes are left out.
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar TokenModeBenchmark
+ * java -jar benchmarks/target/benchmarks.jar TokenModeBenchmark -p mode=opaque,EdDSA -prof gc
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TokenModeBenchmark {
+
+    private static final String OPAQUE = "opaque";
+    private static final User USER = User.builder()
+            .id(1001L)
+            .username("alice")
+            .roles(Set.of("ROLE_USER", "ROLE_ADMIN"))
+            .build();
+    private static final List<String> ROLES = List.copyOf(USER.getRoles());
+
+    /**
+     * {@code opaque}, or the JWS algorithm of a signed token
+     */
+    @Param({OPAQUE, "HS256", "RS256", "EdDSA"})
+    public String mode;
+
+    private OpaqueTokenProvider opaqueProvider;
+    private JwsTokenSigner signer;
+    private JwsTokenVerifier verifier;
+    private String token;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws GeneralSecurityException {
+        if (OPAQUE.equals(mode)) {
+            JwtProperties jwtProperties = new JwtProperties();
+            OpaqueSessionStore sessionStore =
+                    new OpaqueSessionStore(new OpaqueTokenProperties(), new SimpleMeterRegistry());
+            opaqueProvider = new OpaqueTokenProvider(jwtProperties, sessionStore);
+            token = opaqueProvider.generateToken(USER, false);
+        } else if (signer == null) {
+            SigningKey signingKey = BenchmarkKeys.create(mode);
+            signer = new JwsTokenSigner(signingKey, BenchmarkKeys.ISSUER);
+            verifier = new JwsTokenVerifier(List.of(signingKey), null);
+            token = issueJws();
+            if (verifier.verify(token) == null) {
+                throw new IllegalStateException("Token did not take the fast path");
+            }
+        }
+    }
+
+    @Benchmark
+    public String issue() {
+        return OPAQUE.equals(mode) ? opaqueProvider.generateToken(USER, false) : issueJws();
+    }
+
+    @Benchmark
+    public TokenVerification verify() {
+        return OPAQUE.equals(mode) ? opaqueProvider.verify(token) : verifier.verify(token);
+    }
+
+    private String issueJws() {
+        long issuedAt = Instant.now().getEpochSecond();
+        return signer.sign(JtiGenerator.next(), USER.getId(), USER.getUsername(), ROLES, false,
+                issuedAt, issuedAt + 3600);
+    }
+}
@@ -0,0 +1,71 @@
+package com.catface996.auth.bootstrap.config;
+
+import com.alibaba.druid.filter.FilterChain;
+import com.alibaba.druid.filter.FilterEventAdapter;
+import com.alibaba.druid.pool.DruidDataSource;
+import com.alibaba.druid.pool.DruidPooledConnection;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records how long each pooled JDBC connection is held, from borrowing it to closing it,
+ * as {@code auth.db.connection.hold} tagged with the endpoint that borrowed it.
+ * <p>
+ * A Druid filter, which the Druid starter adds to the pool, times the pool's own borrow
+ * and release hooks, so every borrower is covered: single statements, whole
+ * transactions, and transactions run on the password hashing threads, which see the
+ * endpoint through the MDC they carry over. Connections borrowed outside a mapped request,
+ * such as by scheduled jobs, are tagged {@code none}. The data source itself is left
+ * unwrapped, so Spring still closes the pool on shutdown.
+ */
+@Component
+public class ConnectionHoldTimeMetrics extends FilterEventAdapter {
+
+    private static final String NO_ENDPOINT = "none";
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    // A pooled connection object is handed to one borrower and discarded on release
+    private final Map<DruidPooledConnection, Hold> holds = new ConcurrentHashMap<>();
+
+    public ConnectionHoldTimeMetrics(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public DruidPooledConnection dataSource_getConnection(FilterChain chain, DruidDataSource dataSource,
+                                                         long maxWaitMillis) throws SQLException {
+        DruidPooledConnection connection = super.dataSource_getConnection(chain, dataSource, maxWaitMillis);
+        String endpoint = MDC.get(EndpointMdcInterceptor.MDC_ENDPOINT);
+        holds.put(connection, new Hold(System.nanoTime(), endpoint != null ? endpoint : NO_ENDPOINT));
+        return connection;
+    }
+
+    @Override
+    public void dataSource_releaseConnection(FilterChain chain, DruidPooledConnection connection)
+            throws SQLException {
+        Hold hold = holds.remove(connection);
+        if (hold != null) {
+            timer(hold.endpoint()).record(System.nanoTime() - hold.borrowedAt(), TimeUnit.NANOSECONDS);
+        }
+        super.dataSource_releaseConnection(chain, connection);
+    }
+
+    private Timer timer(String endpoint) {
+        return timers.computeIfAbsent(endpoint, key -> Timer.builder("auth.db.connection.hold")
+                .description("Time a pooled database connection was held before being returned")
+                .tag("endpoint", key)
+                .register(meterRegistry.getObject()));
+    }
+
+    private record Hold(long borrowedAt, String endpoint) {
+    }
+}
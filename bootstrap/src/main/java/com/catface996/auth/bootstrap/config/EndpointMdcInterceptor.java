@@ -0,0 +1,37 @@
+package com.catface996.auth.bootstrap.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Interceptor putting the matched endpoint (method and path pattern) into the MDC, so that
+ * work done for the request, including stages on the password hashing threads, can be
+ * attributed to it. Path patterns keep the value low-cardinality.
+ */
+public class EndpointMdcInterceptor implements AsyncHandlerInterceptor {
+
+    public static final String MDC_ENDPOINT = "endpoint";
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern != null) {
+            MDC.put(MDC_ENDPOINT, request.getMethod() + " " + pattern);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // The servlet thread is released; the async stages carry their own copy of the MDC
+        MDC.remove(MDC_ENDPOINT);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        MDC.remove(MDC_ENDPOINT);
+    }
+}
@@ -7,6 +7,7 @@ import com.catface996.auth.common.result.Result;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -30,6 +31,13 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(AuthException.class)
     public ResponseEntity<Result<Void>> handleAuthException(AuthException e) {
         log.warn("认证错误: {} - {}", e.getCode(), e.getMessage());
+        if (e.getCode() == ErrorCode.SERVICE_UNAVAILABLE.getCode()) {
+            // 过载时快速拒绝，提示客户端稍后重试
+            return ResponseEntity
+                    .status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(Result.failure(e.getCode(), e.getMessage()));
+        }
         return ResponseEntity
                 .status(mapToHttpStatus(e.getCode()))
                 .body(Result.failure(e.getCode(), e.getMessage()));
@@ -2,6 +2,8 @@ package com.catface996.auth.bootstrap.config;
 
 import com.catface996.auth.common.exception.AuthException;
 import com.catface996.auth.domain.model.session.TokenClaims;
+import com.catface996.auth.domain.model.session.TokenVerification;
+import com.catface996.auth.domain.security.RevocationEpochs;
 import com.catface996.auth.domain.security.TokenBlacklist;
 import com.catface996.auth.domain.security.TokenProvider;
 import jakarta.servlet.FilterChain;
@@ -14,6 +16,7 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
@@ -30,9 +33,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private static final String AUTHORIZATION_HEADER = "Authorization";
     private static final String BEARER_PREFIX = "Bearer ";
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
 
     private final TokenProvider tokenProvider;
     private final TokenBlacklist tokenBlacklist;
+    private final RevocationEpochs revocationEpochs;
 
     @Override
     protected void doFilterInternal(
@@ -43,14 +48,20 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String token = extractToken(request);
 
-            if (token != null && tokenProvider.validateToken(token)) {
-                String tokenId = tokenProvider.getTokenId(token);
+            if (token != null) {
+                // Verify once and share the result with the controller and service layers
+                TokenVerification verification = tokenProvider.verify(token);
+                request.setAttribute(TokenVerification.REQUEST_ATTRIBUTE, verification);
 
-                if (tokenBlacklist.isBlacklisted(tokenId)) {
-                    log.debug("Token is blacklisted: {}", tokenId);
-                } else {
-                    TokenClaims claims = tokenProvider.parseToken(token);
-                    setAuthentication(claims);
+                if (verification.valid()) {
+                    TokenClaims claims = verification.claims();
+                    if (revocationEpochs.isRevoked(claims)) {
+                        log.debug("Token {} predates the revocation epoch of user {}", claims.tokenId(), claims.userId());
+                    } else if (tokenBlacklist.isBlacklisted(claims.tokenId())) {
+                        log.debug("Token is blacklisted: {}", claims.tokenId());
+                    } else {
+                        setAuthentication(claims);
+                    }
                 }
             }
         } catch (AuthException e) {
@@ -62,6 +73,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (String pattern : SecurityConfig.PUBLIC_ENDPOINTS) {
+            if (PATH_MATCHER.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private String extractToken(HttpServletRequest request) {
         String bearerToken = request.getHeader(AUTHORIZATION_HEADER);
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith(BEARER_PREFIX)) {
@@ -1,5 +1,6 @@
 package com.catface996.auth.bootstrap.config;
 
+import com.catface996.auth.infrastructure.security.jwt.PasswordEncoderFactory;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -8,7 +9,6 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -26,11 +26,19 @@ public class SecurityConfig {
     private final CustomAccessDeniedHandler accessDeniedHandler;
     private final CustomAuthenticationEntryPoint authenticationEntryPoint;
 
-    private static final String[] PUBLIC_ENDPOINTS = {
+    /**
+     * Endpoints reachable without authentication; JwtAuthenticationFilter skips token work on these
+     */
+    static final String[] PUBLIC_ENDPOINTS = {
             "/api/auth/v1/register",
             "/api/auth/v1/login",
             "/api/auth/v1/refresh",
             "/api/auth/v1/validate",
+            "/api/auth/v1/validate/batch",
+            "/api/auth/v1/validate/header",
+            // Guarded by its own access key; refused while auth.revocation.stream.access-key is unset
+            "/api/auth/v1/revocations/stream",
+            "/.well-known/jwks.json",
             "/actuator/health",
             "/actuator/info",
             "/error",
@@ -62,8 +70,11 @@ public class SecurityConfig {
         return http.build();
     }
 
+    /**
+     * Delegating encoder under the configured hashing policy, calibrated at startup
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(PasswordEncoderFactory passwordEncoderFactory) {
+        return passwordEncoderFactory.create();
     }
 }
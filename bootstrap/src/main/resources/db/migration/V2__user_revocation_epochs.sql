@@ -0,0 +1,10 @@
+-- Per-user token revocation epochs ("log out everywhere")
+-- Tokens a user was issued at or before epoch_second are rejected.
+-- No foreign key: bulk revocations may name users that were deleted meanwhile,
+-- and rows are pruned once every token they cover has expired.
+CREATE TABLE IF NOT EXISTS user_revocation_epochs (
+    user_id BIGINT PRIMARY KEY,
+    epoch_second BIGINT NOT NULL,
+    updated_at DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    INDEX idx_user_revocation_epochs_updated_at (updated_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
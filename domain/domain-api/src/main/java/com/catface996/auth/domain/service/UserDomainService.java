@@ -2,18 +2,31 @@ package com.catface996.auth.domain.service;
 
 import com.catface996.auth.domain.model.user.User;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 /**
  * Domain service for user-related operations
  */
 public interface UserDomainService {
 
     /**
-     * Validate user credentials
+     * Load the user behind a login identifier and check that the account may log in. The
+     * password is not checked here, so no connection is held while it is hashed
      * @param identifier username or email
+     * @return the user whose password is to be checked
+     * @throws com.catface996.auth.common.exception.AuthException if the user is unknown, inactive or locked
+     */
+    User loadForLogin(String identifier);
+
+    /**
+     * Check a password against the user's stored hash on the hashing executor
+     * @param user the user loaded for login
      * @param password raw password
-     * @return authenticated user
+     * @return future of true if the password matches, completed on the hashing thread
+     * @throws com.catface996.auth.common.exception.AuthException if the hashing queue is full
      */
-    User authenticate(String identifier, String password);
+    CompletableFuture<Boolean> checkPassword(User user, String password);
 
     /**
      * Check if user account is locked
@@ -33,4 +46,12 @@ public interface UserDomainService {
      * @param user the user who logged in successfully
      */
     void resetFailedAttempts(User user);
+
+    /**
+     * Replace a hash made under an older policy in the background after a successful login
+     * @param user the user who logged in successfully
+     * @param password the raw password that matched
+     * @param writeExecutor executor for the write once the new hash is ready
+     */
+    void upgradePasswordHash(User user, String password, Executor writeExecutor);
 }
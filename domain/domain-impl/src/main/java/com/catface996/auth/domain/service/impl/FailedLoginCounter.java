@@ -0,0 +1,133 @@
+package com.catface996.auth.domain.service.impl;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * In-memory sliding window of recent failed logins per user, split into independently
+ * locked stripes.
+ * <p>
+ * A user with recent failures has a ring holding the times of its last
+ * {@code max-failed-attempts} failures; the threshold is reached when all of them fall
+ * inside the window. Reaching it clears the ring in the same critical section, so among
+ * concurrent failures exactly one is told to lock the account. Failures cost no database
+ * write until then. Windows are per instance: with several instances, an attacker spread
+ * over them gets up to that many times the threshold before the lock, which then applies
+ * everywhere through the database.
+ */
+@Component
+public class FailedLoginCounter {
+
+    private final int threshold;
+    private final long windowMillis;
+    private final Stripe[] stripes;
+
+    public FailedLoginCounter(@Value("${auth.security.max-failed-attempts:5}") int threshold,
+                              @Value("${auth.security.failure-window-minutes:15}") long windowMinutes,
+                              @Value("${auth.security.lockout-stripes:64}") int stripes) {
+        this.threshold = Math.max(1, threshold);
+        this.windowMillis = windowMinutes * 60_000;
+        int count = Integer.highestOneBit(Math.max(1, stripes) * 2 - 1);
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            this.stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Record a failed login
+     * @param userId the user who failed
+     * @return true if this failure reached the threshold; the window is then cleared
+     */
+    public boolean recordFailure(long userId) {
+        return recordFailure(userId, System.currentTimeMillis());
+    }
+
+    boolean recordFailure(long userId, long now) {
+        Stripe stripe = stripe(userId);
+        synchronized (stripe) {
+            Window window = stripe.windows.computeIfAbsent(userId, id -> new Window(threshold));
+            if (window.add(now, now - windowMillis) < threshold) {
+                return false;
+            }
+            stripe.windows.remove(userId);
+            return true;
+        }
+    }
+
+    /**
+     * Forget a user's failures after a successful login
+     * @param userId the user
+     */
+    public void clear(long userId) {
+        Stripe stripe = stripe(userId);
+        synchronized (stripe) {
+            stripe.windows.remove(userId);
+        }
+    }
+
+    /**
+     * Drop windows whose newest failure has left the window
+     */
+    @Scheduled(fixedRate = 60000)
+    public void evictExpired() {
+        long cutoff = System.currentTimeMillis() - windowMillis;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                Iterator<Window> windows = stripe.windows.values().iterator();
+                while (windows.hasNext()) {
+                    if (windows.next().newest() <= cutoff) {
+                        windows.remove();
+                    }
+                }
+            }
+        }
+    }
+
+    private Stripe stripe(long userId) {
+        // Spread sequential IDs over the stripes
+        long hash = userId * 0x9E3779B97F4A7C15L;
+        return stripes[(int) (hash >>> 32) & (stripes.length - 1)];
+    }
+
+    private static final class Stripe {
+        private final Map<Long, Window> windows = new HashMap<>();
+    }
+
+    /**
+     * Ring of the last failure times of one user
+     */
+    private static final class Window {
+
+        private final long[] times;
+        private int next;
+
+        Window(int size) {
+            this.times = new long[size];
+        }
+
+        /**
+         * Add a failure and count the failures after the cutoff, this one included
+         */
+        int add(long now, long cutoff) {
+            times[next] = now;
+            next = (next + 1) % times.length;
+            int count = 0;
+            for (long time : times) {
+                if (time > cutoff) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        long newest() {
+            return times[(next - 1 + times.length) % times.length];
+        }
+    }
+}
@@ -4,14 +4,16 @@ import com.catface996.auth.common.exception.AuthException;
 import com.catface996.auth.domain.model.user.User;
 import com.catface996.auth.domain.model.user.UserStatus;
 import com.catface996.auth.domain.repository.UserRepository;
+import com.catface996.auth.domain.security.PasswordHasher;
 import com.catface996.auth.domain.service.UserDomainService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * Implementation of UserDomainService
@@ -22,7 +24,8 @@ import java.time.LocalDateTime;
 public class UserDomainServiceImpl implements UserDomainService {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
+    private final FailedLoginCounter failedLoginCounter;
 
     @Value("${auth.security.max-failed-attempts:5}")
     private int maxFailedAttempts;
@@ -31,49 +34,82 @@ public class UserDomainServiceImpl implements UserDomainService {
     private int lockoutDurationMinutes;
 
     @Override
-    public User authenticate(String identifier, String password) {
-        User user = userRepository.findByUsernameOrEmail(identifier)
+    public User loadForLogin(String identifier) {
+        User user = userRepository.findCredentials(identifier)
                 .orElseThrow(AuthException::invalidCredentials);
 
-        if (!user.isActive()) {
-            throw AuthException.accountInactive();
-        }
-
+        // A locked account is reported as locked, not as inactive
         if (isAccountLocked(user)) {
             throw AuthException.accountLocked();
         }
 
-        if (!passwordEncoder.matches(password, user.getPasswordHash())) {
-            handleFailedLoginAttempt(user);
-            throw AuthException.invalidCredentials();
+        if (!user.isActive()) {
+            throw AuthException.accountInactive();
         }
-
-        resetFailedAttempts(user);
         return user;
     }
 
+    @Override
+    public CompletableFuture<Boolean> checkPassword(User user, String password) {
+        return passwordHasher.matches(password, user.getPasswordHash());
+    }
+
+    /**
+     * Rehash under the current policy in the background once the password is known to be
+     * right; the login does not wait, and a skipped upgrade is retried on the next login
+     */
+    @Override
+    public void upgradePasswordHash(User user, String password, Executor writeExecutor) {
+        String currentHash = user.getPasswordHash();
+        if (!passwordHasher.needsRehash(currentHash)) {
+            return;
+        }
+        try {
+            passwordHasher.encode(password)
+                    .thenAcceptAsync(newHash -> {
+                        // Compare-and-set, so a concurrent password change is never overwritten
+                        if (userRepository.replacePasswordHash(user.getId(), currentHash, newHash)) {
+                            log.info("Upgraded password hash of user {} to the current policy", user.getUsername());
+                        }
+                    }, writeExecutor)
+                    .exceptionally(e -> {
+                        log.warn("Failed to upgrade password hash of user {}", user.getUsername(), e);
+                        return null;
+                    });
+        } catch (AuthException e) {
+            log.debug("Hashing queue full, password hash upgrade of user {} deferred", user.getUsername());
+        }
+    }
+
     @Override
     public boolean isAccountLocked(User user) {
         return user.isLocked();
     }
 
+    /**
+     * Count the failure in memory; only the failure that reaches the threshold writes,
+     * locking the account and adding the failures to the stored counter atomically
+     */
     @Override
     public void handleFailedLoginAttempt(User user) {
-        int newAttempts = user.getFailedAttempts() + 1;
-        LocalDateTime lockedUntil = null;
-
-        if (newAttempts >= maxFailedAttempts) {
-            lockedUntil = LocalDateTime.now().plusMinutes(lockoutDurationMinutes);
-            log.warn("Account locked for user {} until {}", user.getUsername(), lockedUntil);
+        if (!failedLoginCounter.recordFailure(user.getId())) {
+            return;
         }
-
-        userRepository.updateFailedAttempts(user.getId(), newAttempts, lockedUntil);
+        LocalDateTime lockedUntil = LocalDateTime.now().plusMinutes(lockoutDurationMinutes);
+        userRepository.lock(user.getId(), maxFailedAttempts, lockedUntil);
+        log.warn("Account locked for user {} until {}", user.getUsername(), lockedUntil);
     }
 
+    /**
+     * Forget the in-memory failures; the row is written only to clear an expired lock or
+     * a counter left by an earlier one
+     */
     @Override
     public void resetFailedAttempts(User user) {
-        if (user.getFailedAttempts() > 0) {
-            userRepository.updateFailedAttempts(user.getId(), 0, null);
+        failedLoginCounter.clear(user.getId());
+        boolean storedFailures = user.getFailedAttempts() != null && user.getFailedAttempts() > 0;
+        if (user.getStatus() == UserStatus.LOCKED || storedFailures) {
+            userRepository.clearLockout(user.getId());
         }
     }
 }
@@ -0,0 +1,190 @@
+package com.catface996.auth.domain.service.impl;
+
+import com.catface996.auth.common.exception.AuthException;
+import com.catface996.auth.common.result.ErrorCode;
+import com.catface996.auth.domain.model.user.User;
+import com.catface996.auth.domain.model.user.UserStatus;
+import com.catface996.auth.domain.repository.UserRepository;
+import com.catface996.auth.domain.security.PasswordHasher;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Parallel bad logins against one account through {@link FailedLoginCounter} and
+ * {@link UserDomainServiceImpl}, with the users row emulated the way
+ * {@code UserMapper.lock} updates it:
+ * {@code failed_attempts = failed_attempts + failures ... WHERE status IN ('ACTIVE', 'LOCKED')}
+ */
+class FailedLoginLockoutConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int MAX_FAILED_ATTEMPTS = 5;
+    private static final long USER_ID = 42L;
+    private static final String USERNAME = "alice";
+
+    private UsersRow row;
+    private UserDomainServiceImpl userDomainService;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        row = new UsersRow();
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findCredentials(USERNAME)).thenAnswer(invocation -> Optional.of(row.load()));
+        doAnswer(invocation -> {
+            row.lock(invocation.getArgument(1), invocation.getArgument(2));
+            return null;
+        }).when(userRepository).lock(eq(USER_ID), anyInt(), any());
+
+        FailedLoginCounter failedLoginCounter = new FailedLoginCounter(MAX_FAILED_ATTEMPTS, 15, 64);
+        userDomainService = new UserDomainServiceImpl(userRepository, mock(PasswordHasher.class), failedLoginCounter);
+        ReflectionTestUtils.setField(userDomainService, "maxFailedAttempts", MAX_FAILED_ATTEMPTS);
+        ReflectionTestUtils.setField(userDomainService, "lockoutDurationMinutes", 15);
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void parallelBadLoginsLockTheAccountOnce() throws Exception {
+        AtomicInteger failures = new AtomicInteger();
+        AtomicInteger refused = new AtomicInteger();
+
+        runOnAllThreads(() -> {
+            // Keep failing until the account is refused as locked
+            while (true) {
+                User user;
+                try {
+                    user = userDomainService.loadForLogin(USERNAME);
+                } catch (AuthException e) {
+                    assertThat(e.getErrorCode()).isEqualTo(ErrorCode.ACCOUNT_LOCKED);
+                    refused.incrementAndGet();
+                    return null;
+                }
+                failures.incrementAndGet();
+                userDomainService.handleFailedLoginAttempt(user);
+            }
+        });
+
+        assertThat(row.status).isEqualTo(UserStatus.LOCKED);
+        assertThat(row.transitionsToLocked).isEqualTo(1);
+        assertThat(refused.get()).isEqualTo(THREADS);
+        // Logins already past the lock check still count, and every write adds exactly its own failures
+        assertThat(row.lockWrites).isEqualTo(failures.get() / MAX_FAILED_ATTEMPTS);
+        assertThat(row.failedAttempts).isEqualTo(row.lockWrites * MAX_FAILED_ATTEMPTS);
+    }
+
+    @Test
+    void parallelFailuresAreNeitherLostNorDoubleCounted() throws Exception {
+        // Every thread holds the snapshot read before the first failure, as in-flight logins do
+        User user = row.load();
+
+        runOnAllThreads(() -> {
+            for (int i = 0; i < MAX_FAILED_ATTEMPTS; i++) {
+                userDomainService.handleFailedLoginAttempt(user);
+            }
+            return null;
+        });
+
+        assertThat(row.lockWrites).isEqualTo(THREADS);
+        assertThat(row.transitionsToLocked).isEqualTo(1);
+        assertThat(row.failedAttempts).isEqualTo(THREADS * MAX_FAILED_ATTEMPTS);
+    }
+
+    @Test
+    void disabledAccountIsNeverLocked() throws Exception {
+        User user = row.load();
+        // Disabled by an administrator while the failing logins were in flight
+        row.status = UserStatus.DISABLED;
+
+        runOnAllThreads(() -> {
+            for (int i = 0; i < MAX_FAILED_ATTEMPTS; i++) {
+                userDomainService.handleFailedLoginAttempt(user);
+            }
+            return null;
+        });
+
+        assertThat(row.lockWrites).isEqualTo(THREADS);
+        assertThat(row.status).isEqualTo(UserStatus.DISABLED);
+        assertThat(row.transitionsToLocked).isZero();
+        assertThat(row.failedAttempts).isZero();
+    }
+
+    private void runOnAllThreads(Callable<Void> task) throws Exception {
+        CyclicBarrier start = new CyclicBarrier(THREADS);
+        List<Future<Void>> results = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                return task.call();
+            }));
+        }
+        for (Future<Void> result : results) {
+            result.get(30, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * The users row, updated under one lock as the database updates a row
+     */
+    private static final class UsersRow {
+
+        private UserStatus status = UserStatus.ACTIVE;
+        private int failedAttempts;
+        private LocalDateTime lockedUntil;
+        private int lockWrites;
+        private int transitionsToLocked;
+
+        synchronized User load() {
+            return User.builder()
+                    .id(USER_ID)
+                    .username(USERNAME)
+                    .email(USERNAME + "@example.com")
+                    .passwordHash("hash")
+                    .status(status)
+                    .failedAttempts(failedAttempts)
+                    .lockedUntil(lockedUntil)
+                    .roles(Set.of())
+                    .build();
+        }
+
+        synchronized void lock(int failures, LocalDateTime until) {
+            lockWrites++;
+            if (status != UserStatus.ACTIVE && status != UserStatus.LOCKED) {
+                return;
+            }
+            if (status == UserStatus.ACTIVE) {
+                transitionsToLocked++;
+            }
+            status = UserStatus.LOCKED;
+            lockedUntil = until;
+            failedAttempts += failures;
+        }
+    }
+}
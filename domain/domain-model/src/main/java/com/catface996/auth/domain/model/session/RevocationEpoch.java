@@ -0,0 +1,17 @@
+package com.catface996.auth.domain.model.session;
+
+import java.time.LocalDateTime;
+
+/**
+ * Value object marking every token a user was issued up to a point in time as revoked
+ *
+ * @param userId the user whose tokens are revoked
+ * @param epochSecond tokens issued at or before this epoch second are invalid
+ * @param updatedAt when the epoch was last raised, by the store's clock
+ */
+public record RevocationEpoch(
+    Long userId,
+    long epochSecond,
+    LocalDateTime updatedAt
+) {
+}
@@ -0,0 +1,39 @@
+package com.catface996.auth.domain.model.session;
+
+/**
+ * Value object for one revocation as published to subscribers that keep their own
+ * replica: either a single blacklisted token or a raised user revocation epoch.
+ * Applying the same event twice, or two events out of order, leaves a replica in the
+ * same state as long as it keeps the later epoch second per token and per user.
+ */
+public record RevocationEvent(
+    Type type,
+    String tokenId,
+    Long userId,
+    long epochSecond
+) {
+    public enum Type {
+        /**
+         * {@code tokenId} is revoked until {@code epochSecond}, its expiry
+         */
+        TOKEN,
+        /**
+         * Every token of {@code userId} issued at or before {@code epochSecond} is revoked
+         */
+        USER
+    }
+
+    /**
+     * Create a blacklisted-token event
+     */
+    public static RevocationEvent token(String tokenId, long expiresAt) {
+        return new RevocationEvent(Type.TOKEN, tokenId, null, expiresAt);
+    }
+
+    /**
+     * Create a raised-epoch event
+     */
+    public static RevocationEvent user(long userId, long epochSecond) {
+        return new RevocationEvent(Type.USER, null, userId, epochSecond);
+    }
+}
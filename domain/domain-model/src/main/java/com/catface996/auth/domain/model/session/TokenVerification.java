@@ -0,0 +1,47 @@
+package com.catface996.auth.domain.model.session;
+
+import com.catface996.auth.common.exception.AuthException;
+import com.catface996.auth.common.result.ErrorCode;
+
+/**
+ * Value object holding the outcome of a single token verification:
+ * either the verified claims or the reason the token was rejected.
+ */
+public record TokenVerification(
+    TokenClaims claims,
+    ErrorCode errorCode
+) {
+    /**
+     * Request attribute under which the authentication filter stores the verification
+     * result, so later stages of the same request do not verify the token again
+     */
+    public static final String REQUEST_ATTRIBUTE = "com.catface996.auth.domain.model.session.TokenVerification";
+
+    /**
+     * Create a successful verification result
+     */
+    public static TokenVerification success(TokenClaims claims) {
+        return new TokenVerification(claims, null);
+    }
+
+    /**
+     * Create a failed verification result
+     */
+    public static TokenVerification failure(ErrorCode errorCode) {
+        return new TokenVerification(null, errorCode);
+    }
+
+    /**
+     * Check if the token passed verification
+     */
+    public boolean valid() {
+        return claims != null;
+    }
+
+    /**
+     * Convert a failed verification into the matching exception
+     */
+    public AuthException toException() {
+        return new AuthException(errorCode != null ? errorCode : ErrorCode.TOKEN_INVALID);
+    }
+}
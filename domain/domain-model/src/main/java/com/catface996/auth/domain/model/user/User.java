@@ -43,10 +43,11 @@ public class User {
     }
 
     /**
-     * Check if account is active and can login
+     * Check if account is active and can login; an expired lock keeps the LOCKED status
+     * until the next successful login clears it, but no longer blocks logging in
      */
     public boolean isActive() {
-        return status == UserStatus.ACTIVE && !isLocked();
+        return status == UserStatus.ACTIVE || (status == UserStatus.LOCKED && !isLocked());
     }
 
     /**
@@ -11,7 +11,8 @@ import java.util.List;
 public interface LoginAttemptRepository {
 
     /**
-     * Save login attempt
+     * Save login attempt. The write may happen in the background: the attempt is not
+     * assigned an ID, and queries may not see it for a moment
      */
     void save(LoginAttempt attempt);
 
@@ -0,0 +1,29 @@
+package com.catface996.auth.domain.repository;
+
+import com.catface996.auth.domain.model.session.RevocationEpoch;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository interface for per-user token revocation epochs
+ */
+public interface RevocationEpochRepository {
+
+    /**
+     * Raise the epoch of each user to at least the given epoch second
+     */
+    void raise(Collection<Long> userIds, long epochSecond);
+
+    /**
+     * Find epochs raised at or after the given time, oldest first
+     */
+    List<RevocationEpoch> findUpdatedSince(LocalDateTime since);
+
+    /**
+     * Delete epochs at or before the given epoch second
+     * @return number of epochs deleted
+     */
+    int deleteUpTo(long epochSecond);
+}
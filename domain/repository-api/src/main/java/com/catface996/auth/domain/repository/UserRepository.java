@@ -31,6 +31,12 @@ public interface UserRepository {
      */
     Optional<User> findByUsernameOrEmail(String identifier);
 
+    /**
+     * Find the user behind a login identifier (username or email) with its roles in a
+     * single query; only the fields authentication needs are loaded, timestamps are null
+     */
+    Optional<User> findCredentials(String identifier);
+
     /**
      * Check if username exists
      */
@@ -47,9 +53,21 @@ public interface UserRepository {
     User save(User user);
 
     /**
-     * Update failed attempts and lock status
+     * Lock the account until the given time, adding the failures that caused it to the
+     * stored counter with an atomic increment; disabled accounts are left alone
+     */
+    void lock(Long userId, int failures, LocalDateTime lockedUntil);
+
+    /**
+     * Clear the stored failure counter and any lock, reactivating a locked account
+     */
+    void clearLockout(Long userId);
+
+    /**
+     * Replace the password hash, but only if it is still the expected one
+     * @return true if the hash was replaced
      */
-    void updateFailedAttempts(Long userId, int attempts, LocalDateTime lockedUntil);
+    boolean replacePasswordHash(Long userId, String expectedHash, String newHash);
 
     /**
      * Update user status
@@ -0,0 +1,39 @@
+package com.catface996.auth.domain.security;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Interface for password hashing and verification off the request thread.
+ * <p>
+ * Hashing is deliberately slow, so implementations run it on a bounded executor sized to
+ * the CPUs. When the executor's queue is full, the call is refused at once rather than
+ * queued. Stages that depend on the returned futures run on the hashing thread and must
+ * be short.
+ */
+public interface PasswordHasher {
+
+    /**
+     * Hash a raw password
+     * @param rawPassword the password to hash
+     * @return future of the encoded hash
+     * @throws com.catface996.auth.common.exception.AuthException with SERVICE_UNAVAILABLE if the hashing queue is full
+     */
+    CompletableFuture<String> encode(String rawPassword);
+
+    /**
+     * Check a raw password against a stored hash
+     * @param rawPassword the password presented
+     * @param encodedPassword the stored hash
+     * @return future of true if they match
+     * @throws com.catface996.auth.common.exception.AuthException with SERVICE_UNAVAILABLE if the hashing queue is full
+     */
+    CompletableFuture<Boolean> matches(String rawPassword, String encodedPassword);
+
+    /**
+     * Check whether a stored hash was made under an older policy (another encoder or a
+     * lower cost) and should be replaced after the next successful match; does not hash
+     * @param encodedPassword the stored hash
+     * @return true if the hash should be upgraded
+     */
+    boolean needsRehash(String encodedPassword);
+}
@@ -0,0 +1,41 @@
+package com.catface996.auth.domain.security;
+
+import com.catface996.auth.domain.model.session.TokenClaims;
+
+import java.time.ZoneId;
+
+/**
+ * In-memory view of per-user revocation epochs: every token a user was issued at or
+ * before their epoch is invalid, which revokes tokens whose IDs were never recorded.
+ * Lookups must not leave the process; epochs are persisted and loaded by the caller.
+ */
+public interface RevocationEpochs {
+
+    /**
+     * Get a user's revocation epoch
+     * @param userId the user ID
+     * @return epoch second at or before which the user's tokens are invalid, or 0 if none
+     */
+    long epochOf(long userId);
+
+    /**
+     * Raise a user's epoch; an epoch never moves back
+     * @param userId the user ID
+     * @param epochSecond tokens issued at or before this epoch second become invalid
+     */
+    void raise(long userId, long epochSecond);
+
+    /**
+     * Check whether a token was issued at or before its user's epoch
+     * @param claims verified token claims
+     * @return true if the token is revoked by its user's epoch
+     */
+    default boolean isRevoked(TokenClaims claims) {
+        if (claims.userId() == null || claims.issuedAt() == null) {
+            return false;
+        }
+        long epochSecond = epochOf(claims.userId());
+        return epochSecond != 0
+                && claims.issuedAt().atZone(ZoneId.systemDefault()).toEpochSecond() <= epochSecond;
+    }
+}
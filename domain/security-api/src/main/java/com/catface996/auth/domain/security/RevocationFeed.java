@@ -0,0 +1,53 @@
+package com.catface996.auth.domain.security;
+
+import com.catface996.auth.domain.model.session.RevocationEvent;
+
+import java.util.function.Consumer;
+
+/**
+ * Ordered feed of the revocations this instance learns of, for subscribers that keep an
+ * exact replica of the blacklist and the user revocation epochs.
+ * <p>
+ * Events are numbered from 1 in the order they are recorded and a bounded number of
+ * recent events is held, so a subscriber that disconnects briefly can resume after the
+ * last sequence number it applied. Sequence numbers are only meaningful together with
+ * {@link #feedId()}, which changes when the process restarts. A subscriber that cannot
+ * resume starts over from {@link #snapshot}.
+ */
+public interface RevocationFeed {
+
+    /**
+     * Identify the sequence space of this feed
+     */
+    String feedId();
+
+    /**
+     * @return sequence number of the latest event, or 0 if none yet
+     */
+    long latestSequence();
+
+    /**
+     * Check whether every event after the given sequence number is still held
+     */
+    boolean canResumeAfter(long sequence);
+
+    /**
+     * Pass every revocation in force now to the consumer. Events recorded after
+     * {@link #latestSequence()} was read may or may not be included, so a subscriber
+     * reads the sequence number first and then resumes after it. Entries are copied
+     * before the consumer is called, so it may block.
+     */
+    void snapshot(Consumer<RevocationEvent> consumer);
+
+    /**
+     * Wait for events after a sequence number and pass them, oldest first, to the
+     * consumer, which must not block
+     * @param afterSequence sequence number of the last event the caller has seen
+     * @param maxEvents most events to pass in one call
+     * @param timeoutMillis how long to wait when no event is newer than {@code afterSequence}
+     * @return sequence number of the last event passed, {@code afterSequence} if none
+     * arrived in time, or -1 if events after {@code afterSequence} are no longer held
+     */
+    long poll(long afterSequence, int maxEvents, long timeoutMillis, Consumer<RevocationEvent> consumer)
+            throws InterruptedException;
+}
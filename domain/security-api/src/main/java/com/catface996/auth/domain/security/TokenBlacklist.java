@@ -1,5 +1,9 @@
 package com.catface996.auth.domain.security;
 
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
 /**
  * Interface for token blacklist operations
  */
@@ -19,6 +23,22 @@ public interface TokenBlacklist {
      */
     boolean isBlacklisted(String tokenId);
 
+    /**
+     * Check many tokens in one call; stores with a remote backend should override this
+     * with a single round trip
+     * @param tokenIds the token IDs (JTI) to check
+     * @return the subset of token IDs that are blacklisted
+     */
+    default Set<String> findBlacklisted(Collection<String> tokenIds) {
+        Set<String> blacklisted = new HashSet<>();
+        for (String tokenId : tokenIds) {
+            if (isBlacklisted(tokenId)) {
+                blacklisted.add(tokenId);
+            }
+        }
+        return blacklisted;
+    }
+
     /**
      * Remove a token from the blacklist (for cleanup)
      * @param tokenId the token ID (JTI)
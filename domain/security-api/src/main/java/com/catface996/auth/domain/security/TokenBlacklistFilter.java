@@ -0,0 +1,25 @@
+package com.catface996.auth.domain.security;
+
+/**
+ * Probabilistic front for a {@link TokenBlacklist}.
+ * <p>
+ * Holds every token ID the blacklist holds and may also report token IDs it has never
+ * seen, but never misses one it has: a negative answer means the token is definitely
+ * not blacklisted, so only possible positives need to reach the blacklist itself.
+ */
+public interface TokenBlacklistFilter {
+
+    /**
+     * Record a revoked token
+     * @param tokenId the token ID (JTI)
+     * @param expirationSeconds seconds until the token would have expired
+     */
+    void add(String tokenId, long expirationSeconds);
+
+    /**
+     * Check whether a token may be blacklisted
+     * @param tokenId the token ID (JTI)
+     * @return false if the token is definitely not blacklisted
+     */
+    boolean mightBeBlacklisted(String tokenId);
+}
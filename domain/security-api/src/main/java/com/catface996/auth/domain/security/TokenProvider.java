@@ -1,10 +1,15 @@
 package com.catface996.auth.domain.security;
 
 import com.catface996.auth.domain.model.session.TokenClaims;
+import com.catface996.auth.domain.model.session.TokenVerification;
 import com.catface996.auth.domain.model.user.User;
 
+import java.util.List;
+import java.util.Map;
+
 /**
- * Interface for JWT token operations
+ * Interface for access token operations, implemented by self-contained JWTs or by
+ * opaque reference tokens depending on {@code auth.token.mode}
  */
 public interface TokenProvider {
 
@@ -16,6 +21,13 @@ public interface TokenProvider {
      */
     String generateToken(User user, boolean rememberMe);
 
+    /**
+     * Verify token signature and expiration in a single pass
+     * @param token JWT token string
+     * @return verified claims, or the reason the token was rejected; never throws for bad tokens
+     */
+    TokenVerification verify(String token);
+
     /**
      * Parse and validate token
      * @param token JWT token string
@@ -44,4 +56,21 @@ public interface TokenProvider {
      * @return expiration time in seconds
      */
     long getExpirationSeconds(boolean rememberMe);
+
+    /**
+     * Revoke a token through the provider, for providers that hold token state
+     * @param claims verified claims of the token
+     * @return true if the token is now invalid; false if the caller must blacklist it
+     */
+    default boolean revoke(TokenClaims claims) {
+        return false;
+    }
+
+    /**
+     * Get the public verification keys as JWKs (RFC 7517) so other services can verify tokens locally
+     * @return public JWKs; empty when tokens are signed with a shared secret only
+     */
+    default List<Map<String, Object>> getPublicJwks() {
+        return List.of();
+    }
 }
@@ -0,0 +1,180 @@
+package com.catface996.auth.infrastructure.repository.audit;
+
+import com.catface996.auth.infrastructure.repository.entity.LoginAttemptDO;
+import com.catface996.auth.infrastructure.repository.mapper.LoginAttemptMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind pipeline for login attempts.
+ * <p>
+ * Logins put their attempt on a bounded queue and return. One writer thread takes them
+ * off and inserts them with a multi-row INSERT, as soon as a batch is full or when the
+ * first attempt in it has waited {@code flush-interval-ms}. A full queue makes a caller
+ * that may wait block up to {@code offer-timeout-ms}; then, or at once for other callers,
+ * the attempt is dropped and counted, so a slow database never holds logins up for long.
+ * A batch the database rejects is retried row by row, so one bad row loses only itself.
+ * On shutdown the queue is drained before the connection pool closes; attempts written
+ * after that are inserted directly.
+ */
+@Slf4j
+@Component
+public class LoginAttemptWriter {
+
+    private final LoginAttemptMapper loginAttemptMapper;
+    private final LoginAttemptWriterProperties properties;
+    private final ArrayBlockingQueue<LoginAttemptDO> queue;
+    private final Counter dropped;
+    private final Counter failed;
+    private final DistributionSummary batchSize;
+    private final Timer flushTime;
+
+    private Thread writer;
+    private volatile boolean running = true;
+
+    public LoginAttemptWriter(LoginAttemptMapper loginAttemptMapper, LoginAttemptWriterProperties properties,
+                              MeterRegistry meterRegistry) {
+        this.loginAttemptMapper = loginAttemptMapper;
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity()));
+
+        Gauge.builder("auth.login-attempts.queued", queue, ArrayBlockingQueue::size)
+                .description("Login attempts waiting to be written")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("auth.login-attempts.dropped")
+                .description("Login attempts dropped because the write queue was full")
+                .register(meterRegistry);
+        this.failed = Counter.builder("auth.login-attempts.failed")
+                .description("Login attempts lost because their insert failed")
+                .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("auth.login-attempts.batch.size")
+                .description("Rows per login attempt batch insert")
+                .register(meterRegistry);
+        this.flushTime = Timer.builder("auth.login-attempts.flush")
+                .description("Time spent inserting a batch of login attempts")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        writer = new Thread(this::run, "login-attempt-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Queue an attempt for writing
+     * @param attempt the row to insert, with its creation time already set
+     * @param mayWait whether to wait up to {@code offer-timeout-ms} for room in a full queue
+     */
+    public void write(LoginAttemptDO attempt, boolean mayWait) {
+        if (!running) {
+            flush(List.of(attempt));
+            return;
+        }
+        boolean queued;
+        try {
+            queued = mayWait && properties.getOfferTimeoutMs() > 0
+                    ? queue.offer(attempt, properties.getOfferTimeoutMs(), TimeUnit.MILLISECONDS)
+                    : queue.offer(attempt);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            queued = false;
+        }
+        if (!queued) {
+            dropped.increment();
+            log.debug("Login attempt queue full, dropped attempt for {}", attempt.getUsername());
+        } else if (!running) {
+            // Shutdown began during the offer and the writer may already have seen an empty
+            // queue and exited; whatever is still queued is written here instead
+            List<LoginAttemptDO> stranded = new ArrayList<>();
+            queue.drainTo(stranded);
+            flush(stranded);
+        }
+    }
+
+    private void run() {
+        int maxBatch = Math.max(1, properties.getBatchSize());
+        long flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(properties.getFlushIntervalMs());
+        List<LoginAttemptDO> batch = new ArrayList<>(maxBatch);
+        // Keep going after shutdown starts until everything queued is written
+        while (running || !queue.isEmpty()) {
+            try {
+                LoginAttemptDO first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < maxBatch) {
+                    queue.drainTo(batch, maxBatch - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= maxBatch || remaining <= 0 || !running) {
+                        break;
+                    }
+                    LoginAttemptDO next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                // Not interrupted by shutdown, which only waits; finish the batch in hand
+                flush(batch);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<LoginAttemptDO> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        long started = System.nanoTime();
+        try {
+            loginAttemptMapper.insertBatch(batch);
+            flushTime.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            batchSize.record(batch.size());
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                failed.increment();
+                log.warn("Failed to write login attempt for {}: {}", batch.get(0).getUsername(), e.getMessage());
+                return;
+            }
+            // One bad row fails the whole statement; retry row by row so it loses only itself
+            log.warn("Failed to write {} login attempts, retrying row by row: {}", batch.size(), e.getMessage());
+            for (LoginAttemptDO attempt : batch) {
+                flush(List.of(attempt));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        try {
+            writer.join(properties.getShutdownTimeoutMs());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive() || !queue.isEmpty()) {
+            log.warn("Login attempt writer did not drain in time, {} attempts not written", queue.size());
+        } else {
+            log.info("Login attempt writer drained");
+        }
+    }
+}
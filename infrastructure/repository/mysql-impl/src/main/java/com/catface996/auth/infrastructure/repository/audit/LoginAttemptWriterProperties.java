@@ -0,0 +1,40 @@
+package com.catface996.auth.infrastructure.repository.audit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Login attempt write-behind configuration properties
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "auth.login-attempts.write-behind")
+public class LoginAttemptWriterProperties {
+
+    /**
+     * Attempts allowed to wait for the writer; further attempts are dropped and counted
+     */
+    private int queueCapacity = 10000;
+
+    /**
+     * Maximum rows per multi-row INSERT
+     */
+    private int batchSize = 200;
+
+    /**
+     * Longest time in milliseconds the first attempt of a batch waits for the batch to fill
+     */
+    private long flushIntervalMs = 200;
+
+    /**
+     * How long in milliseconds a successful login waits for room in a full queue before
+     * its attempt is dropped; 0 drops at once. Failed attempts never wait
+     */
+    private long offerTimeoutMs = 0;
+
+    /**
+     * How long in milliseconds shutdown waits for the queue to drain
+     */
+    private long shutdownTimeoutMs = 10000;
+}
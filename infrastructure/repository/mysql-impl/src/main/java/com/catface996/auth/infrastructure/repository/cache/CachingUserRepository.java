@@ -0,0 +1,96 @@
+package com.catface996.auth.infrastructure.repository.cache;
+
+import com.catface996.auth.domain.model.user.User;
+import com.catface996.auth.domain.model.user.UserStatus;
+import com.catface996.auth.domain.repository.UserRepository;
+import com.catface996.auth.infrastructure.repository.impl.UserRepositoryImpl;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * UserRepository decorator serving {@link #findById} from the {@link UserCache}. Every
+ * write through it invalidates the user; role changes are invalidated by RoleRepositoryImpl.
+ * Lookups by name, email or login identifier always go to the database, so authentication
+ * never sees a stale lockout or password hash.
+ */
+@Primary
+@Repository
+@RequiredArgsConstructor
+public class CachingUserRepository implements UserRepository {
+
+    private final UserRepositoryImpl delegate;
+    private final UserCache userCache;
+
+    @Override
+    public Optional<User> findById(Long id) {
+        return userCache.get(id, delegate::findById);
+    }
+
+    @Override
+    public Optional<User> findByUsername(String username) {
+        return delegate.findByUsername(username);
+    }
+
+    @Override
+    public Optional<User> findByEmail(String email) {
+        return delegate.findByEmail(email);
+    }
+
+    @Override
+    public Optional<User> findByUsernameOrEmail(String identifier) {
+        return delegate.findByUsernameOrEmail(identifier);
+    }
+
+    @Override
+    public Optional<User> findCredentials(String identifier) {
+        return delegate.findCredentials(identifier);
+    }
+
+    @Override
+    public boolean existsByUsername(String username) {
+        return delegate.existsByUsername(username);
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        return delegate.existsByEmail(email);
+    }
+
+    @Override
+    public User save(User user) {
+        User saved = delegate.save(user);
+        userCache.invalidate(saved.getId());
+        return saved;
+    }
+
+    @Override
+    public void lock(Long userId, int failures, LocalDateTime lockedUntil) {
+        delegate.lock(userId, failures, lockedUntil);
+        userCache.invalidate(userId);
+    }
+
+    @Override
+    public void clearLockout(Long userId) {
+        delegate.clearLockout(userId);
+        userCache.invalidate(userId);
+    }
+
+    @Override
+    public boolean replacePasswordHash(Long userId, String expectedHash, String newHash) {
+        boolean replaced = delegate.replacePasswordHash(userId, expectedHash, newHash);
+        if (replaced) {
+            userCache.invalidate(userId);
+        }
+        return replaced;
+    }
+
+    @Override
+    public void updateStatus(Long userId, UserStatus status) {
+        delegate.updateStatus(userId, status);
+        userCache.invalidate(userId);
+    }
+}
@@ -0,0 +1,141 @@
+package com.catface996.auth.infrastructure.repository.cache;
+
+import com.catface996.auth.domain.model.role.Role;
+import com.catface996.auth.infrastructure.repository.entity.RoleDO;
+import com.catface996.auth.infrastructure.repository.mapper.RoleMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Copy-on-write snapshot of the roles table.
+ * <p>
+ * The table has a handful of rows and changes only by migration or manual edits, so it is
+ * read once at startup and re-read on a fixed delay; a snapshot is replaced only when the
+ * rows differ. Lookups read immutable maps through one volatile reference and never lock
+ * or query. Roles handed out are copies, so callers cannot alter the snapshot.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RoleCatalog {
+
+    private final RoleMapper roleMapper;
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * Find a role by name
+     * @param name role name
+     * @return a copy of the role, or empty if the catalog has none by that name
+     */
+    public Optional<Role> findByName(String name) {
+        return Optional.ofNullable(snapshot().byName().get(name)).map(RoleCatalog::copy);
+    }
+
+    /**
+     * Find the name of a role by ID. Role IDs come from user_roles rows, whose foreign key
+     * guarantees the role exists, so an unknown ID means the snapshot is behind and it is
+     * re-read once
+     * @param id role ID
+     * @return role name, or null if the role does not exist
+     */
+    public String nameOf(Long id) {
+        Role role = snapshot().byId().get(id);
+        if (role == null) {
+            refresh();
+            role = snapshot().byId().get(id);
+        }
+        return role != null ? role.getName() : null;
+    }
+
+    /**
+     * List every role
+     * @return copies of all roles in ID order
+     */
+    public List<Role> findAll() {
+        return snapshot().roles().stream().map(RoleCatalog::copy).toList();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        refresh();
+    }
+
+    /**
+     * Re-read the roles table and publish a new snapshot if it changed
+     */
+    @Scheduled(fixedDelayString = "${auth.role-catalog.refresh-interval-ms:60000}",
+            initialDelayString = "${auth.role-catalog.refresh-interval-ms:60000}")
+    public void refresh() {
+        try {
+            List<Role> roles = roleMapper.selectList(null).stream()
+                    .map(RoleCatalog::toDomain)
+                    .sorted((a, b) -> Long.compare(a.getId(), b.getId()))
+                    .toList();
+            Snapshot current = snapshot;
+            if (current != null && current.roles().equals(roles)) {
+                return;
+            }
+            snapshot = Snapshot.of(roles);
+            log.info("Role catalog loaded with {} roles", roles.size());
+        } catch (RuntimeException e) {
+            // Keep serving the previous snapshot; the next refresh retries
+            log.warn("Failed to refresh role catalog: {}", e.getMessage());
+        }
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            // Only before the startup load has succeeded
+            synchronized (this) {
+                if (snapshot == null) {
+                    List<Role> roles = roleMapper.selectList(null).stream().map(RoleCatalog::toDomain).toList();
+                    snapshot = Snapshot.of(roles);
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+
+    private static Role toDomain(RoleDO roleDO) {
+        return Role.builder()
+                .id(roleDO.getId())
+                .name(roleDO.getName())
+                .description(roleDO.getDescription())
+                .createdAt(roleDO.getCreatedAt())
+                .build();
+    }
+
+    private static Role copy(Role role) {
+        return Role.builder()
+                .id(role.getId())
+                .name(role.getName())
+                .description(role.getDescription())
+                .createdAt(role.getCreatedAt())
+                .build();
+    }
+
+    private record Snapshot(List<Role> roles, Map<String, Role> byName, Map<Long, Role> byId) {
+
+        static Snapshot of(List<Role> roles) {
+            Map<String, Role> byName = new HashMap<>();
+            Map<Long, Role> byId = new HashMap<>();
+            for (Role role : roles) {
+                byName.put(role.getName(), role);
+                byId.put(role.getId(), role);
+            }
+            return new Snapshot(List.copyOf(roles), Map.copyOf(byName), Map.copyOf(byId));
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.catface996.auth.infrastructure.repository.cache;
+
+import com.catface996.auth.domain.model.user.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Bounded, size- and TTL-evicting cache of users by ID.
+ * <p>
+ * Entries are copied in and out, so callers may modify what they get. A miss loads inside
+ * the cache's per-key computation, which an invalidation of the same ID waits for, so a
+ * load racing a write never leaves the old row cached. An invalidation inside a
+ * transaction is repeated once the transaction completes: a reader that reloaded the old
+ * row before the commit cannot leave it cached either. Unknown IDs are cached as empty
+ * entries, so repeated lookups of a missing user do not reach the database.
+ */
+@Slf4j
+@Component
+public class UserCache {
+
+    private static final String CACHE_NAME = "users";
+
+    private final Cache<Long, Optional<User>> cache;
+
+    public UserCache(UserCacheProperties properties, MeterRegistry meterRegistry) {
+        if (!properties.isEnabled()) {
+            this.cache = null;
+            log.info("User cache is disabled");
+            return;
+        }
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(Duration.ofSeconds(properties.getTtlSeconds()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Return the cached user, or load and cache it, found or not
+     * @param id user ID
+     * @param loader database lookup used on a miss
+     * @return a copy of the user, or empty if there is none
+     */
+    public Optional<User> get(Long id, Function<Long, Optional<User>> loader) {
+        if (cache == null || id == null) {
+            return loader.apply(id);
+        }
+        return cache.get(id, key -> loader.apply(key).map(UserCache::copy)).map(UserCache::copy);
+    }
+
+    /**
+     * Drop a user now and again after the current transaction, if any, completes
+     * @param id user ID
+     */
+    public void invalidate(Long id) {
+        if (cache == null || id == null) {
+            return;
+        }
+        cache.invalidate(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(id);
+                }
+            });
+        }
+    }
+
+    private static User copy(User user) {
+        return User.builder()
+                .id(user.getId())
+                .username(user.getUsername())
+                .email(user.getEmail())
+                .passwordHash(user.getPasswordHash())
+                .status(user.getStatus())
+                .failedAttempts(user.getFailedAttempts())
+                .lockedUntil(user.getLockedUntil())
+                .createdAt(user.getCreatedAt())
+                .updatedAt(user.getUpdatedAt())
+                .roles(user.getRoles() != null ? Set.copyOf(user.getRoles()) : null)
+                .build();
+    }
+}
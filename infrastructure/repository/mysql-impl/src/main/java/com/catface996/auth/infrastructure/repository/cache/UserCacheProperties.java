@@ -0,0 +1,30 @@
+package com.catface996.auth.infrastructure.repository.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * User cache configuration properties
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "auth.user-cache")
+public class UserCacheProperties {
+
+    /**
+     * Whether users looked up by ID are cached in front of the database
+     */
+    private boolean enabled = true;
+
+    /**
+     * Maximum number of cached users
+     */
+    private long maximumSize = 10000;
+
+    /**
+     * Seconds a cached user is served before it is reloaded. Writes on this instance
+     * invalidate at once; this bounds how long changes made on other instances stay unseen
+     */
+    private long ttlSeconds = 30;
+}
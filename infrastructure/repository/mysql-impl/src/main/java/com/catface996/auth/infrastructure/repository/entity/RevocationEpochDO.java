@@ -0,0 +1,26 @@
+package com.catface996.auth.infrastructure.repository.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Token revocation epoch database entity
+ */
+@Data
+@TableName("user_revocation_epochs")
+public class RevocationEpochDO {
+
+    @TableId(value = "user_id", type = IdType.INPUT)
+    private Long userId;
+
+    @TableField("epoch_second")
+    private Long epochSecond;
+
+    @TableField("updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,29 @@
+package com.catface996.auth.infrastructure.repository.entity;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Authentication projection of a user: one row per role the user holds, or a single row
+ * with a null role name when the user has none
+ */
+@Data
+public class UserCredentialDO {
+
+    private Long id;
+
+    private String username;
+
+    private String email;
+
+    private String passwordHash;
+
+    private String status;
+
+    private Integer failedAttempts;
+
+    private LocalDateTime lockedUntil;
+
+    private String roleName;
+}
@@ -3,6 +3,7 @@ package com.catface996.auth.infrastructure.repository.impl;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.catface996.auth.domain.model.user.LoginAttempt;
 import com.catface996.auth.domain.repository.LoginAttemptRepository;
+import com.catface996.auth.infrastructure.repository.audit.LoginAttemptWriter;
 import com.catface996.auth.infrastructure.repository.entity.LoginAttemptDO;
 import com.catface996.auth.infrastructure.repository.mapper.LoginAttemptMapper;
 import lombok.RequiredArgsConstructor;
@@ -13,20 +14,32 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 /**
- * MySQL implementation of LoginAttemptRepository
+ * MySQL implementation of LoginAttemptRepository; attempts are written behind through the
+ * {@link LoginAttemptWriter}
  */
 @Repository
 @RequiredArgsConstructor
 public class LoginAttemptRepositoryImpl implements LoginAttemptRepository {
 
+    private static final int MAX_USERNAME_LENGTH = 255;
+    private static final int MAX_IP_ADDRESS_LENGTH = 45;
+    private static final int MAX_USER_AGENT_LENGTH = 500;
+
     private final LoginAttemptMapper loginAttemptMapper;
+    private final LoginAttemptWriter loginAttemptWriter;
 
     @Override
     public void save(LoginAttempt attempt) {
         LoginAttemptDO entity = toEntity(attempt);
+        // Stamped now, not when the batch is written
         entity.setCreatedAt(LocalDateTime.now());
-        loginAttemptMapper.insert(entity);
-        attempt.setId(entity.getId());
+        // Client-supplied values are cut to the column sizes, as one oversized row would fail its whole batch
+        entity.setUsername(truncate(entity.getUsername(), MAX_USERNAME_LENGTH));
+        // Taken from X-Forwarded-For, so it is whatever the client sent
+        entity.setIpAddress(truncate(entity.getIpAddress(), MAX_IP_ADDRESS_LENGTH));
+        entity.setUserAgent(truncate(entity.getUserAgent(), MAX_USER_AGENT_LENGTH));
+        // Only successful logins may wait for room; failures arrive in floods and are dropped at once
+        loginAttemptWriter.write(entity, attempt.isSuccess());
     }
 
     @Override
@@ -58,6 +71,10 @@ public class LoginAttemptRepositoryImpl implements LoginAttemptRepository {
                 .collect(Collectors.toList());
     }
 
+    private static String truncate(String value, int maxLength) {
+        return value != null && value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+
     private LoginAttempt toDomain(LoginAttemptDO entity) {
         return LoginAttempt.builder()
                 .id(entity.getId())
@@ -0,0 +1,57 @@
+package com.catface996.auth.infrastructure.repository.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.catface996.auth.domain.model.session.RevocationEpoch;
+import com.catface996.auth.domain.repository.RevocationEpochRepository;
+import com.catface996.auth.infrastructure.repository.entity.RevocationEpochDO;
+import com.catface996.auth.infrastructure.repository.mapper.RevocationEpochMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * MySQL implementation of RevocationEpochRepository
+ */
+@Repository
+@RequiredArgsConstructor
+public class RevocationEpochRepositoryImpl implements RevocationEpochRepository {
+
+    /**
+     * Users per upsert statement, keeping statements well under max_allowed_packet
+     */
+    private static final int UPSERT_CHUNK_SIZE = 1000;
+
+    private final RevocationEpochMapper revocationEpochMapper;
+
+    @Override
+    public void raise(Collection<Long> userIds, long epochSecond) {
+        List<Long> ids = new ArrayList<>(userIds);
+        for (int from = 0; from < ids.size(); from += UPSERT_CHUNK_SIZE) {
+            revocationEpochMapper.upsertAll(ids.subList(from, Math.min(ids.size(), from + UPSERT_CHUNK_SIZE)), epochSecond);
+        }
+    }
+
+    @Override
+    public List<RevocationEpoch> findUpdatedSince(LocalDateTime since) {
+        LambdaQueryWrapper<RevocationEpochDO> wrapper = new LambdaQueryWrapper<>();
+        wrapper.ge(RevocationEpochDO::getUpdatedAt, since)
+               .orderByAsc(RevocationEpochDO::getUpdatedAt);
+        return revocationEpochMapper.selectList(wrapper)
+                .stream()
+                .map(this::toDomain)
+                .toList();
+    }
+
+    @Override
+    public int deleteUpTo(long epochSecond) {
+        return revocationEpochMapper.deleteUpTo(epochSecond);
+    }
+
+    private RevocationEpoch toDomain(RevocationEpochDO entity) {
+        return new RevocationEpoch(entity.getUserId(), entity.getEpochSecond(), entity.getUpdatedAt());
+    }
+}
@@ -1,8 +1,9 @@
 package com.catface996.auth.infrastructure.repository.impl;
 
-import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.catface996.auth.domain.model.role.Role;
 import com.catface996.auth.domain.repository.RoleRepository;
+import com.catface996.auth.infrastructure.repository.cache.RoleCatalog;
+import com.catface996.auth.infrastructure.repository.cache.UserCache;
 import com.catface996.auth.infrastructure.repository.entity.RoleDO;
 import com.catface996.auth.infrastructure.repository.mapper.RoleMapper;
 import com.catface996.auth.infrastructure.repository.mapper.UserRoleMapper;
@@ -22,13 +23,12 @@ public class RoleRepositoryImpl implements RoleRepository {
 
     private final RoleMapper roleMapper;
     private final UserRoleMapper userRoleMapper;
+    private final UserCache userCache;
+    private final RoleCatalog roleCatalog;
 
     @Override
     public Optional<Role> findByName(String name) {
-        LambdaQueryWrapper<RoleDO> wrapper = new LambdaQueryWrapper<>();
-        wrapper.eq(RoleDO::getName, name);
-        RoleDO roleDO = roleMapper.selectOne(wrapper);
-        return Optional.ofNullable(roleDO).map(this::toDomain);
+        return roleCatalog.findByName(name);
     }
 
     @Override
@@ -42,19 +42,18 @@ public class RoleRepositoryImpl implements RoleRepository {
     @Override
     public void assignRole(Long userId, Long roleId) {
         userRoleMapper.assignRole(userId, roleId);
+        userCache.invalidate(userId);
     }
 
     @Override
     public void removeRole(Long userId, Long roleId) {
         userRoleMapper.removeRole(userId, roleId);
+        userCache.invalidate(userId);
     }
 
     @Override
     public List<Role> findAll() {
-        return roleMapper.selectList(null)
-                .stream()
-                .map(this::toDomain)
-                .collect(Collectors.toList());
+        return roleCatalog.findAll();
     }
 
     private Role toDomain(RoleDO roleDO) {
@@ -4,13 +4,18 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.catface996.auth.domain.model.user.User;
 import com.catface996.auth.domain.model.user.UserStatus;
 import com.catface996.auth.domain.repository.UserRepository;
+import com.catface996.auth.infrastructure.repository.cache.RoleCatalog;
+import com.catface996.auth.infrastructure.repository.entity.UserCredentialDO;
 import com.catface996.auth.infrastructure.repository.entity.UserDO;
-import com.catface996.auth.infrastructure.repository.mapper.RoleMapper;
 import com.catface996.auth.infrastructure.repository.mapper.UserMapper;
+import com.catface996.auth.infrastructure.repository.mapper.UserRoleMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -23,7 +28,8 @@ import java.util.stream.Collectors;
 public class UserRepositoryImpl implements UserRepository {
 
     private final UserMapper userMapper;
-    private final RoleMapper roleMapper;
+    private final UserRoleMapper userRoleMapper;
+    private final RoleCatalog roleCatalog;
 
     @Override
     public Optional<User> findById(Long id) {
@@ -57,6 +63,35 @@ public class UserRepositoryImpl implements UserRepository {
         return Optional.ofNullable(userDO).map(this::toDomain);
     }
 
+    @Override
+    public Optional<User> findCredentials(String identifier) {
+        // Usernames cannot contain '@', so the shape picks the one unique index to probe
+        List<UserCredentialDO> rows = identifier.indexOf('@') >= 0
+                ? userMapper.selectCredentialsByEmail(identifier)
+                : userMapper.selectCredentialsByUsername(identifier);
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+
+        UserCredentialDO first = rows.get(0);
+        Set<String> roles = new HashSet<>();
+        for (UserCredentialDO row : rows) {
+            if (row.getRoleName() != null) {
+                roles.add(row.getRoleName());
+            }
+        }
+        return Optional.of(User.builder()
+                .id(first.getId())
+                .username(first.getUsername())
+                .email(first.getEmail())
+                .passwordHash(first.getPasswordHash())
+                .status(UserStatus.valueOf(first.getStatus()))
+                .failedAttempts(first.getFailedAttempts())
+                .lockedUntil(first.getLockedUntil())
+                .roles(roles)
+                .build());
+    }
+
     @Override
     public boolean existsByUsername(String username) {
         LambdaQueryWrapper<UserDO> wrapper = new LambdaQueryWrapper<>();
@@ -87,8 +122,18 @@ public class UserRepositoryImpl implements UserRepository {
     }
 
     @Override
-    public void updateFailedAttempts(Long userId, int attempts, LocalDateTime lockedUntil) {
-        userMapper.updateFailedAttempts(userId, attempts, lockedUntil);
+    public void lock(Long userId, int failures, LocalDateTime lockedUntil) {
+        userMapper.lock(userId, failures, lockedUntil);
+    }
+
+    @Override
+    public void clearLockout(Long userId) {
+        userMapper.clearLockout(userId);
+    }
+
+    @Override
+    public boolean replacePasswordHash(Long userId, String expectedHash, String newHash) {
+        return userMapper.replacePasswordHash(userId, expectedHash, newHash) > 0;
     }
 
     @Override
@@ -97,9 +142,11 @@ public class UserRepositoryImpl implements UserRepository {
     }
 
     private User toDomain(UserDO userDO) {
-        Set<String> roles = roleMapper.findByUserId(userDO.getId())
+        // Role names come from the catalog, so only the user_roles primary key is read
+        Set<String> roles = userRoleMapper.findRoleIds(userDO.getId())
                 .stream()
-                .map(r -> r.getName())
+                .map(roleCatalog::nameOf)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toSet());
 
         return User.builder()
@@ -2,11 +2,13 @@ package com.catface996.auth.infrastructure.repository.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.catface996.auth.infrastructure.repository.entity.LoginAttemptDO;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * MyBatis-Plus mapper for LoginAttempt entity
@@ -20,4 +22,15 @@ public interface LoginAttemptMapper extends BaseMapper<LoginAttemptDO> {
     @Select("SELECT COUNT(*) FROM login_attempts " +
             "WHERE user_id = #{userId} AND success = false AND created_at >= #{since}")
     int countRecentFailedAttempts(@Param("userId") Long userId, @Param("since") LocalDateTime since);
+
+    /**
+     * Insert login attempts with one multi-row INSERT
+     * @return number of rows inserted
+     */
+    @Insert("<script>INSERT INTO login_attempts " +
+            "(user_id, username, success, ip_address, user_agent, failure_reason, created_at) VALUES " +
+            "<foreach collection='attempts' item='a' separator=','>" +
+            "(#{a.userId}, #{a.username}, #{a.success}, #{a.ipAddress}, #{a.userAgent}, #{a.failureReason}, #{a.createdAt})" +
+            "</foreach></script>")
+    int insertBatch(@Param("attempts") List<LoginAttemptDO> attempts);
 }
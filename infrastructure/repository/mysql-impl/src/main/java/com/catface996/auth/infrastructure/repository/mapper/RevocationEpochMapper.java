@@ -0,0 +1,37 @@
+package com.catface996.auth.infrastructure.repository.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.catface996.auth.infrastructure.repository.entity.RevocationEpochDO;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.Collection;
+
+/**
+ * MyBatis-Plus mapper for RevocationEpoch entity
+ */
+@Mapper
+public interface RevocationEpochMapper extends BaseMapper<RevocationEpochDO> {
+
+    /**
+     * Insert or raise the epochs of many users in one statement; an epoch never moves back
+     */
+    @Insert("<script>" +
+            "INSERT INTO user_revocation_epochs (user_id, epoch_second, updated_at) VALUES " +
+            "<foreach collection='userIds' item='userId' separator=','>" +
+            "(#{userId}, #{epochSecond}, CURRENT_TIMESTAMP(3))" +
+            "</foreach> " +
+            "ON DUPLICATE KEY UPDATE " +
+            "epoch_second = GREATEST(epoch_second, VALUES(epoch_second)), " +
+            "updated_at = VALUES(updated_at)" +
+            "</script>")
+    int upsertAll(@Param("userIds") Collection<Long> userIds, @Param("epochSecond") long epochSecond);
+
+    /**
+     * Delete epochs at or before the given epoch second
+     */
+    @Delete("DELETE FROM user_revocation_epochs WHERE epoch_second <= #{epochSecond}")
+    int deleteUpTo(@Param("epochSecond") long epochSecond);
+}
@@ -1,12 +1,15 @@
 package com.catface996.auth.infrastructure.repository.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.catface996.auth.infrastructure.repository.entity.UserCredentialDO;
 import com.catface996.auth.infrastructure.repository.entity.UserDO;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
 import org.apache.ibatis.annotations.Update;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * MyBatis-Plus mapper for User entity
@@ -14,14 +17,50 @@ import java.time.LocalDateTime;
 @Mapper
 public interface UserMapper extends BaseMapper<UserDO> {
 
+    String SELECT_CREDENTIALS = "SELECT u.id, u.username, u.email, u.password_hash, u.status, " +
+            "u.failed_attempts, u.locked_until, r.name AS role_name FROM users u " +
+            "LEFT JOIN user_roles ur ON ur.user_id = u.id " +
+            "LEFT JOIN roles r ON r.id = ur.role_id ";
+
+    /**
+     * Load the authentication projection by username through its unique index, one row per role
+     */
+    @Select(SELECT_CREDENTIALS + "WHERE u.username = #{username}")
+    List<UserCredentialDO> selectCredentialsByUsername(@Param("username") String username);
+
+    /**
+     * Load the authentication projection by email through its unique index, one row per role
+     */
+    @Select(SELECT_CREDENTIALS + "WHERE u.email = #{email}")
+    List<UserCredentialDO> selectCredentialsByEmail(@Param("email") String email);
+
+    /**
+     * Lock the account, adding the failures to the stored counter in place
+     */
+    @Update("UPDATE users SET status = 'LOCKED', locked_until = #{lockedUntil}, " +
+            "failed_attempts = failed_attempts + #{failures}, updated_at = NOW() " +
+            "WHERE id = #{userId} AND status IN ('ACTIVE', 'LOCKED')")
+    void lock(@Param("userId") Long userId,
+              @Param("failures") int failures,
+              @Param("lockedUntil") LocalDateTime lockedUntil);
+
+    /**
+     * Clear the failure counter and any lock
+     */
+    @Update("UPDATE users SET status = CASE WHEN status = 'LOCKED' THEN 'ACTIVE' ELSE status END, " +
+            "failed_attempts = 0, locked_until = NULL, updated_at = NOW() " +
+            "WHERE id = #{userId} AND (failed_attempts > 0 OR status = 'LOCKED')")
+    void clearLockout(@Param("userId") Long userId);
+
     /**
-     * Update failed attempts and lock status
+     * Replace the password hash if it still matches the expected one
+     * @return number of rows updated
      */
-    @Update("UPDATE users SET failed_attempts = #{attempts}, locked_until = #{lockedUntil}, " +
-            "updated_at = NOW() WHERE id = #{userId}")
-    void updateFailedAttempts(@Param("userId") Long userId,
-                              @Param("attempts") int attempts,
-                              @Param("lockedUntil") LocalDateTime lockedUntil);
+    @Update("UPDATE users SET password_hash = #{newHash}, updated_at = NOW() " +
+            "WHERE id = #{userId} AND password_hash = #{expectedHash}")
+    int replacePasswordHash(@Param("userId") Long userId,
+                            @Param("expectedHash") String expectedHash,
+                            @Param("newHash") String newHash);
 
     /**
      * Update user status
@@ -6,6 +6,9 @@ import org.apache.ibatis.annotations.Delete;
 import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.List;
 
 /**
  * MyBatis-Plus mapper for User-Role mapping
@@ -24,4 +27,10 @@ public interface UserRoleMapper extends BaseMapper<UserRoleDO> {
      */
     @Delete("DELETE FROM user_roles WHERE user_id = #{userId} AND role_id = #{roleId}")
     void removeRole(@Param("userId") Long userId, @Param("roleId") Long roleId);
+
+    /**
+     * Find the IDs of a user's roles from the primary key alone
+     */
+    @Select("SELECT role_id FROM user_roles WHERE user_id = #{userId}")
+    List<Long> findRoleIds(@Param("userId") Long userId);
 }
@@ -0,0 +1,25 @@
+package com.catface996.auth.infrastructure.repository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mybatis.spring.annotation.MapperScan;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Boots the repository layer alone against the in-memory database in schema.sql
+ */
+@SpringBootApplication
+@MapperScan("com.catface996.auth.infrastructure.repository.mapper")
+public class RepositoryTestApplication {
+
+    @Bean
+    public MeterRegistry meterRegistry() {
+        return new SimpleMeterRegistry();
+    }
+
+    @Bean
+    public StatementCounter statementCounter() {
+        return new StatementCounter();
+    }
+}
@@ -0,0 +1,36 @@
+package com.catface996.auth.infrastructure.repository;
+
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+
+import java.sql.Connection;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * MyBatis interceptor counting the statements prepared against the database
+ */
+@Intercepts(@Signature(type = StatementHandler.class, method = "prepare", args = {Connection.class, Integer.class}))
+public class StatementCounter implements Interceptor {
+
+    private final AtomicInteger count = new AtomicInteger();
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        count.incrementAndGet();
+        return invocation.proceed();
+    }
+
+    /**
+     * Statements prepared since the last reset
+     */
+    public int count() {
+        return count.get();
+    }
+
+    public void reset() {
+        count.set(0);
+    }
+}
@@ -0,0 +1,94 @@
+package com.catface996.auth.infrastructure.repository.audit;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.catface996.auth.domain.model.user.LoginAttempt;
+import com.catface996.auth.domain.repository.LoginAttemptRepository;
+import com.catface996.auth.infrastructure.repository.RepositoryTestApplication;
+import com.catface996.auth.infrastructure.repository.entity.LoginAttemptDO;
+import com.catface996.auth.infrastructure.repository.mapper.LoginAttemptMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Rows the database would reject must not take the rest of their batch with them. Not
+ * transactional, since the writer inserts on its own thread.
+ */
+@SpringBootTest(classes = RepositoryTestApplication.class)
+class LoginAttemptWriterTest {
+
+    private static final String OVERSIZED_IP = "9".repeat(100);
+    private static final long WAIT_MILLIS = 5000;
+
+    @Autowired
+    private LoginAttemptWriter loginAttemptWriter;
+
+    @Autowired
+    private LoginAttemptRepository loginAttemptRepository;
+
+    @Autowired
+    private LoginAttemptMapper loginAttemptMapper;
+
+    @AfterEach
+    void tearDown() {
+        loginAttemptMapper.delete(new LambdaQueryWrapper<LoginAttemptDO>()
+                .likeRight(LoginAttemptDO::getUsername, "writer-"));
+    }
+
+    @Test
+    void rejectedRowLosesOnlyItself() throws InterruptedException {
+        // Queued back to back, so all three land in one multi-row INSERT
+        loginAttemptWriter.write(attempt("writer-a", "10.0.0.1"), false);
+        loginAttemptWriter.write(attempt("writer-bad", OVERSIZED_IP), false);
+        loginAttemptWriter.write(attempt("writer-c", "10.0.0.3"), false);
+
+        List<String> written = awaitUsernames(2);
+        assertThat(written).containsExactlyInAnyOrder("writer-a", "writer-c");
+    }
+
+    @Test
+    void oversizedForwardedForIsCutToTheColumn() throws InterruptedException {
+        loginAttemptRepository.save(LoginAttempt.failure(null, "writer-xff", OVERSIZED_IP, "curl/8",
+                LoginAttempt.REASON_USER_NOT_FOUND));
+        loginAttemptRepository.save(LoginAttempt.failure(null, "writer-next", "10.0.0.2", "curl/8",
+                LoginAttempt.REASON_USER_NOT_FOUND));
+
+        assertThat(awaitUsernames(2)).containsExactlyInAnyOrder("writer-xff", "writer-next");
+        List<LoginAttempt> attempts = loginAttemptRepository.findByUsername("writer-xff", 1);
+        assertThat(attempts.get(0).getIpAddress()).isEqualTo(OVERSIZED_IP.substring(0, 45));
+    }
+
+    private List<String> awaitUsernames(int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + WAIT_MILLIS;
+        while (writtenUsernames().size() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        // Give a row that should have been dropped the time to show up if it was not
+        Thread.sleep(300);
+        return writtenUsernames();
+    }
+
+    private List<String> writtenUsernames() {
+        return loginAttemptMapper.selectList(new LambdaQueryWrapper<LoginAttemptDO>()
+                        .likeRight(LoginAttemptDO::getUsername, "writer-"))
+                .stream()
+                .map(LoginAttemptDO::getUsername)
+                .toList();
+    }
+
+    private static LoginAttemptDO attempt(String username, String ipAddress) {
+        LoginAttemptDO attempt = new LoginAttemptDO();
+        attempt.setUsername(username);
+        attempt.setSuccess(false);
+        attempt.setIpAddress(ipAddress);
+        attempt.setFailureReason(LoginAttempt.REASON_INVALID_PASSWORD);
+        attempt.setCreatedAt(LocalDateTime.now());
+        return attempt;
+    }
+}
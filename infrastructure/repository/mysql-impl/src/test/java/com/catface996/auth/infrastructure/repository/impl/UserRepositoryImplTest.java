@@ -0,0 +1,111 @@
+package com.catface996.auth.infrastructure.repository.impl;
+
+import com.catface996.auth.domain.model.user.User;
+import com.catface996.auth.domain.repository.UserRepository;
+import com.catface996.auth.infrastructure.repository.RepositoryTestApplication;
+import com.catface996.auth.infrastructure.repository.StatementCounter;
+import com.catface996.auth.infrastructure.repository.entity.UserDO;
+import com.catface996.auth.infrastructure.repository.mapper.UserMapper;
+import com.catface996.auth.infrastructure.repository.mapper.UserRoleMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Statement counts of the login read path: the credentials, status and roles a login
+ * needs must come back in a single round trip however many roles the user holds
+ */
+@SpringBootTest(classes = RepositoryTestApplication.class)
+@Transactional
+class UserRepositoryImplTest {
+
+    private static final long ROLE_USER = 1L;
+    private static final long ROLE_ADMIN = 2L;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserRepositoryImpl userRepositoryImpl;
+
+    @Autowired
+    private UserMapper userMapper;
+
+    @Autowired
+    private UserRoleMapper userRoleMapper;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    @BeforeEach
+    void setUp() {
+        Long aliceId = insertUser("alice", "alice@example.com");
+        userRoleMapper.assignRole(aliceId, ROLE_USER);
+        userRoleMapper.assignRole(aliceId, ROLE_ADMIN);
+        insertUser("bob", "bob@example.com");
+        statementCounter.reset();
+    }
+
+    @Test
+    void findCredentialsByUsernameRunsOneStatement() {
+        Optional<User> user = userRepository.findCredentials("alice");
+
+        assertThat(statementCounter.count()).isEqualTo(1);
+        assertThat(user).isPresent();
+        assertThat(user.get().getPasswordHash()).isEqualTo("hash-alice");
+        assertThat(user.get().getRoles()).isEqualTo(Set.of("USER", "ADMIN"));
+    }
+
+    @Test
+    void findCredentialsByEmailRunsOneStatement() {
+        Optional<User> user = userRepository.findCredentials("alice@example.com");
+
+        assertThat(statementCounter.count()).isEqualTo(1);
+        assertThat(user).map(User::getUsername).contains("alice");
+    }
+
+    @Test
+    void findCredentialsWithoutRolesRunsOneStatement() {
+        Optional<User> user = userRepository.findCredentials("bob");
+
+        assertThat(statementCounter.count()).isEqualTo(1);
+        assertThat(user).isPresent();
+        assertThat(user.get().getRoles()).isEmpty();
+    }
+
+    @Test
+    void findCredentialsForUnknownUserRunsOneStatement() {
+        assertThat(userRepository.findCredentials("nobody")).isEmpty();
+        assertThat(statementCounter.count()).isEqualTo(1);
+    }
+
+    @Test
+    void findByUsernameReadsRolesSeparately() {
+        // The general-purpose lookup the login path no longer uses: user row, then role IDs
+        Optional<User> user = userRepositoryImpl.findByUsername("alice");
+
+        assertThat(statementCounter.count()).isEqualTo(2);
+        assertThat(user).map(User::getRoles).contains(Set.of("USER", "ADMIN"));
+    }
+
+    private Long insertUser(String username, String email) {
+        UserDO userDO = new UserDO();
+        userDO.setUsername(username);
+        userDO.setEmail(email);
+        userDO.setPasswordHash("hash-" + username);
+        userDO.setStatus("ACTIVE");
+        userDO.setFailedAttempts(0);
+        userDO.setCreatedAt(LocalDateTime.now());
+        userDO.setUpdatedAt(LocalDateTime.now());
+        userMapper.insert(userDO);
+        return userDO.getId();
+    }
+}
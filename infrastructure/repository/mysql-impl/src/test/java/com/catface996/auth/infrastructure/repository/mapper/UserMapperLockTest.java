@@ -0,0 +1,111 @@
+package com.catface996.auth.infrastructure.repository.mapper;
+
+import com.catface996.auth.infrastructure.repository.RepositoryTestApplication;
+import com.catface996.auth.infrastructure.repository.entity.UserDO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link UserMapper#lock} and {@link UserMapper#clearLockout} against the database: the
+ * failure counter is incremented in place, so parallel lock writes from several instances
+ * are never lost, and the status guard leaves disabled accounts alone. Not transactional,
+ * since the writes run on separate connections.
+ */
+@SpringBootTest(classes = RepositoryTestApplication.class)
+class UserMapperLockTest {
+
+    private static final int THREADS = 16;
+    private static final int FAILURES = 5;
+
+    @Autowired
+    private UserMapper userMapper;
+
+    private final List<Long> userIds = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        userIds.forEach(userMapper::deleteById);
+    }
+
+    @Test
+    void parallelLocksAddEveryFailure() throws Exception {
+        Long userId = insertUser("carol", "ACTIVE");
+        LocalDateTime lockedUntil = LocalDateTime.now().plusMinutes(15).truncatedTo(ChronoUnit.SECONDS);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CyclicBarrier start = new CyclicBarrier(THREADS);
+            List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    userMapper.lock(userId, FAILURES, lockedUntil);
+                    return null;
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        UserDO user = userMapper.selectById(userId);
+        assertThat(user.getStatus()).isEqualTo("LOCKED");
+        assertThat(user.getFailedAttempts()).isEqualTo(THREADS * FAILURES);
+        assertThat(user.getLockedUntil()).isEqualTo(lockedUntil);
+    }
+
+    @Test
+    void lockLeavesDisabledAccountAlone() {
+        Long userId = insertUser("dave", "DISABLED");
+
+        userMapper.lock(userId, FAILURES, LocalDateTime.now().plusMinutes(15));
+
+        UserDO user = userMapper.selectById(userId);
+        assertThat(user.getStatus()).isEqualTo("DISABLED");
+        assertThat(user.getFailedAttempts()).isZero();
+        assertThat(user.getLockedUntil()).isNull();
+    }
+
+    @Test
+    void clearLockoutReactivatesLockedAccount() {
+        Long userId = insertUser("erin", "ACTIVE");
+        userMapper.lock(userId, FAILURES, LocalDateTime.now().plusMinutes(15));
+
+        userMapper.clearLockout(userId);
+
+        UserDO user = userMapper.selectById(userId);
+        assertThat(user.getStatus()).isEqualTo("ACTIVE");
+        assertThat(user.getFailedAttempts()).isZero();
+        assertThat(user.getLockedUntil()).isNull();
+    }
+
+    private Long insertUser(String username, String status) {
+        UserDO userDO = new UserDO();
+        userDO.setUsername(username);
+        userDO.setEmail(username + "@example.com");
+        userDO.setPasswordHash("hash-" + username);
+        userDO.setStatus(status);
+        userDO.setFailedAttempts(0);
+        userDO.setCreatedAt(LocalDateTime.now());
+        userDO.setUpdatedAt(LocalDateTime.now());
+        userMapper.insert(userDO);
+        userIds.add(userDO.getId());
+        return userDO.getId();
+    }
+}
@@ -0,0 +1,45 @@
+package com.catface996.auth.infrastructure.security.jwt;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Record format of the persistent blacklist's {@link GroupCommitLog}: fixed-size
+ * (type, key high, key low, expiry) records, which the log follows with a CRC32C.
+ */
+final class BlacklistJournalCodec implements GroupCommitLog.RecordCodec<BlacklistJournalCodec.Change> {
+
+    static final byte ADD = 1;
+    static final byte REMOVE = 2;
+
+    private static final int RECORD_BYTES = 1 + 3 * Long.BYTES;
+
+    @Override
+    public int fixedLength() {
+        return RECORD_BYTES;
+    }
+
+    @Override
+    public int maxLength() {
+        return RECORD_BYTES;
+    }
+
+    @Override
+    public void encode(Change change, ByteBuffer out) {
+        out.put(change.type()).putLong(change.high()).putLong(change.low()).putLong(change.expiresAt());
+    }
+
+    @Override
+    public Change decode(ByteBuffer body) {
+        byte type = body.get();
+        if (type != ADD && type != REMOVE) {
+            return null;
+        }
+        return new Change(type, body.getLong(), body.getLong(), body.getLong());
+    }
+
+    /**
+     * One blacklist change; the expiry is 0 for a REMOVE
+     */
+    record Change(byte type, long high, long low, long expiresAt) {
+    }
+}
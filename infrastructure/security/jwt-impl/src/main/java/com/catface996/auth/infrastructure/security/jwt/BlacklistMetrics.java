@@ -0,0 +1,31 @@
+package com.catface996.auth.infrastructure.security.jwt;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Meters shared by the token blacklist stores
+ */
+final class BlacklistMetrics {
+
+    static final String PURGE = "auth.blacklist.purge";
+    static final String ENTRIES = "auth.blacklist.entries";
+
+    private BlacklistMetrics() {
+    }
+
+    static Timer purgeTimer(MeterRegistry meterRegistry) {
+        return Timer.builder(PURGE)
+                .description("Time spent dropping expired token blacklist entries")
+                .register(meterRegistry);
+    }
+
+    static <T> void entriesGauge(MeterRegistry meterRegistry, T store, ToDoubleFunction<T> size) {
+        Gauge.builder(ENTRIES, store, size)
+                .description("Entries held in the token blacklist, including expired ones awaiting purge")
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,180 @@
+package com.catface996.auth.infrastructure.security.jwt;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Token blacklist configuration properties
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "auth.blacklist")
+public class BlacklistProperties {
+
+    /**
+     * Blacklist store: compact (primitive table), persistent (compact plus an on-disk journal)
+     * or memory (ConcurrentHashMap)
+     */
+    private String store = "compact";
+
+    /**
+     * Compact store settings
+     */
+    private Compact compact = new Compact();
+
+    /**
+     * Persistent store settings
+     */
+    private Persistent persistent = new Persistent();
+
+    /**
+     * Peer-to-peer replication settings
+     */
+    private Replication replication = new Replication();
+
+    /**
+     * Bloom filter front settings
+     */
+    private Bloom bloom = new Bloom();
+
+    @Data
+    public static class Compact {
+
+        /**
+         * Number of independently locked stripes (rounded up to a power of two)
+         */
+        private int stripes = 64;
+
+        /**
+         * Initial number of slots across all stripes; stripes double on demand
+         */
+        private int initialCapacity = 65536;
+
+        /**
+         * Whether to keep slots in direct buffers outside the Java heap
+         */
+        private boolean offHeap = false;
+    }
+
+    @Data
+    public static class Persistent {
+
+        /**
+         * Directory holding the journal and snapshot files
+         */
+        private String directory = "data/blacklist";
+
+        /**
+         * Whether a revocation waits for its journal batch to be fsynced before returning;
+         * when false, a crash can lose the last unsynced batch
+         */
+        private boolean waitForSync = true;
+
+        /**
+         * Records buffered per journal batch before writers wait for the flusher
+         */
+        private int maxBatchRecords = 4096;
+
+        /**
+         * Journal generation size in bytes that triggers compaction into a snapshot
+         */
+        private long compactionThresholdBytes = 64L * 1024 * 1024;
+
+        /**
+         * Interval in milliseconds between compaction checks
+         */
+        private long compactionCheckIntervalMs = 60000;
+    }
+
+    @Data
+    public static class Replication {
+
+        /**
+         * Whether revocations are replicated to peers; requires the compact or persistent store
+         */
+        private boolean enabled = false;
+
+        /**
+         * Address the replication listener binds to; loopback unless set to the private
+         * interface peers reach
+         */
+        private String bindAddress = "127.0.0.1";
+
+        /**
+         * Port the replication listener binds to
+         */
+        private int port = 7601;
+
+        /**
+         * Peers as host:port; a node that lists itself skips that entry
+         */
+        private List<String> peers = new ArrayList<>();
+
+        /**
+         * Shared secret peers use to authenticate each other
+         */
+        private String secret;
+
+        /**
+         * Revocations sent to a peer in one batch
+         */
+        private int maxBatchEntries = 4096;
+
+        /**
+         * Revocations queued per peer; beyond this the queue is dropped and the peer is
+         * repaired by anti-entropy instead
+         */
+        private int queueCapacity = 65536;
+
+        /**
+         * Queued revocations older than this many milliseconds are dropped in favour of an
+         * anti-entropy round, bounding how far a slow peer can lag behind
+         */
+        private long maxLagMs = 5000;
+
+        /**
+         * Interval in milliseconds between anti-entropy rounds with each peer
+         */
+        private long antiEntropyIntervalMs = 30000;
+
+        /**
+         * Delay in milliseconds before reconnecting to an unreachable peer
+         */
+        private long reconnectDelayMs = 1000;
+
+        /**
+         * Connect and read timeout in milliseconds
+         */
+        private int socketTimeoutMs = 10000;
+    }
+
+    @Data
+    public static class Bloom {
+
+        /**
+         * Whether lookups pass through a Bloom filter before reaching the store; pays off
+         * when store lookups leave the process
+         */
+        private boolean enabled = false;
+
+        /**
+         * Filter generations spanning the longest token lifetime; each covers the
+         * revocations expiring within its window and is dropped once the window has passed
+         */
+        private int generations = 4;
+
+        /**
+         * Revocations a generation is sized for before it grows
+         */
+        private int expectedInsertions = 65536;
+
+        /**
+         * Target false-positive rate per generation
+         */
+        private double falsePositiveRate = 0.01;
+    }
+}
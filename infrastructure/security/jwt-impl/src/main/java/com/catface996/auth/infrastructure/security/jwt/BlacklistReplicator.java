@@ -0,0 +1,533 @@
+package com.catface996.auth.infrastructure.security.jwt;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.NetworkInterface;
+import java.net.ProtocolException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spreads token revocations to the other instances of the service.
+ * <p>
+ * Revocations form a grow-only set where a key keeps its latest expiry, so instances
+ * converge no matter in which order or how often they receive an entry. Each local
+ * revocation is queued for every configured peer, and a sender thread per peer pushes
+ * queued revocations in batches over a long-lived TCP connection. Anything a peer may
+ * have missed (while unreachable, or because its queue overflowed or lagged past
+ * {@code max-lag-ms}) is restored by anti-entropy: on connect and then periodically the
+ * sender exchanges bucketed digests with the peer and both sides send each other their
+ * entries in the buckets that differ. Received entries go straight into the local index,
+ * so blacklist reads never leave memory or wait on the network.
+ * <p>
+ * Peers authenticate each other with a shared secret, but frames are not encrypted;
+ * the replication port belongs on a private network. Inbound connections are capped at
+ * one per peer plus a little slack, and must authenticate within {@code socket-timeout-ms}.
+ * Wire format in {@link ReplicationProtocol}. Enabled with
+ * {@code auth.blacklist.replication.enabled=true} on the compact or persistent store.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "auth.blacklist.replication", name = "enabled", havingValue = "true")
+public class BlacklistReplicator implements RevocationListener {
+
+    /**
+     * Entries this close to expiry are left out of digests, since instances purge them
+     * at slightly different times
+     */
+    private static final long DIGEST_MARGIN_SECONDS = 5;
+
+    /**
+     * Inbound connections allowed beyond one per peer, covering a peer that reconnects
+     * before its old connection has timed out
+     */
+    private static final int INBOUND_SLACK = 4;
+
+    private final CompactTokenBlacklist blacklist;
+    private final BlacklistProperties.Replication config;
+    private final MeterRegistry meterRegistry;
+    private final byte[] secret;
+    private final List<Peer> peers = new ArrayList<>();
+    private final Set<Socket> inbound = ConcurrentHashMap.newKeySet();
+    private final Semaphore inboundPermits;
+    private final Counter sent;
+    private final Counter received;
+    private final Counter repaired;
+    private final Counter dropped;
+    private volatile boolean running;
+    private ServerSocket serverSocket;
+    private Thread acceptor;
+
+    public BlacklistReplicator(CompactTokenBlacklist blacklist, BlacklistProperties blacklistProperties,
+                               MeterRegistry meterRegistry) {
+        this.blacklist = blacklist;
+        this.config = blacklistProperties.getReplication();
+        this.meterRegistry = meterRegistry;
+        if (config.getSecret() == null || config.getSecret().isBlank()) {
+            throw new IllegalStateException("auth.blacklist.replication.secret must be set when replication is enabled");
+        }
+        this.secret = config.getSecret().getBytes(StandardCharsets.UTF_8);
+        this.inboundPermits = new Semaphore(
+                (int) config.getPeers().stream().filter(address -> !address.isBlank()).count() + INBOUND_SLACK);
+        this.sent = Counter.builder("auth.blacklist.replication.sent")
+                .description("Revocations pushed to peers as deltas")
+                .register(meterRegistry);
+        this.received = Counter.builder("auth.blacklist.replication.received")
+                .description("Revocations received from peers as deltas")
+                .register(meterRegistry);
+        this.repaired = Counter.builder("auth.blacklist.replication.repaired")
+                .description("Revocations received from peers by anti-entropy")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("auth.blacklist.replication.dropped")
+                .description("Times a peer queue was dropped in favour of anti-entropy")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        running = true;
+        serverSocket = new ServerSocket();
+        serverSocket.setReuseAddress(true);
+        serverSocket.bind(new InetSocketAddress(config.getBindAddress(), config.getPort()));
+        acceptor = new Thread(this::acceptConnections, "blacklist-replication-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+
+        for (String address : config.getPeers()) {
+            if (address.isBlank()) {
+                continue;
+            }
+            Peer peer = new Peer(address.trim());
+            if (peer.isSelf()) {
+                continue;
+            }
+            peers.add(peer);
+            peer.start();
+        }
+        blacklist.addRevocationListener(this);
+        log.info("Token blacklist replication listening on {}:{} with {} peers",
+                config.getBindAddress(), config.getPort(), peers.size());
+    }
+
+    @Override
+    public void onRevoked(long high, long low, long expiresAt) {
+        for (Peer peer : peers) {
+            peer.enqueue(high, low, expiresAt);
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        closeQuietly(serverSocket);
+        inbound.forEach(BlacklistReplicator::closeQuietly);
+        for (Peer peer : peers) {
+            peer.stop();
+        }
+        acceptor.join(config.getSocketTimeoutMs());
+        for (Peer peer : peers) {
+            peer.thread.join(config.getSocketTimeoutMs());
+        }
+    }
+
+    private void acceptConnections() {
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                if (!inboundPermits.tryAcquire()) {
+                    // Unauthenticated callers must not be able to pile up threads
+                    log.warn("Refused replication connection from {}: too many inbound connections",
+                            socket.getRemoteSocketAddress());
+                    closeQuietly(socket);
+                    continue;
+                }
+                Thread handler = new Thread(() -> serve(socket), "blacklist-replication-in-" + socket.getRemoteSocketAddress());
+                handler.setDaemon(true);
+                try {
+                    handler.start();
+                } catch (RuntimeException | Error e) {
+                    inboundPermits.release();
+                    closeQuietly(socket);
+                    throw e;
+                }
+            } catch (IOException e) {
+                if (running) {
+                    log.warn("Failed to accept replication connection: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Apply deltas and answer digests from one connected peer
+     */
+    private void serve(Socket socket) {
+        inbound.add(socket);
+        try (socket) {
+            // A caller that does not complete the handshake promptly is dropped
+            socket.setSoTimeout(config.getSocketTimeoutMs());
+            socket.setTcpNoDelay(true);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            ReplicationProtocol.accept(in, out, secret);
+            // The sender digests at least once per anti-entropy interval, so a silent connection is dead
+            socket.setSoTimeout((int) Math.min(Integer.MAX_VALUE,
+                    2 * config.getAntiEntropyIntervalMs() + config.getSocketTimeoutMs()));
+            while (running) {
+                byte type = in.readByte();
+                if (type == ReplicationProtocol.DELTA) {
+                    received.increment(applyEntries(in));
+                } else if (type == ReplicationProtocol.DIGEST) {
+                    answerDigest(in, out);
+                } else {
+                    throw new ProtocolException("Unexpected replication frame " + type);
+                }
+            }
+        } catch (ProtocolException e) {
+            log.warn("Rejected replication connection from {}: {}", socket.getRemoteSocketAddress(), e.getMessage());
+        } catch (IOException e) {
+            if (running) {
+                log.debug("Replication connection from {} closed: {}", socket.getRemoteSocketAddress(), e.toString());
+            }
+        } finally {
+            inbound.remove(socket);
+            inboundPermits.release();
+        }
+    }
+
+    private void answerDigest(DataInputStream in, DataOutputStream out) throws IOException {
+        long cutoff = in.readLong();
+        long[] theirs = new long[ReplicationProtocol.BUCKETS];
+        for (int i = 0; i < theirs.length; i++) {
+            theirs[i] = in.readLong();
+        }
+        long[] ours = digest(cutoff);
+        BitSet differing = new BitSet(ReplicationProtocol.BUCKETS);
+        for (int i = 0; i < ours.length; i++) {
+            if (ours[i] != theirs[i]) {
+                differing.set(i);
+            }
+        }
+        out.writeByte(ReplicationProtocol.REPAIR);
+        out.writeInt(differing.cardinality());
+        for (int bucket = differing.nextSetBit(0); bucket >= 0; bucket = differing.nextSetBit(bucket + 1)) {
+            out.writeInt(bucket);
+        }
+        writeBuckets(out, differing, cutoff);
+        out.writeByte(ReplicationProtocol.END);
+        out.flush();
+    }
+
+    /**
+     * Exchange the entries of differing digest buckets with a peer
+     */
+    private void antiEntropy(DataInputStream in, DataOutputStream out) throws IOException {
+        long cutoff = Instant.now().getEpochSecond() + DIGEST_MARGIN_SECONDS;
+        out.writeByte(ReplicationProtocol.DIGEST);
+        out.writeLong(cutoff);
+        for (long sum : digest(cutoff)) {
+            out.writeLong(sum);
+        }
+        out.flush();
+
+        if (in.readByte() != ReplicationProtocol.REPAIR) {
+            throw new ProtocolException("Expected a repair frame");
+        }
+        int count = in.readInt();
+        if (count < 0 || count > ReplicationProtocol.BUCKETS) {
+            throw new ProtocolException("Invalid repair bucket count " + count);
+        }
+        BitSet differing = new BitSet(ReplicationProtocol.BUCKETS);
+        for (int i = 0; i < count; i++) {
+            int bucket = in.readInt();
+            if (bucket < 0 || bucket >= ReplicationProtocol.BUCKETS) {
+                throw new ProtocolException("Invalid repair bucket " + bucket);
+            }
+            differing.set(bucket);
+        }
+        byte type;
+        while ((type = in.readByte()) == ReplicationProtocol.DELTA) {
+            repaired.increment(applyEntries(in));
+        }
+        if (type != ReplicationProtocol.END) {
+            throw new ProtocolException("Unexpected replication frame " + type);
+        }
+
+        writeBuckets(out, differing, cutoff);
+        out.flush();
+    }
+
+    /**
+     * Sum entry fingerprints per bucket, over entries expiring at or after the cutoff
+     */
+    private long[] digest(long cutoff) {
+        long[] sums = new long[ReplicationProtocol.BUCKETS];
+        blacklist.forEachEntry((high, low, expiresAt) -> {
+            if (expiresAt >= cutoff) {
+                sums[ReplicationProtocol.bucketOf(high, low)] += ReplicationProtocol.fingerprint(high, low, expiresAt);
+            }
+        });
+        return sums;
+    }
+
+    /**
+     * Send the entries of the given buckets, collecting a slice of the buckets per pass
+     * so the whole table is never copied at once and no stripe lock is held during I/O
+     */
+    private void writeBuckets(DataOutputStream out, BitSet buckets, long cutoff) throws IOException {
+        int sliceBuckets = ReplicationProtocol.BUCKETS / 8;
+        EntryBuffer buffer = new EntryBuffer();
+        for (int from = 0; from < ReplicationProtocol.BUCKETS; from += sliceBuckets) {
+            int next = buckets.nextSetBit(from);
+            if (next < 0) {
+                return;
+            }
+            if (next >= from + sliceBuckets) {
+                continue;
+            }
+            int sliceStart = from;
+            int sliceEnd = from + sliceBuckets;
+            buffer.clear();
+            blacklist.forEachEntry((high, low, expiresAt) -> {
+                if (expiresAt < cutoff) {
+                    return;
+                }
+                int bucket = ReplicationProtocol.bucketOf(high, low);
+                if (bucket >= sliceStart && bucket < sliceEnd && buckets.get(bucket)) {
+                    buffer.add(high, low, expiresAt);
+                }
+            });
+            ReplicationProtocol.writeEntries(out, buffer.entries, buffer.size);
+        }
+    }
+
+    private int applyEntries(DataInputStream in) throws IOException {
+        long now = Instant.now().getEpochSecond();
+        return ReplicationProtocol.readEntries(in, (high, low, expiresAt) -> {
+            if (expiresAt >= now && (high != 0 || low != 0)) {
+                blacklist.applyReplicated(high, low, expiresAt);
+            }
+        });
+    }
+
+    private static void closeQuietly(AutoCloseable closeable) {
+        if (closeable == null) {
+            return;
+        }
+        try {
+            closeable.close();
+        } catch (Exception e) {
+            log.debug("Failed to close replication resource: {}", e.getMessage());
+        }
+    }
+
+    private record Revocation(long high, long low, long expiresAt, long queuedAtNanos) {
+    }
+
+    /**
+     * Growable array of (high, low, expiresAt) triples
+     */
+    private static final class EntryBuffer {
+
+        long[] entries = new long[3 * 1024];
+        int size;
+
+        void add(long high, long low, long expiresAt) {
+            if ((size + 1) * 3 > entries.length) {
+                entries = Arrays.copyOf(entries, entries.length * 2);
+            }
+            int base = size++ * 3;
+            entries[base] = high;
+            entries[base + 1] = low;
+            entries[base + 2] = expiresAt;
+        }
+
+        void clear() {
+            size = 0;
+        }
+    }
+
+    /**
+     * Outgoing connection to one peer, with its queue of revocations not yet sent
+     */
+    private final class Peer {
+
+        private final String address;
+        private final String host;
+        private final int port;
+        private final ArrayBlockingQueue<Revocation> queue;
+        private final Thread thread;
+        private volatile boolean connected;
+        private volatile boolean repairNeeded;
+        private volatile Socket socket;
+
+        Peer(String address) {
+            int colon = address.lastIndexOf(':');
+            if (colon <= 0) {
+                throw new IllegalArgumentException("Replication peer must be host:port: " + address);
+            }
+            this.address = address;
+            this.host = address.substring(0, colon);
+            this.port = Integer.parseInt(address.substring(colon + 1));
+            this.queue = new ArrayBlockingQueue<>(config.getQueueCapacity());
+            this.thread = new Thread(this::run, "blacklist-replication-out-" + address);
+            this.thread.setDaemon(true);
+            Gauge.builder("auth.blacklist.replication.lag", this, Peer::lagMillis)
+                    .tag("peer", address)
+                    .description("Age in milliseconds of the oldest revocation not yet sent to the peer")
+                    .baseUnit("milliseconds")
+                    .register(meterRegistry);
+            Gauge.builder("auth.blacklist.replication.connected", this, peer -> peer.connected ? 1 : 0)
+                    .tag("peer", address)
+                    .description("Whether the replication connection to the peer is up")
+                    .register(meterRegistry);
+        }
+
+        boolean isSelf() {
+            if (port != config.getPort()) {
+                return false;
+            }
+            try {
+                InetAddress resolved = InetAddress.getByName(host);
+                return resolved.isLoopbackAddress() || resolved.isAnyLocalAddress()
+                        || NetworkInterface.getByInetAddress(resolved) != null;
+            } catch (IOException e) {
+                return false;
+            }
+        }
+
+        void start() {
+            thread.start();
+        }
+
+        void stop() {
+            thread.interrupt();
+            closeQuietly(socket);
+        }
+
+        /**
+         * Queue a revocation; while disconnected nothing is queued, since the anti-entropy
+         * round on reconnect covers it
+         */
+        void enqueue(long high, long low, long expiresAt) {
+            if (!connected) {
+                return;
+            }
+            if (!queue.offer(new Revocation(high, low, expiresAt, System.nanoTime()))) {
+                dropBacklog();
+            }
+        }
+
+        double lagMillis() {
+            Revocation oldest = queue.peek();
+            return oldest == null ? 0 : (System.nanoTime() - oldest.queuedAtNanos()) / 1_000_000.0;
+        }
+
+        private void dropBacklog() {
+            queue.clear();
+            repairNeeded = true;
+            dropped.increment();
+        }
+
+        private void run() {
+            boolean reachable = true;
+            while (running) {
+                try (Socket s = new Socket()) {
+                    socket = s;
+                    s.connect(new InetSocketAddress(host, port), config.getSocketTimeoutMs());
+                    s.setSoTimeout(config.getSocketTimeoutMs());
+                    s.setTcpNoDelay(true);
+                    DataInputStream in = new DataInputStream(new BufferedInputStream(s.getInputStream()));
+                    DataOutputStream out = new DataOutputStream(new BufferedOutputStream(s.getOutputStream(), 64 * 1024));
+                    ReplicationProtocol.connect(in, out, secret);
+                    // Start queueing before the first digest so no revocation falls between the two
+                    connected = true;
+                    reachable = true;
+                    log.info("Connected to replication peer {}", address);
+                    replicate(in, out);
+                } catch (IOException e) {
+                    if (running && reachable) {
+                        log.warn("Replication peer {} unreachable: {}", address, e.toString());
+                        reachable = false;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } finally {
+                    connected = false;
+                    socket = null;
+                    queue.clear();
+                }
+                try {
+                    TimeUnit.MILLISECONDS.sleep(config.getReconnectDelayMs());
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+
+        private void replicate(DataInputStream in, DataOutputStream out) throws IOException, InterruptedException {
+            long maxLagNanos = TimeUnit.MILLISECONDS.toNanos(config.getMaxLagMs());
+            long intervalNanos = TimeUnit.MILLISECONDS.toNanos(config.getAntiEntropyIntervalMs());
+            long nextRepair = System.nanoTime();
+            repairNeeded = true;
+            List<Revocation> batch = new ArrayList<>(config.getMaxBatchEntries());
+            long[] entries = new long[config.getMaxBatchEntries() * 3];
+            while (running) {
+                long now = System.nanoTime();
+                if (repairNeeded || now - nextRepair >= 0) {
+                    repairNeeded = false;
+                    antiEntropy(in, out);
+                    nextRepair = System.nanoTime() + intervalNanos;
+                }
+
+                Revocation first = queue.poll(Math.max(0, nextRepair - System.nanoTime()), TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                if (System.nanoTime() - first.queuedAtNanos() > maxLagNanos) {
+                    dropBacklog();
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, config.getMaxBatchEntries() - 1);
+                int count = 0;
+                for (Revocation revocation : batch) {
+                    entries[count * 3] = revocation.high();
+                    entries[count * 3 + 1] = revocation.low();
+                    entries[count * 3 + 2] = revocation.expiresAt();
+                    count++;
+                }
+                batch.clear();
+                ReplicationProtocol.writeEntries(out, entries, count);
+                out.flush();
+                sent.increment(count);
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.catface996.auth.infrastructure.security.jwt;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Compacted image of the blacklist: a fixed header followed by 24-byte entries
+ * (key high, key low, expiry), written once and read back through a memory mapping.
+ * <p>
+ * A snapshot of generation {@code n} holds every change from journal generations
+ * below {@code n}, and possibly some from generation {@code n} itself; replaying that
+ * log on top is harmless because applying a change twice has no further effect.
+ * {@link GroupCommitLog#compact} writes snapshots to a temporary file, fsyncs and
+ * atomically renames them, so a crash never leaves a partial snapshot behind.
+ */
+final class BlacklistSnapshot {
+
+    private static final long MAGIC = 0x4F50424C534E5031L;
+    private static final int HEADER_BYTES = 32;
+    private static final int ENTRY_BYTES = 24;
+    private static final int WRITE_BUFFER_BYTES = 1 << 20;
+
+    private BlacklistSnapshot() {
+    }
+
+    /**
+     * Write a snapshot of the given entries, skipping those already expired
+     * @param channel an empty file to write to
+     * @param entries supplies every entry to the visitor it is given
+     * @return number of entries written
+     */
+    static long write(FileChannel channel, long generation, long nowEpochSecond,
+                      Consumer<CompactBlacklistTable.EntryVisitor> entries) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER_BYTES);
+        CRC32C checksum = new CRC32C();
+        long[] written = new long[1];
+        channel.position(HEADER_BYTES);
+        try {
+            entries.accept((high, low, expiresAt) -> {
+                if (expiresAt < nowEpochSecond) {
+                    return;
+                }
+                if (buffer.remaining() < ENTRY_BYTES) {
+                    drain(channel, buffer, checksum);
+                }
+                buffer.putLong(high).putLong(low).putLong(expiresAt);
+                written[0]++;
+            });
+            drain(channel, buffer, checksum);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        long count = written[0];
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES)
+                .putLong(MAGIC)
+                .putLong(generation)
+                .putLong(count)
+                .putInt((int) checksum.getValue())
+                .putInt(0)
+                .flip();
+        channel.write(header, 0);
+        return count;
+    }
+
+    /**
+     * Map a snapshot and feed its entries to a visitor
+     * @param sizeHint receives the entry count before the first entry is visited
+     * @return number of entries read
+     * @throws IOException if the file is truncated or fails its checksum
+     */
+    static long load(Path file, LongConsumer sizeHint, CompactBlacklistTable.EntryVisitor visitor) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES || size > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot " + file + " has an unsupported size of " + size + " bytes");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            long magic = buffer.getLong();
+            buffer.getLong();
+            long count = buffer.getLong();
+            int expectedChecksum = buffer.getInt();
+            buffer.getInt();
+            if (magic != MAGIC || HEADER_BYTES + count * ENTRY_BYTES != size) {
+                throw new IOException("Snapshot " + file + " has an invalid header");
+            }
+
+            CRC32C checksum = new CRC32C();
+            checksum.update(buffer.slice(HEADER_BYTES, (int) (size - HEADER_BYTES)));
+            if ((int) checksum.getValue() != expectedChecksum) {
+                throw new IOException("Snapshot " + file + " fails its checksum");
+            }
+
+            sizeHint.accept(count);
+            for (long i = 0; i < count; i++) {
+                visitor.accept(buffer.getLong(), buffer.getLong(), buffer.getLong());
+            }
+            return count;
+        }
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer buffer, CRC32C checksum) {
+        buffer.flip();
+        checksum.update(buffer.duplicate());
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,137 @@
+package com.catface996.auth.infrastructure.security.jwt;
+
+import com.catface996.auth.domain.security.TokenBlacklist;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * TokenBlacklist decorator that answers most lookups from a {@link RotatingBloomFilter}.
+ * <p>
+ * Almost no presented token is revoked, so a definite negative from the filter is
+ * returned without touching the store; only possible positives reach it. The filter
+ * learns revocations made through this decorator and, through {@link RevocationSource},
+ * those the store gains otherwise (recovered at startup or replicated from peers), so it
+ * never misses one. Generations span the longest token lifetime divided by
+ * {@code auth.blacklist.bloom.generations}. Lookup outcomes are counted by
+ * {@code auth.blacklist.bloom.lookups}; the observed false-positive rate is
+ * {@code false_positive / (negative + false_positive)}. Enabled with
+ * {@code auth.blacklist.bloom.enabled=true}.
+ */
+@Slf4j
+@Primary
+@Component
+@ConditionalOnProperty(prefix = "auth.blacklist.bloom", name = "enabled", havingValue = "true")
+public class BloomFilteredTokenBlacklist implements TokenBlacklist {
+
+    private static final String LOOKUPS = "auth.blacklist.bloom.lookups";
+
+    private final TokenBlacklist delegate;
+    private final RotatingBloomFilter filter;
+    private final Counter negatives;
+    private final Counter falsePositives;
+    private final Counter positives;
+
+    public BloomFilteredTokenBlacklist(@Qualifier("tokenBlacklistStore") TokenBlacklist delegate,
+                                       BlacklistProperties blacklistProperties, JwtProperties jwtProperties,
+                                       MeterRegistry meterRegistry) {
+        if (!(delegate instanceof RevocationSource source)) {
+            throw new IllegalStateException(delegate.getClass().getSimpleName()
+                    + " does not report its revocations and cannot be fronted by a Bloom filter");
+        }
+        BlacklistProperties.Bloom config = blacklistProperties.getBloom();
+        long longestLifetime = Math.max(jwtProperties.getExpirationSeconds(), jwtProperties.getRememberMeExpirationSeconds());
+        int generations = Math.max(1, config.getGenerations());
+        long windowSeconds = Math.max(1, (longestLifetime + generations - 1) / generations);
+        this.delegate = delegate;
+        this.filter = new RotatingBloomFilter(windowSeconds, config.getExpectedInsertions(), config.getFalsePositiveRate());
+        source.subscribe(filter::add);
+
+        this.negatives = lookups(meterRegistry, "negative");
+        this.falsePositives = lookups(meterRegistry, "false_positive");
+        this.positives = lookups(meterRegistry, "positive");
+        Gauge.builder("auth.blacklist.bloom.expected_fpp", filter, RotatingBloomFilter::expectedFalsePositiveRate)
+                .description("Estimated Bloom filter false-positive rate from the current fill")
+                .register(meterRegistry);
+        Gauge.builder("auth.blacklist.bloom.bytes", filter, RotatingBloomFilter::allocatedBytes)
+                .description("Memory held by the Bloom filter generations")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        log.info("Bloom filter in front of {}: {} s windows, {} generations live",
+                delegate.getClass().getSimpleName(), windowSeconds, filter.generationCount());
+    }
+
+    @Override
+    public void addToBlacklist(String tokenId, long expirationSeconds) {
+        filter.add(tokenId, expirationSeconds);
+        delegate.addToBlacklist(tokenId, expirationSeconds);
+    }
+
+    @Override
+    public boolean isBlacklisted(String tokenId) {
+        if (!filter.mightBeBlacklisted(tokenId)) {
+            negatives.increment();
+            return false;
+        }
+        boolean blacklisted = delegate.isBlacklisted(tokenId);
+        (blacklisted ? positives : falsePositives).increment();
+        return blacklisted;
+    }
+
+    @Override
+    public Set<String> findBlacklisted(Collection<String> tokenIds) {
+        List<String> candidates = new ArrayList<>();
+        for (String tokenId : tokenIds) {
+            if (filter.mightBeBlacklisted(tokenId)) {
+                candidates.add(tokenId);
+            }
+        }
+        negatives.increment(tokenIds.size() - candidates.size());
+        if (candidates.isEmpty()) {
+            return Set.of();
+        }
+        Set<String> blacklisted = delegate.findBlacklisted(candidates);
+        positives.increment(blacklisted.size());
+        falsePositives.increment(candidates.size() - blacklisted.size());
+        return blacklisted;
+    }
+
+    /**
+     * The filter cannot forget a key; the stale bit only sends later lookups to the store
+     */
+    @Override
+    public void removeFromBlacklist(String tokenId) {
+        delegate.removeFromBlacklist(tokenId);
+    }
+
+    /**
+     * Drop filter generations whose expiry window has passed
+     */
+    @Scheduled(fixedRate = 60000)
+    public void rotate() {
+        int dropped = filter.expire(Instant.now().getEpochSecond());
+        if (dropped > 0) {
+            log.debug("Dropped {} expired Bloom filter generations", dropped);
+        }
+    }
+
+    private static Counter lookups(MeterRegistry meterRegistry, String result) {
+        return Counter.builder(LOOKUPS)
+                .tag("result", result)
+                .description("Blacklist lookups by Bloom filter outcome: negative answered by the filter alone, "
+                        + "positive or false_positive after confirming with the store")
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,137 @@
+package com.catface996.auth.infrastructure.security.jwt;
+
+import com.catface996.auth.common.exception.AuthException;
+import com.catface996.auth.common.result.ErrorCode;
+import com.catface996.auth.domain.security.PasswordHasher;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * PasswordHasher running the {@link PasswordEncoder} on a fixed pool of one thread per
+ * processor with a bounded queue, so a login burst occupies hashing threads instead of
+ * every servlet worker. A full queue refuses the hash with SERVICE_UNAVAILABLE without
+ * waiting. The caller's MDC is carried over so that dependent stages log under the same
+ * trace ID.
+ */
+@Slf4j
+@Component
+public class BoundedPasswordHasher implements PasswordHasher {
+
+    private static final String ENCODE = "encode";
+    private static final String MATCHES = "matches";
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final Timer encodeWait;
+    private final Timer matchesWait;
+    private final Timer encodeTime;
+    private final Timer matchesTime;
+    private final Counter rejected;
+
+    public BoundedPasswordHasher(PasswordEncoder passwordEncoder, PasswordHashingProperties properties,
+                                 MeterRegistry meterRegistry) {
+        this.passwordEncoder = passwordEncoder;
+        int threads = properties.getThreads() > 0 ? properties.getThreads() : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity())),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor.prestartAllCoreThreads();
+
+        this.encodeWait = waitTimer(meterRegistry, ENCODE);
+        this.matchesWait = waitTimer(meterRegistry, MATCHES);
+        this.encodeTime = hashTimer(meterRegistry, ENCODE);
+        this.matchesTime = hashTimer(meterRegistry, MATCHES);
+        this.rejected = Counter.builder("auth.password.hash.rejected")
+                .description("Password hashes refused because the hashing queue was full")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.hash.queued", executor, pool -> pool.getQueue().size())
+                .description("Password hashes waiting for a hashing thread")
+                .register(meterRegistry);
+        log.info("Password hashing on {} threads with room for {} queued hashes", threads, properties.getQueueCapacity());
+    }
+
+    @Override
+    public CompletableFuture<String> encode(String rawPassword) {
+        return submit(encodeWait, encodeTime, () -> passwordEncoder.encode(rawPassword));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> matches(String rawPassword, String encodedPassword) {
+        return submit(matchesWait, matchesTime, () -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean needsRehash(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> CompletableFuture<T> submit(Timer waitTimer, Timer hashTimer, Supplier<T> hash) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Map<String, String> context = MDC.getCopyOfContextMap();
+        long queuedAt = System.nanoTime();
+        try {
+            executor.execute(() -> {
+                long started = System.nanoTime();
+                waitTimer.record(started - queuedAt, TimeUnit.NANOSECONDS);
+                if (context != null) {
+                    MDC.setContextMap(context);
+                }
+                try {
+                    T value = hash.get();
+                    hashTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                    // Dependent stages run here, still under the caller's MDC
+                    result.complete(value);
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                } finally {
+                    MDC.clear();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new AuthException(ErrorCode.SERVICE_UNAVAILABLE);
+        }
+        return result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private static Timer waitTimer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("auth.password.hash.wait")
+                .description("Time a password hash waited in the queue for a hashing thread")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    private static Timer hashTimer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("auth.password.hash")
+                .description("Time spent computing a password hash")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,417 @@
+package com.catface996.auth.infrastructure.security.jwt;
+
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Lock-striped open-addressing table of 128-bit token keys and epoch-second expiries.
+ * <p>
+ * Each slot is three longs (key high, key low, expiry) in a flat {@code long[]} or, when
+ * off-heap, a direct buffer, so an entry costs 24 bytes of slot storage and no objects.
+ * Keys are spread over independently locked stripes; lookups run under an optimistic
+ * {@link StampedLock} read and only fall back to a read lock if a writer raced them.
+ * Collisions use linear probing with backward-shift deletion, so there are no tombstones
+ * and lookups never degrade after heavy churn. The all-zero key marks an empty slot.
+ */
+final class CompactBlacklistTable {
+
+    private static final int SLOT_LONGS = 3;
+    private static final int MIN_STRIPE_CAPACITY = 16;
+    private static final int MAX_STRIPE_CAPACITY = 1 << 26;
+
+    private final Stripe[] stripes;
+    private final int stripeShift;
+    private final boolean offHeap;
+
+    /**
+     * @param stripeCount number of independently locked stripes, rounded up to a power of two
+     * @param initialCapacity initial total number of slots, spread over the stripes
+     * @param offHeap whether slots live in direct buffers outside the Java heap
+     */
+    CompactBlacklistTable(int stripeCount, int initialCapacity, boolean offHeap) {
+        int stripesPow2 = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        int stripeCapacity = Math.max(MIN_STRIPE_CAPACITY,
+                Integer.highestOneBit(Math.max(1, initialCapacity / stripesPow2 - 1)) << 1);
+        this.offHeap = offHeap;
+        this.stripeShift = 64 - Integer.numberOfTrailingZeros(stripesPow2);
+        this.stripes = new Stripe[stripesPow2];
+        for (int i = 0; i < stripesPow2; i++) {
+            stripes[i] = new Stripe(newSlots(stripeCapacity));
+        }
+    }
+
+    /**
+     * Insert a key, or extend its expiry if it is already present
+     * @param expiresAt epoch second after which the entry is dead
+     * @return true if the key was not present before
+     */
+    boolean put(long high, long low, long expiresAt) {
+        long hash = hash(high, low);
+        Stripe stripe = stripeFor(hash);
+        long stamp = stripe.lock.writeLock();
+        try {
+            return stripe.put(high, low, expiresAt, (int) hash);
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Expiry of a key without taking a lock unless a writer interferes
+     * @return epoch-second expiry, or 0 if the key is absent
+     */
+    long expiry(long high, long low) {
+        long hash = hash(high, low);
+        Stripe stripe = stripeFor(hash);
+        long stamp = stripe.lock.tryOptimisticRead();
+        long expiresAt = stripe.find(high, low, (int) hash);
+        if (!stripe.lock.validate(stamp)) {
+            stamp = stripe.lock.readLock();
+            try {
+                expiresAt = stripe.find(high, low, (int) hash);
+            } finally {
+                stripe.lock.unlockRead(stamp);
+            }
+        }
+        return expiresAt;
+    }
+
+    /**
+     * Whether a key is present and not yet expired; never modifies the table
+     */
+    boolean contains(long high, long low, long nowEpochSecond) {
+        long expiresAt = expiry(high, low);
+        return expiresAt != 0 && expiresAt >= nowEpochSecond;
+    }
+
+    /**
+     * Remove a key
+     * @return true if the key was present
+     */
+    boolean remove(long high, long low) {
+        long hash = hash(high, low);
+        Stripe stripe = stripeFor(hash);
+        long stamp = stripe.lock.writeLock();
+        try {
+            return stripe.remove(high, low, (int) hash, 0);
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Remove a key only if its expiry is at or before the given second
+     * @return true if the key was removed
+     */
+    boolean removeIfExpiredBy(long high, long low, long epochSecond) {
+        long hash = hash(high, low);
+        Stripe stripe = stripeFor(hash);
+        long stamp = stripe.lock.writeLock();
+        try {
+            return stripe.remove(high, low, (int) hash, epochSecond);
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Grow stripes ahead of a bulk load so that it never resizes mid-way; inserting
+     * entries in hash order into an undersized table would otherwise build long probe runs
+     * @param expectedEntries total number of entries about to be present
+     */
+    void ensureCapacity(long expectedEntries) {
+        long perStripe = expectedEntries / stripes.length + 1;
+        long needed = Math.min(MAX_STRIPE_CAPACITY, Long.highestOneBit(perStripe * 4 / 3 + 1) << 1);
+        for (Stripe stripe : stripes) {
+            long stamp = stripe.lock.writeLock();
+            try {
+                if (stripe.slots.capacity < needed) {
+                    stripe.resize((int) needed);
+                }
+            } finally {
+                stripe.lock.unlockWrite(stamp);
+            }
+        }
+    }
+
+    /**
+     * Visit every entry, holding each stripe's read lock while it is visited
+     */
+    void forEach(EntryVisitor visitor) {
+        for (Stripe stripe : stripes) {
+            long stamp = stripe.lock.readLock();
+            try {
+                Slots slots = stripe.slots;
+                for (int slot = 0; slot < slots.capacity; slot++) {
+                    int base = slot * SLOT_LONGS;
+                    long high = slots.get(base);
+                    long low = slots.get(base + 1);
+                    if (high != 0 || low != 0) {
+                        visitor.accept(high, low, slots.get(base + 2));
+                    }
+                }
+            } finally {
+                stripe.lock.unlockRead(stamp);
+            }
+        }
+    }
+
+    /**
+     * Number of entries, including expired ones not yet purged
+     */
+    long size() {
+        long size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.size;
+        }
+        return size;
+    }
+
+    /**
+     * Bytes of slot storage currently allocated
+     */
+    long allocatedBytes() {
+        long bytes = 0;
+        for (Stripe stripe : stripes) {
+            bytes += (long) stripe.slots.capacity * SLOT_LONGS * Long.BYTES;
+        }
+        return bytes;
+    }
+
+    private Stripe stripeFor(long hash) {
+        return stripes.length == 1 ? stripes[0] : stripes[(int) (hash >>> stripeShift)];
+    }
+
+    private Slots newSlots(int capacity) {
+        return offHeap ? new DirectSlots(capacity) : new HeapSlots(capacity);
+    }
+
+    /**
+     * 64-bit mix of both key halves; the low half picks the slot, the high bits the stripe
+     */
+    private static long hash(long high, long low) {
+        long h = high * 0x9E3779B97F4A7C15L ^ low;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        return h ^ (h >>> 33);
+    }
+
+    /**
+     * Receives entries during {@link #forEach}
+     */
+    @FunctionalInterface
+    interface EntryVisitor {
+
+        void accept(long high, long low, long expiresAt);
+    }
+
+    private final class Stripe {
+
+        final StampedLock lock = new StampedLock();
+        Slots slots;
+        int size;
+
+        Stripe(Slots slots) {
+            this.slots = slots;
+        }
+
+        /**
+         * Probe for a key; safe to run without the lock because the probe is bounded by the
+         * capacity of the slots object it started with and the caller validates afterwards
+         */
+        long find(long high, long low, int hash) {
+            Slots s = slots;
+            int mask = s.capacity - 1;
+            int slot = hash & mask;
+            for (int probes = 0; probes <= mask; probes++) {
+                int base = slot * SLOT_LONGS;
+                long h = s.get(base);
+                long l = s.get(base + 1);
+                if (h == high && l == low) {
+                    return s.get(base + 2);
+                }
+                if (h == 0 && l == 0) {
+                    return 0;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return 0;
+        }
+
+        boolean put(long high, long low, long expiresAt, int hash) {
+            if ((size + 1) * 4L > slots.capacity * 3L) {
+                if (slots.capacity >= MAX_STRIPE_CAPACITY) {
+                    throw new IllegalStateException("Blacklist stripe is full at " + size + " entries");
+                }
+                resize(slots.capacity * 2);
+            }
+            Slots s = slots;
+            int mask = s.capacity - 1;
+            int slot = hash & mask;
+            while (true) {
+                int base = slot * SLOT_LONGS;
+                long h = s.get(base);
+                long l = s.get(base + 1);
+                if (h == high && l == low) {
+                    if (expiresAt > s.get(base + 2)) {
+                        s.set(base + 2, expiresAt);
+                    }
+                    return false;
+                }
+                if (h == 0 && l == 0) {
+                    s.set(base + 2, expiresAt);
+                    s.set(base + 1, low);
+                    s.set(base, high);
+                    size++;
+                    return true;
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+
+        /**
+         * Remove a key, optionally only if it expires at or before {@code expiredBy} (0 removes unconditionally)
+         */
+        boolean remove(long high, long low, int hash, long expiredBy) {
+            Slots s = slots;
+            int mask = s.capacity - 1;
+            int slot = hash & mask;
+            for (int probes = 0; probes <= mask; probes++) {
+                int base = slot * SLOT_LONGS;
+                long h = s.get(base);
+                long l = s.get(base + 1);
+                if (h == high && l == low) {
+                    if (expiredBy != 0 && s.get(base + 2) > expiredBy) {
+                        return false;
+                    }
+                    deleteAt(s, slot);
+                    return true;
+                }
+                if (h == 0 && l == 0) {
+                    return false;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return false;
+        }
+
+        /**
+         * Empty a slot and shift later entries of the probe run back so no tombstone is needed
+         */
+        private void deleteAt(Slots s, int hole) {
+            int mask = s.capacity - 1;
+            int next = (hole + 1) & mask;
+            while (true) {
+                int base = next * SLOT_LONGS;
+                long h = s.get(base);
+                long l = s.get(base + 1);
+                if (h == 0 && l == 0) {
+                    break;
+                }
+                int home = (int) hash(h, l) & mask;
+                // Move the entry if its home slot is not cyclically within (hole, next]
+                boolean movable = hole <= next
+                        ? home <= hole || home > next
+                        : home <= hole && home > next;
+                if (movable) {
+                    int holeBase = hole * SLOT_LONGS;
+                    s.set(holeBase + 2, s.get(base + 2));
+                    s.set(holeBase + 1, l);
+                    s.set(holeBase, h);
+                    hole = next;
+                }
+                next = (next + 1) & mask;
+            }
+            int holeBase = hole * SLOT_LONGS;
+            s.set(holeBase, 0);
+            s.set(holeBase + 1, 0);
+            s.set(holeBase + 2, 0);
+            size--;
+        }
+
+        private void resize(int capacity) {
+            Slots old = slots;
+            Slots grown = newSlots(capacity);
+            int mask = capacity - 1;
+            for (int slot = 0; slot < old.capacity; slot++) {
+                int base = slot * SLOT_LONGS;
+                long h = old.get(base);
+                long l = old.get(base + 1);
+                if (h == 0 && l == 0) {
+                    continue;
+                }
+                int target = (int) hash(h, l) & mask;
+                while (grown.get(target * SLOT_LONGS) != 0 || grown.get(target * SLOT_LONGS + 1) != 0) {
+                    target = (target + 1) & mask;
+                }
+                int targetBase = target * SLOT_LONGS;
+                grown.set(targetBase, h);
+                grown.set(targetBase + 1, l);
+                grown.set(targetBase + 2, old.get(base + 2));
+            }
+            slots = grown;
+        }
+    }
+
+    /**
+     * Fixed-capacity slot storage; capacity is a power of two
+     */
+    private abstract static class Slots {
+
+        final int capacity;
+
+        Slots(int capacity) {
+            this.capacity = capacity;
+        }
+
+        abstract long get(int index);
+
+        abstract void set(int index, long value);
+    }
+
+    private static final class HeapSlots extends Slots {
+
+        private final long[] data;
+
+        HeapSlots(int capacity) {
+            super(capacity);
+            this.data = new long[capacity * SLOT_LONGS];
+        }
+
+        @Override
+        long get(int index) {
+            return data[index];
+        }
+
+        @Override
+        void set(int index, long value) {
+            data[index] = value;
+        }
+    }
+
+    /**
+     * Slots in a direct buffer, released by the buffer's cleaner once the stripe drops it
+     */
+    private static final class DirectSlots extends Slots {
+
+        private final LongBuffer data;
+
+        DirectSlots(int capacity) {
+            super(capacity);
+            this.data = ByteBuffer.allocateDirect(capacity * SLOT_LONGS * Long.BYTES).asLongBuffer();
+        }
+
+        @Override
+        long get(int index) {
+            return data.get(index);
+        }
+
+        @Override
+        void set(int index, long value) {
+            data.put(index, value);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.catface996.auth.infrastructure.security.jwt;
+
+import com.catface996.auth.domain.security.RevocationEpochs;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Implementation of RevocationEpochs backed by a primitive {@link UserEpochTable}, so a
+ * lookup is one probe sequence with no allocation. An epoch older than the longest
+ * token lifetime no longer covers any unexpired token and is dropped.
+ */
+@Slf4j
+@Component
+public class CompactRevocationEpochs implements RevocationEpochs {
+
+    private final UserEpochTable table = new UserEpochTable(1024);
+    private final long longestLifetimeSeconds;
+    private final List<UserEpochTable.EntryVisitor> listeners = new CopyOnWriteArrayList<>();
+
+    public CompactRevocationEpochs(JwtProperties jwtProperties, MeterRegistry meterRegistry) {
+        this.longestLifetimeSeconds = Math.max(jwtProperties.getExpirationSeconds(),
+                jwtProperties.getRememberMeExpirationSeconds());
+        Gauge.builder("auth.revocation.epochs", table, UserEpochTable::size)
+                .description("Users with a token revocation epoch held in memory")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public long epochOf(long userId) {
+        return userId > 0 ? table.get(userId) : 0;
+    }
+
+    @Override
+    public void raise(long userId, long epochSecond) {
+        if (table.raise(userId, epochSecond)) {
+            for (UserEpochTable.EntryVisitor listener : listeners) {
+                listener.accept(userId, epochSecond);
+            }
+            log.debug("Revocation epoch of user {} raised to {}", userId, epochSecond);
+        }
+    }
+
+    /**
+     * Report every epoch raised from now on, locally or loaded from the database
+     */
+    void watch(UserEpochTable.EntryVisitor listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Visit the epochs held now
+     */
+    void forEachEpoch(UserEpochTable.EntryVisitor visitor) {
+        table.forEach(visitor);
+    }
+
+    /**
+     * Drop epochs that no unexpired token can predate
+     */
+    @Scheduled(fixedRate = 60000)
+    public void purgeExpiredEpochs() {
+        // A token issued at the epoch stays valid up to and including epoch + lifetime
+        int removed = table.removeUpTo(Instant.now().getEpochSecond() - longestLifetimeSeconds - 1);
+        if (removed > 0) {
+            log.debug("Dropped {} expired revocation epochs", removed);
+        }
+    }
+}
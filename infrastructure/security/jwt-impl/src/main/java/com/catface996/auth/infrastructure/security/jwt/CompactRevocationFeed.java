@@ -0,0 +1,112 @@
+package com.catface996.auth.infrastructure.security.jwt;
+
+import com.catface996.auth.domain.model.session.RevocationEvent;
+import com.catface996.auth.domain.security.RevocationFeed;
+import com.catface996.auth.domain.security.TokenBlacklist;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+/**
+ * Implementation of RevocationFeed over the blacklist store and the user revocation
+ * epochs.
+ * <p>
+ * Every entry the store gains, whether revoked here, replicated from a peer or raised
+ * through an epoch loaded from the database, is recorded in a {@link RevocationEventLog}
+ * of {@code auth.revocation.stream.log-capacity} events. Token IDs travel as the UUID
+ * strings this service issues, rebuilt from their 128-bit keys. Removals are not
+ * published: nothing un-revokes a token, and revocations end by expiring.
+ */
+@Slf4j
+@Component
+public class CompactRevocationFeed implements RevocationFeed {
+
+    private final String feedId = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+    private final RevocationEventLog eventLog;
+    private final RevocationSource source;
+    private final CompactRevocationEpochs epochs;
+
+    public CompactRevocationFeed(@Qualifier("tokenBlacklistStore") TokenBlacklist store,
+                                 CompactRevocationEpochs epochs,
+                                 @Value("${auth.revocation.stream.log-capacity:65536}") int logCapacity) {
+        if (!(store instanceof RevocationSource revocationSource)) {
+            throw new IllegalStateException(store.getClass().getSimpleName()
+                    + " does not report its revocations and cannot feed the revocation stream");
+        }
+        this.eventLog = new RevocationEventLog(logCapacity);
+        this.source = revocationSource;
+        this.epochs = epochs;
+        source.watch((high, low, expiresAt) -> eventLog.append(RevocationEventLog.TOKEN, high, low, expiresAt));
+        epochs.watch((userId, epochSecond) -> eventLog.append(RevocationEventLog.USER, userId, epochSecond, 0));
+        log.info("Revocation feed {} holds the latest {} events", feedId, logCapacity);
+    }
+
+    @Override
+    public String feedId() {
+        return feedId;
+    }
+
+    @Override
+    public long latestSequence() {
+        return eventLog.latest();
+    }
+
+    @Override
+    public boolean canResumeAfter(long sequence) {
+        return eventLog.holdsAfter(sequence);
+    }
+
+    @Override
+    public void snapshot(Consumer<RevocationEvent> consumer) {
+        long now = Instant.now().getEpochSecond();
+        LongList tokens = new LongList();
+        source.forEachRevocation((high, low, expiresAt) -> {
+            if (expiresAt >= now) {
+                tokens.add(high, low, expiresAt);
+            }
+        });
+        LongList users = new LongList();
+        epochs.forEachEpoch((userId, epochSecond) -> users.add(userId, epochSecond, 0));
+
+        for (int i = 0; i < tokens.size; i += 3) {
+            long[] t = tokens.values;
+            consumer.accept(RevocationEvent.token(new JtiKey(t[i], t[i + 1]).toTokenId(), t[i + 2]));
+        }
+        for (int i = 0; i < users.size; i += 3) {
+            consumer.accept(RevocationEvent.user(users.values[i], users.values[i + 1]));
+        }
+    }
+
+    @Override
+    public long poll(long afterSequence, int maxEvents, long timeoutMillis, Consumer<RevocationEvent> consumer)
+            throws InterruptedException {
+        return eventLog.read(afterSequence, maxEvents, timeoutMillis, (kind, a, b, c) -> consumer.accept(
+                kind == RevocationEventLog.TOKEN
+                        ? RevocationEvent.token(new JtiKey(a, b).toTokenId(), c)
+                        : RevocationEvent.user(a, b)));
+    }
+
+    /**
+     * Growable array of (long, long, long) triples
+     */
+    private static final class LongList {
+
+        long[] values = new long[3 * 1024];
+        int size;
+
+        void add(long a, long b, long c) {
+            if (size + 3 > values.length) {
+                values = Arrays.copyOf(values, 2 * values.length);
+            }
+            values[size++] = a;
+            values[size++] = b;
+            values[size++] = c;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.catface996.auth.infrastructure.security.jwt;
+
+import com.catface996.auth.domain.security.TokenBlacklist;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Memory-compact implementation of TokenBlacklist.
+ * <p>
+ * Stores each revoked token ID as a 128-bit key with an epoch-second expiry in a
+ * {@link CompactBlacklistTable}: 24 bytes per slot and no per-entry objects, against
+ * roughly 150 bytes per entry for a {@code ConcurrentHashMap<String, Instant>}.
+ * Keys are also indexed by expiry minute in {@link ExpiryBuckets} (16 more bytes per
+ * entry), so cleanup drops whole expired buckets instead of scanning the table, and the
+ * read path never modifies anything. Revocations are spread to other instances by
+ * {@link BlacklistReplicator} when replication is enabled.
+ */
+@Slf4j
+@Component
+@Qualifier("tokenBlacklistStore")
+@ConditionalOnProperty(prefix = "auth.blacklist", name = "store", havingValue = "compact", matchIfMissing = true)
+public class CompactTokenBlacklist implements TokenBlacklist, RevocationSource {
+
+    private final CompactBlacklistTable table;
+    private final ExpiryBuckets expiryBuckets = new ExpiryBuckets();
+    private final Timer purgeTimer;
+    private final List<RevocationListener> listeners = new CopyOnWriteArrayList<>();
+    private final List<RevocationListener> subscribers = new CopyOnWriteArrayList<>();
+
+    public CompactTokenBlacklist(BlacklistProperties blacklistProperties, MeterRegistry meterRegistry) {
+        BlacklistProperties.Compact config = blacklistProperties.getCompact();
+        this.table = new CompactBlacklistTable(config.getStripes(), config.getInitialCapacity(), config.isOffHeap());
+        this.purgeTimer = BlacklistMetrics.purgeTimer(meterRegistry);
+        BlacklistMetrics.entriesGauge(meterRegistry, table, CompactBlacklistTable::size);
+        log.info("Compact token blacklist: {} stripes, {} bytes preallocated{}",
+                config.getStripes(), table.allocatedBytes(), config.isOffHeap() ? " off-heap" : "");
+    }
+
+    @Override
+    public void addToBlacklist(String tokenId, long expirationSeconds) {
+        JtiKey key = JtiKey.of(tokenId);
+        long expiresAt = Instant.now().getEpochSecond() + expirationSeconds;
+        index(key.high(), key.low(), expiresAt);
+        onAdded(key.high(), key.low(), expiresAt);
+        for (RevocationListener listener : listeners) {
+            listener.onRevoked(key.high(), key.low(), expiresAt);
+        }
+        log.debug("Token {} added to blacklist, expires at {}", tokenId, expiresAt);
+    }
+
+    @Override
+    public boolean isBlacklisted(String tokenId) {
+        JtiKey key = JtiKey.of(tokenId);
+        return table.contains(key.high(), key.low(), Instant.now().getEpochSecond());
+    }
+
+    @Override
+    public void removeFromBlacklist(String tokenId) {
+        JtiKey key = JtiKey.of(tokenId);
+        unindex(key.high(), key.low());
+        onRemoved(key.high(), key.low());
+        log.debug("Token {} removed from blacklist", tokenId);
+    }
+
+    /**
+     * Add an entry to the in-memory index only
+     */
+    void index(long high, long low, long expiresAt) {
+        table.put(high, low, expiresAt);
+        if (!expiryBuckets.add(high, low, expiresAt)) {
+            // Its expiry minute was already drained: the entry is dead on arrival
+            table.removeIfExpiredBy(high, low, expiresAt);
+        }
+    }
+
+    /**
+     * Register a listener for revocations made on this instance
+     */
+    void addRevocationListener(RevocationListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Apply a revocation received from another instance; it is not passed to revocation
+     * listeners, so it is never echoed back
+     * @return false if an entry at least as long-lived was already present
+     */
+    boolean applyReplicated(long high, long low, long expiresAt) {
+        if (table.expiry(high, low) >= expiresAt) {
+            return false;
+        }
+        index(high, low, expiresAt);
+        onReplicated(high, low, expiresAt);
+        for (RevocationListener subscriber : subscribers) {
+            subscriber.onRevoked(high, low, expiresAt);
+        }
+        return true;
+    }
+
+    @Override
+    public void subscribe(RevocationListener listener) {
+        // Registered first so that nothing replicated during the replay is missed
+        subscribers.add(listener);
+        forEachEntry(listener::onRevoked);
+    }
+
+    @Override
+    public void watch(RevocationListener listener) {
+        listeners.add(listener);
+        subscribers.add(listener);
+    }
+
+    @Override
+    public void forEachRevocation(RevocationListener visitor) {
+        forEachEntry(visitor::onRevoked);
+    }
+
+    /**
+     * Size the index for a bulk load of about this many entries
+     */
+    void reserve(long entries) {
+        table.ensureCapacity(table.size() + entries);
+    }
+
+    /**
+     * Remove an entry from the in-memory index only
+     */
+    void unindex(long high, long low) {
+        table.remove(high, low);
+    }
+
+    /**
+     * Visit every indexed entry, including expired ones not yet purged
+     */
+    void forEachEntry(CompactBlacklistTable.EntryVisitor visitor) {
+        table.forEach(visitor);
+    }
+
+    /**
+     * Called after a revocation has been indexed; subclasses make it durable
+     */
+    void onAdded(long high, long low, long expiresAt) {
+    }
+
+    /**
+     * Called after a revocation received from another instance has been indexed
+     */
+    void onReplicated(long high, long low, long expiresAt) {
+    }
+
+    /**
+     * Called after a revocation has been removed from the index
+     */
+    void onRemoved(long high, long low) {
+    }
+
+    /**
+     * Drop expired tokens every minute, one expiry bucket at a time
+     */
+    @Scheduled(fixedRate = 60000)
+    public void cleanupExpiredTokens() {
+        int[] removed = new int[1];
+        purgeTimer.record(() -> {
+            expiryBuckets.drainExpired(Instant.now().getEpochSecond(), (high, low, bucketEnd) -> {
+                // A later re-revocation may have extended the entry past this bucket
+                if (table.removeIfExpiredBy(high, low, bucketEnd)) {
+                    removed[0]++;
+                }
+            });
+        });
+        if (removed[0] > 0) {
+            log.debug("Cleaned up {} expired tokens from blacklist", removed[0]);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.catface996.auth.infrastructure.security.jwt;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Index of 128-bit keys by expiry minute, so expired entries are found a whole bucket
+ * at a time instead of by scanning every entry.
+ * <p>
+ * Each bucket holds the keys that expire within one minute as a flat {@code long[]}.
+ * Draining removes buckets whose minute has fully passed; a bucket is closed before it
+ * is drained, so a writer that still held a reference to it learns that its entry has
+ * already expired rather than losing the key.
+ */
+final class ExpiryBuckets {
+
+    static final long BUCKET_SECONDS = 60;
+
+    private final ConcurrentSkipListMap<Long, KeyBucket> buckets = new ConcurrentSkipListMap<>();
+
+    /**
+     * Record a key under its expiry minute
+     * @return false if that minute has already been drained, i.e. the entry is already dead
+     */
+    boolean add(long high, long low, long expiresAt) {
+        return buckets.computeIfAbsent(expiresAt / BUCKET_SECONDS, minute -> new KeyBucket()).add(high, low);
+    }
+
+    /**
+     * Drain every bucket whose minute ended at or before {@code nowEpochSecond}
+     * @param visitor receives each key with the last second of its bucket
+     * @return number of keys visited
+     */
+    int drainExpired(long nowEpochSecond, CompactBlacklistTable.EntryVisitor visitor) {
+        long currentMinute = nowEpochSecond / BUCKET_SECONDS;
+        int drained = 0;
+        Map.Entry<Long, KeyBucket> head;
+        while ((head = buckets.firstEntry()) != null && head.getKey() < currentMinute) {
+            buckets.remove(head.getKey(), head.getValue());
+            long bucketEnd = (head.getKey() + 1) * BUCKET_SECONDS - 1;
+            long[] keys = head.getValue().close();
+            int length = head.getValue().length();
+            for (int i = 0; i < length; i += 2) {
+                visitor.accept(keys[i], keys[i + 1], bucketEnd);
+            }
+            drained += length / 2;
+        }
+        return drained;
+    }
+
+    /**
+     * Number of minute buckets currently held
+     */
+    int bucketCount() {
+        return buckets.size();
+    }
+
+    private static final class KeyBucket {
+
+        private long[] keys = new long[16];
+        private int length;
+        private boolean closed;
+
+        synchronized boolean add(long high, long low) {
+            if (closed) {
+                return false;
+            }
+            if (length == keys.length) {
+                keys = Arrays.copyOf(keys, length * 2);
+            }
+            keys[length++] = high;
+            keys[length++] = low;
+            return true;
+        }
+
+        synchronized long[] close() {
+            closed = true;
+            return keys;
+        }
+
+        synchronized int length() {
+            return length;
+        }
+    }
+}
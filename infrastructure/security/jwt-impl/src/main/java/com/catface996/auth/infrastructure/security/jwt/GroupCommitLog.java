@@ -0,0 +1,639 @@
+package com.catface996.auth.infrastructure.security.jwt;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only, group-committed log in numbered generations, with snapshot compaction and
+ * crash recovery. The persistent stores supply the record format as a {@link RecordCodec}.
+ * <p>
+ * Appenders frame their record and add it to an in-memory batch; a single flusher thread
+ * writes the whole batch and fsyncs once, so concurrent changes share one disk sync. With
+ * {@code waitForSync} an append returns only after its batch is durable. Every record
+ * ends in a CRC32C and, unless the codec has a fixed length, starts with its length, so a
+ * torn record at the tail (crash mid-write) fails its checksum and is truncated on
+ * recovery.
+ * <p>
+ * Files are named {@code <name>-<generation>.log} and {@code <name>-<generation>.snapshot}.
+ * {@link #compact} starts a new log generation, has the store write everything before it
+ * into a snapshot of that generation, and deletes the older files. {@link #open} loads
+ * the newest snapshot and replays the logs from its generation on. A snapshot may already
+ * hold some changes of its own generation's log, so stores must apply records such that
+ * replaying one twice has no further effect.
+ * <p>
+ * On POSIX file systems the directory and files are created readable by their owner only.
+ */
+@Slf4j
+final class GroupCommitLog<R> implements Closeable {
+
+    static final String LOG_SUFFIX = ".log";
+    static final String SNAPSHOT_SUFFIX = ".snapshot";
+
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final int SNAPSHOT_BUFFER_BYTES = 1 << 20;
+    private static final Set<StandardOpenOption> APPEND_OPTIONS =
+            Set.of(StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    private static final Set<StandardOpenOption> SNAPSHOT_OPTIONS =
+            Set.of(StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+
+    private final String name;
+    private final String filePrefix;
+    private final Path directory;
+    private final FileAttribute<?>[] directoryAttributes;
+    private final FileAttribute<?>[] fileAttributes;
+    private final RecordCodec<R> codec;
+    private final int maxFrameBytes;
+    private final boolean waitForSync;
+    private final ThreadLocal<Framer> framers;
+    private final ReentrantLock ioLock = new ReentrantLock();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition pendingAvailable = lock.newCondition();
+    private final Condition progress = lock.newCondition();
+    private final Timer syncTimer;
+    private final DistributionSummary batchSize;
+    private Thread flusher;
+
+    // Guarded by lock
+    private ByteBuffer pending;
+    private long appendedSeq;
+    private long syncedSeq;
+    private IOException failure;
+    private boolean closed;
+
+    // Guarded by ioLock
+    private ByteBuffer writing;
+    private volatile FileChannel channel;
+    private volatile long generation;
+
+    /**
+     * Describe a log; nothing is read or written before {@link #open}
+     * @param name file name prefix, flusher thread name and {@code auth.<name>.journal} metric prefix
+     * @param batchBytes bytes buffered before appenders wait for the flusher
+     */
+    GroupCommitLog(String name, Path directory, RecordCodec<R> codec, int batchBytes, boolean waitForSync,
+                   MeterRegistry meterRegistry) {
+        this.name = name;
+        this.filePrefix = name + "-";
+        this.directory = directory;
+        boolean posix = directory.getFileSystem().supportedFileAttributeViews().contains("posix");
+        this.directoryAttributes = posix ? ownerOnly("rwx------") : new FileAttribute<?>[0];
+        this.fileAttributes = posix ? ownerOnly("rw-------") : new FileAttribute<?>[0];
+        this.codec = codec;
+        this.maxFrameBytes = codec.fixedLength() > 0
+                ? codec.fixedLength() + Integer.BYTES
+                : Integer.BYTES + codec.maxLength() + Integer.BYTES;
+        if (batchBytes < maxFrameBytes) {
+            throw new IllegalArgumentException("A " + name + " journal batch must hold at least one record");
+        }
+        this.waitForSync = waitForSync;
+        this.framers = ThreadLocal.withInitial(() -> new Framer(maxFrameBytes));
+        this.pending = ByteBuffer.allocate(batchBytes);
+        this.writing = ByteBuffer.allocate(batchBytes);
+        this.syncTimer = Timer.builder("auth." + name + ".journal.sync")
+                .description("Time to write and fsync one batch of " + name + " journal records")
+                .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("auth." + name + ".journal.batch")
+                .description(name + " journal records made durable per fsync")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Recover the store from the newest snapshot and the logs after it, then continue
+     * appending to the newest log
+     */
+    void open(Recovery<R> recovery) throws IOException {
+        Files.createDirectories(directory, directoryAttributes);
+        long started = System.nanoTime();
+
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.sorted().toList();
+        }
+        for (Path file : files) {
+            if (file.getFileName().toString().endsWith(TEMP_SUFFIX)) {
+                Files.delete(file);
+            }
+        }
+
+        long snapshotGeneration = files.stream()
+                .mapToLong(file -> generationOf(file, SNAPSHOT_SUFFIX))
+                .max()
+                .orElse(-1);
+        long loaded = snapshotGeneration >= 0 ? recovery.loadSnapshot(path(snapshotGeneration, SNAPSHOT_SUFFIX)) : 0;
+
+        long fromGeneration = Math.max(snapshotGeneration, 0);
+        List<Long> logGenerations = files.stream()
+                .mapToLong(file -> generationOf(file, LOG_SUFFIX))
+                .filter(logGeneration -> logGeneration >= fromGeneration)
+                .sorted()
+                .boxed()
+                .toList();
+        long[] replayed = new long[1];
+        for (long logGeneration : logGenerations) {
+            Path logFile = path(logGeneration, LOG_SUFFIX);
+            if (codec.fixedLength() > 0) {
+                recovery.expectRecords(Files.size(logFile) / maxFrameBytes);
+            }
+            long valid = replay(logFile, record -> {
+                recovery.apply(record);
+                replayed[0]++;
+            });
+            truncate(logFile, valid);
+        }
+
+        this.generation = logGenerations.isEmpty() ? fromGeneration : logGenerations.get(logGenerations.size() - 1);
+        this.channel = openForAppend(path(generation, LOG_SUFFIX));
+        this.flusher = new Thread(this::runFlusher, name + "-journal");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+        log.info("Recovered {} journal from {}: {} snapshot entries, {} log records in {} ms",
+                name, directory, loaded, replayed[0], TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    /**
+     * Append a record, waiting for it to be synced if the log was opened with {@code waitForSync}
+     * @throws IOException if the log is closed or a previous sync failed
+     */
+    void append(R record) throws IOException {
+        append(record, waitForSync);
+    }
+
+    /**
+     * Append a record, waiting for it to be synced only if asked to
+     * @throws IOException if the log is closed or a previous sync failed
+     */
+    void append(R record, boolean awaitSync) throws IOException {
+        // Encode and checksum outside the lock; only the copy into the batch is serialised
+        Framer framer = framers.get();
+        ByteBuffer frame = framer.buffer.clear();
+        frame(record, frame, framer.checksum);
+        frame.flip();
+
+        lock.lock();
+        try {
+            while (pending.remaining() < frame.remaining()) {
+                checkWritable();
+                pendingAvailable.signal();
+                progress.awaitUninterruptibly();
+            }
+            checkWritable();
+            pending.put(frame);
+            long seq = ++appendedSeq;
+            pendingAvailable.signal();
+
+            if (!awaitSync) {
+                return;
+            }
+            // close() flushes what is pending, so only a failed sync can strand this record
+            while (syncedSeq < seq) {
+                if (failure != null) {
+                    throw new IOException(name + " journal sync failed", failure);
+                }
+                progress.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Rotate to a new generation and replace everything before it with a snapshot
+     * @param writer writes the store's current state; changes racing the rotation may
+     *               land in both the snapshot and the new log
+     * @return number of entries the snapshot holds
+     */
+    synchronized long compact(SnapshotWriter writer) throws IOException {
+        long started = System.nanoTime();
+        long snapshotGeneration = rotate();
+        Path target = path(snapshotGeneration, SNAPSHOT_SUFFIX);
+        Path temp = target.resolveSibling(target.getFileName() + TEMP_SUFFIX);
+        long count;
+        try (FileChannel out = FileChannel.open(temp, SNAPSHOT_OPTIONS, fileAttributes)) {
+            count = writer.write(out, snapshotGeneration);
+            out.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        syncDirectory(directory);
+
+        try (Stream<Path> listing = Files.list(directory)) {
+            for (Path file : listing.toList()) {
+                long logGeneration = generationOf(file, LOG_SUFFIX);
+                long olderSnapshot = generationOf(file, SNAPSHOT_SUFFIX);
+                if ((logGeneration >= 0 && logGeneration < snapshotGeneration)
+                        || (olderSnapshot >= 0 && olderSnapshot < snapshotGeneration)) {
+                    Files.delete(file);
+                }
+            }
+        }
+        log.info("Compacted {} journal into snapshot generation {} with {} entries in {} ms",
+                name, snapshotGeneration, count, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        return count;
+    }
+
+    /**
+     * Write records in the log's own framing, for stores whose snapshot is a sequence of
+     * records read back with {@link #replay}
+     * @param records supplies every record to the consumer it is given
+     * @return number of records written
+     */
+    long writeRecords(FileChannel out, Consumer<Consumer<R>> records) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(Math.max(SNAPSHOT_BUFFER_BYTES, maxFrameBytes));
+        CRC32C checksum = new CRC32C();
+        long[] count = new long[1];
+        try {
+            records.accept(record -> {
+                if (buffer.remaining() < maxFrameBytes) {
+                    drain(out, buffer);
+                }
+                frame(record, buffer, checksum);
+                count[0]++;
+            });
+            drain(out, buffer);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return count[0];
+    }
+
+    /**
+     * Read a log or record snapshot, stopping at the first record that is short, fails
+     * its checksum or does not decode
+     * @return length in bytes of the valid prefix
+     */
+    long replay(Path file, Consumer<R> visitor) throws IOException {
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = in.size();
+            if (size == 0) {
+                return 0;
+            }
+            MappedByteBuffer buffer = in.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            CRC32C checksum = new CRC32C();
+            int fixedLength = codec.fixedLength();
+            long valid = 0;
+            while (true) {
+                int start = buffer.position();
+                int bodyStart = start;
+                int length = fixedLength;
+                if (fixedLength <= 0) {
+                    if (buffer.remaining() < Integer.BYTES) {
+                        break;
+                    }
+                    length = buffer.getInt(start);
+                    bodyStart = start + Integer.BYTES;
+                    if (length <= 0 || length > codec.maxLength()) {
+                        break;
+                    }
+                }
+                int end = bodyStart + length;
+                if (buffer.limit() - end < Integer.BYTES) {
+                    break;
+                }
+                checksum.reset();
+                checksum.update(buffer.slice(start, end - start));
+                if (buffer.getInt(end) != (int) checksum.getValue()) {
+                    break;
+                }
+                R record = codec.decode(buffer.slice(bodyStart, length));
+                if (record == null) {
+                    break;
+                }
+                visitor.accept(record);
+                buffer.position(end + Integer.BYTES);
+                valid = buffer.position();
+            }
+            return valid;
+        }
+    }
+
+    long generation() {
+        return generation;
+    }
+
+    /**
+     * Size of the current generation's log in bytes
+     */
+    long currentSize() throws IOException {
+        return channel.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel == null) {
+            return;
+        }
+        lock.lock();
+        try {
+            closed = true;
+            pendingAvailable.signalAll();
+            progress.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        ioLock.lock();
+        try {
+            flush();
+            channel.close();
+        } finally {
+            ioLock.unlock();
+        }
+    }
+
+    /**
+     * Make everything appended so far durable and continue in a new generation
+     * @return the new generation; all earlier generations are complete and closed
+     */
+    private long rotate() throws IOException {
+        ioLock.lock();
+        try {
+            flush();
+            long next = generation + 1;
+            FileChannel nextChannel = openForAppend(path(next, LOG_SUFFIX));
+            channel.close();
+            channel = nextChannel;
+            generation = next;
+            syncDirectory(directory);
+            return next;
+        } finally {
+            ioLock.unlock();
+        }
+    }
+
+    private void checkWritable() throws IOException {
+        if (failure != null) {
+            throw new IOException(name + " journal is unusable after a failed sync", failure);
+        }
+        if (closed) {
+            throw new IOException(name + " journal is closed");
+        }
+    }
+
+    private void runFlusher() {
+        while (true) {
+            lock.lock();
+            try {
+                while (pending.position() == 0 && !closed) {
+                    pendingAvailable.awaitUninterruptibly();
+                }
+                if (pending.position() == 0) {
+                    return;
+                }
+            } finally {
+                lock.unlock();
+            }
+            try {
+                flush();
+            } catch (IOException e) {
+                log.error("{} journal sync failed; changes are no longer persisted", name, e);
+                lock.lock();
+                try {
+                    failure = e;
+                    progress.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Write and fsync the pending batch; appenders keep filling the other buffer meanwhile
+     */
+    private void flush() throws IOException {
+        ioLock.lock();
+        try {
+            long batchSeq;
+            long records;
+            lock.lock();
+            try {
+                if (pending.position() == 0) {
+                    return;
+                }
+                ByteBuffer full = pending;
+                pending = writing;
+                writing = full;
+                batchSeq = appendedSeq;
+                records = batchSeq - syncedSeq;
+                progress.signalAll();
+            } finally {
+                lock.unlock();
+            }
+
+            writing.flip();
+            long start = System.nanoTime();
+            while (writing.hasRemaining()) {
+                channel.write(writing);
+            }
+            channel.force(false);
+            syncTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            batchSize.record(records);
+            writing.clear();
+
+            lock.lock();
+            try {
+                syncedSeq = batchSeq;
+                progress.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            ioLock.unlock();
+        }
+    }
+
+    /**
+     * Encode a record into a heap buffer with room for {@code maxFrameBytes}: its length
+     * unless fixed, the body, then a CRC32C over both
+     */
+    private void frame(R record, ByteBuffer out, CRC32C checksum) {
+        int start = out.position();
+        int fixedLength = codec.fixedLength();
+        if (fixedLength > 0) {
+            codec.encode(record, out);
+            if (out.position() - start != fixedLength) {
+                out.position(start);
+                throw new IllegalStateException(name + " journal record is not " + fixedLength + " bytes");
+            }
+        } else {
+            out.putInt(0);
+            codec.encode(record, out);
+            out.putInt(start, out.position() - start - Integer.BYTES);
+        }
+        checksum.reset();
+        checksum.update(out.array(), out.arrayOffset() + start, out.position() - start);
+        out.putInt((int) checksum.getValue());
+    }
+
+    private Path path(long fileGeneration, String suffix) {
+        return directory.resolve(String.format("%s%016d%s", filePrefix, fileGeneration, suffix));
+    }
+
+    /**
+     * Generation encoded in a log or snapshot file name
+     * @return the generation, or -1 if the name does not match
+     */
+    private long generationOf(Path file, String suffix) {
+        String fileName = file.getFileName().toString();
+        if (!fileName.startsWith(filePrefix) || !fileName.endsWith(suffix)
+                || fileName.length() != filePrefix.length() + 16 + suffix.length()) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(fileName.substring(filePrefix.length(), filePrefix.length() + 16));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Cut a log back to its valid prefix
+     */
+    private static void truncate(Path file, long length) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            if (channel.size() > length) {
+                log.warn("Truncating {} torn bytes from {}", channel.size() - length, file);
+                channel.truncate(length);
+                channel.force(true);
+            }
+        }
+    }
+
+    /**
+     * Fsync a directory so that file creations and renames in it are durable
+     */
+    private static void syncDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Not supported on every platform; the files themselves are already synced
+            log.debug("Could not fsync directory {}: {}", directory, e.getMessage());
+        }
+    }
+
+    private static void drain(FileChannel out, ByteBuffer buffer) {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buffer.clear();
+    }
+
+    private FileChannel openForAppend(Path file) throws IOException {
+        return FileChannel.open(file, APPEND_OPTIONS, fileAttributes);
+    }
+
+    private static FileAttribute<?>[] ownerOnly(String permissions) {
+        return new FileAttribute<?>[]{
+                PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString(permissions))};
+    }
+
+    /**
+     * Per-thread scratch space for framing a record outside the lock
+     */
+    private static final class Framer {
+
+        private final ByteBuffer buffer;
+        private final CRC32C checksum = new CRC32C();
+
+        Framer(int maxFrameBytes) {
+            this.buffer = ByteBuffer.allocate(maxFrameBytes);
+        }
+    }
+
+    /**
+     * Binary format of one store's records
+     */
+    interface RecordCodec<R> {
+
+        /**
+         * Encoded length of every record, or 0 if records vary in length and are framed
+         * with a length prefix
+         */
+        int fixedLength();
+
+        /**
+         * Upper bound on an encoded record's length
+         */
+        int maxLength();
+
+        /**
+         * Write a record's body; a record that would not fit in {@link #maxLength} bytes
+         * is refused with an IllegalArgumentException before anything is written
+         */
+        void encode(R record, ByteBuffer out);
+
+        /**
+         * Read a record's body, which has already passed its checksum
+         * @return the record, or null if the body is not a valid record
+         */
+        R decode(ByteBuffer body);
+    }
+
+    /**
+     * How a store rebuilds its state in {@link #open}
+     */
+    interface Recovery<R> {
+
+        /**
+         * Load the newest snapshot
+         * @return number of entries loaded
+         */
+        long loadSnapshot(Path file) throws IOException;
+
+        /**
+         * Upper bound on the records about to be replayed from one log, for presizing
+         */
+        default void expectRecords(long records) {
+        }
+
+        /**
+         * Apply one logged change
+         */
+        void apply(R record);
+    }
+
+    /**
+     * Writes a store's state into a snapshot during {@link #compact}
+     */
+    @FunctionalInterface
+    interface SnapshotWriter {
+
+        /**
+         * @param out the snapshot file, synced and moved into place by the caller
+         * @return number of entries written
+         */
+        long write(FileChannel out, long generation) throws IOException;
+    }
+}
@@ -1,43 +1,70 @@
 package com.catface996.auth.infrastructure.security.jwt;
 
 import com.catface996.auth.domain.security.TokenBlacklist;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * In-memory implementation of TokenBlacklist.
- * Suitable for single-instance deployments.
- * For distributed deployments, use a Redis-based implementation.
+ * Suitable for single-instance deployments; it does not take part in replication, so
+ * multi-instance deployments use the compact or persistent store with
+ * {@code auth.blacklist.replication.enabled=true}.
+ * Enabled with {@code auth.blacklist.store=memory}; {@link CompactTokenBlacklist} is the default.
+ * <p>
+ * Token IDs are also grouped by expiry minute, so cleanup drops whole expired buckets
+ * instead of walking the map, and lookups never modify it.
  */
 @Slf4j
 @Component
-public class InMemoryTokenBlacklist implements TokenBlacklist {
+@Qualifier("tokenBlacklistStore")
+@ConditionalOnProperty(prefix = "auth.blacklist", name = "store", havingValue = "memory")
+public class InMemoryTokenBlacklist implements TokenBlacklist, RevocationSource {
 
     private final Map<String, Instant> blacklistedTokens = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Long, Bucket> expiryBuckets = new ConcurrentSkipListMap<>();
+    private final Timer purgeTimer;
+    private final List<RevocationListener> listeners = new CopyOnWriteArrayList<>();
+
+    public InMemoryTokenBlacklist(MeterRegistry meterRegistry) {
+        this.purgeTimer = BlacklistMetrics.purgeTimer(meterRegistry);
+        BlacklistMetrics.entriesGauge(meterRegistry, blacklistedTokens, Map::size);
+    }
 
     @Override
     public void addToBlacklist(String tokenId, long expirationSeconds) {
         Instant expiresAt = Instant.now().plusSeconds(expirationSeconds);
-        blacklistedTokens.put(tokenId, expiresAt);
+        blacklistedTokens.merge(tokenId, expiresAt, (current, added) -> added.isAfter(current) ? added : current);
+        long minute = expiresAt.getEpochSecond() / ExpiryBuckets.BUCKET_SECONDS;
+        if (!expiryBuckets.computeIfAbsent(minute, m -> new Bucket()).add(tokenId)) {
+            // Its expiry minute was already drained: the entry is dead on arrival
+            blacklistedTokens.remove(tokenId, expiresAt);
+        } else if (!listeners.isEmpty()) {
+            JtiKey key = JtiKey.of(tokenId);
+            for (RevocationListener listener : listeners) {
+                listener.onRevoked(key.high(), key.low(), expiresAt.getEpochSecond());
+            }
+        }
         log.debug("Token {} added to blacklist, expires at {}", tokenId, expiresAt);
     }
 
     @Override
     public boolean isBlacklisted(String tokenId) {
         Instant expiresAt = blacklistedTokens.get(tokenId);
-        if (expiresAt == null) {
-            return false;
-        }
-        if (Instant.now().isAfter(expiresAt)) {
-            blacklistedTokens.remove(tokenId);
-            return false;
-        }
-        return true;
+        return expiresAt != null && !Instant.now().isAfter(expiresAt);
     }
 
     @Override
@@ -47,22 +74,72 @@ public class InMemoryTokenBlacklist implements TokenBlacklist {
     }
 
     /**
-     * Cleanup expired tokens every 5 minutes
+     * Replays the current entries; this store gains entries only through addToBlacklist
+     */
+    @Override
+    public void subscribe(RevocationListener listener) {
+        forEachRevocation(listener);
+    }
+
+    @Override
+    public void watch(RevocationListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void forEachRevocation(RevocationListener visitor) {
+        blacklistedTokens.forEach((tokenId, expiresAt) -> {
+            JtiKey key = JtiKey.of(tokenId);
+            visitor.onRevoked(key.high(), key.low(), expiresAt.getEpochSecond());
+        });
+    }
+
+    /**
+     * Drop expired tokens every minute, one expiry bucket at a time
      */
-    @Scheduled(fixedRate = 300000)
+    @Scheduled(fixedRate = 60000)
     public void cleanupExpiredTokens() {
-        Instant now = Instant.now();
-        int removed = 0;
-        var iterator = blacklistedTokens.entrySet().iterator();
-        while (iterator.hasNext()) {
-            var entry = iterator.next();
-            if (now.isAfter(entry.getValue())) {
-                iterator.remove();
-                removed++;
+        long currentMinute = Instant.now().getEpochSecond() / ExpiryBuckets.BUCKET_SECONDS;
+        int[] removed = new int[1];
+        purgeTimer.record(() -> {
+            Map.Entry<Long, Bucket> head;
+            while ((head = expiryBuckets.firstEntry()) != null && head.getKey() < currentMinute) {
+                expiryBuckets.remove(head.getKey(), head.getValue());
+                Instant bucketEnd = Instant.ofEpochSecond((head.getKey() + 1) * ExpiryBuckets.BUCKET_SECONDS - 1);
+                for (String tokenId : head.getValue().close()) {
+                    // A later re-revocation may have extended the entry past this bucket
+                    Instant expiresAt = blacklistedTokens.get(tokenId);
+                    if (expiresAt != null && !expiresAt.isAfter(bucketEnd)
+                            && blacklistedTokens.remove(tokenId, expiresAt)) {
+                        removed[0]++;
+                    }
+                }
             }
+        });
+        if (removed[0] > 0) {
+            log.debug("Cleaned up {} expired tokens from blacklist", removed[0]);
         }
-        if (removed > 0) {
-            log.debug("Cleaned up {} expired tokens from blacklist", removed);
+    }
+
+    /**
+     * Token IDs expiring within one minute; closed once drained
+     */
+    private static final class Bucket {
+
+        private final Set<String> tokenIds = new HashSet<>();
+        private boolean closed;
+
+        synchronized boolean add(String tokenId) {
+            if (closed) {
+                return false;
+            }
+            tokenIds.add(tokenId);
+            return true;
+        }
+
+        synchronized Set<String> close() {
+            closed = true;
+            return tokenIds;
         }
     }
 }
@@ -0,0 +1,81 @@
+package com.catface996.auth.infrastructure.security.jwt;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.UUID;
+
+/**
+ * 128-bit form of a token ID.
+ * <p>
+ * Token IDs issued by {@link JtiGenerator} are UUID strings and map exactly onto their
+ * two 64-bit halves. Any other token ID is reduced to the first 128 bits of its SHA-256
+ * digest. The all-zero key is reserved as the empty-slot marker of
+ * {@link CompactBlacklistTable} and is never produced.
+ */
+record JtiKey(long high, long low) {
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    });
+
+    static JtiKey of(String tokenId) {
+        if (tokenId.length() == 36 && isDashed(tokenId)) {
+            long timeLow = parseHex(tokenId, 0, 8);
+            long timeMid = parseHex(tokenId, 9, 13);
+            long timeHigh = parseHex(tokenId, 14, 18);
+            long clockSeq = parseHex(tokenId, 19, 23);
+            long node = parseHex(tokenId, 24, 36);
+            // Each group is at most 12 digits, so only a non-hex character makes one negative
+            if ((timeLow | timeMid | timeHigh | clockSeq | node) >= 0) {
+                return nonZero(timeLow << 32 | timeMid << 16 | timeHigh, clockSeq << 48 | node);
+            }
+        }
+        ByteBuffer digest = ByteBuffer.wrap(SHA_256.get().digest(tokenId.getBytes(StandardCharsets.UTF_8)));
+        return nonZero(digest.getLong(), digest.getLong());
+    }
+
+    /**
+     * The token ID this key was read from, assuming it was a UUID string as issued by
+     * {@link JtiGenerator}; a digest key yields an unrelated UUID
+     */
+    String toTokenId() {
+        return new UUID(high, low).toString();
+    }
+
+    private static JtiKey nonZero(long high, long low) {
+        return high == 0 && low == 0 ? new JtiKey(0, 1) : new JtiKey(high, low);
+    }
+
+    private static boolean isDashed(String s) {
+        return s.charAt(8) == '-' && s.charAt(13) == '-' && s.charAt(18) == '-' && s.charAt(23) == '-';
+    }
+
+    /**
+     * Parse up to 15 hex digits
+     * @return the value, or -1 if a character is not a hex digit
+     */
+    private static long parseHex(String s, int from, int to) {
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            int digit;
+            if (c >= '0' && c <= '9') {
+                digit = c - '0';
+            } else if (c >= 'a' && c <= 'f') {
+                digit = c - 'a' + 10;
+            } else if (c >= 'A' && c <= 'F') {
+                digit = c - 'A' + 10;
+            } else {
+                return -1;
+            }
+            value = value << 4 | digit;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,47 @@
+package com.catface996.auth.infrastructure.security.jwt;
+
+/**
+ * JWS signature algorithms supported for issued tokens
+ */
+enum JwsAlgorithm {
+
+    HS256("HmacSHA256", true),
+    HS384("HmacSHA384", true),
+    HS512("HmacSHA512", true),
+    RS256("SHA256withRSA", false),
+    EdDSA("Ed25519", false);
+
+    private final String jcaName;
+    private final boolean mac;
+
+    JwsAlgorithm(String jcaName, boolean mac) {
+        this.jcaName = jcaName;
+        this.mac = mac;
+    }
+
+    /**
+     * JCA algorithm name passed to {@code Mac.getInstance} or {@code Signature.getInstance}
+     */
+    String jcaName() {
+        return jcaName;
+    }
+
+    /**
+     * Whether this is a symmetric MAC algorithm whose key must never be published
+     */
+    boolean isMac() {
+        return mac;
+    }
+
+    /**
+     * Resolve the HMAC algorithm matching a JCA secret key algorithm name
+     */
+    static JwsAlgorithm forMacKey(String jcaAlgorithm) {
+        for (JwsAlgorithm algorithm : values()) {
+            if (algorithm.mac && algorithm.jcaName.equals(jcaAlgorithm)) {
+                return algorithm;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported HMAC algorithm: " + jcaAlgorithm);
+    }
+}
@@ -0,0 +1,166 @@
+package com.catface996.auth.infrastructure.security.jwt;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+
+/**
+ * Issuance engine for tokens signed with one {@link SigningKey}.
+ * <p>
+ * The header segment and the issuer fragment of the payload are computed once; each
+ * thread owns its JSON builder and output buffers, and the key its per-thread MAC or
+ * signature engine, so signing a token costs one payload serialisation, one base64url
+ * pass and one signature with no shared state. The output has exactly the shape
+ * {@link JwsTokenVerifier} reads on its fast path.
+ */
+final class JwsTokenSigner {
+
+    private static final byte[] BASE64_URL =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".getBytes(StandardCharsets.US_ASCII);
+
+    private final SigningKey signingKey;
+    private final byte[] headerPrefix;
+    private final String issuerFragment;
+    private final ThreadLocal<Buffers> buffers;
+
+    JwsTokenSigner(SigningKey signingKey, String issuer) {
+        if (!signingKey.canSign()) {
+            throw new IllegalArgumentException("Key " + signingKey.keyId() + " cannot sign");
+        }
+        this.signingKey = signingKey;
+        this.headerPrefix = (signingKey.headerSegment() + ".").getBytes(StandardCharsets.US_ASCII);
+        StringBuilder fragment = new StringBuilder("\",\"iss\":\"");
+        appendEscaped(fragment, issuer);
+        this.issuerFragment = fragment.append("\",\"sub\":\"").toString();
+        this.buffers = ThreadLocal.withInitial(() -> new Buffers(signingKey.signatureLength()));
+    }
+
+    /**
+     * Key ID stamped into every token this signer issues
+     */
+    String keyId() {
+        return signingKey.keyId();
+    }
+
+    /**
+     * Build and sign a token
+     * @param tokenId token ID (jti)
+     * @param issuedAt issue time in epoch seconds
+     * @param expiresAt expiration time in epoch seconds
+     * @return compact JWS string
+     */
+    String sign(String tokenId, Long userId, String username, Collection<String> roles,
+                boolean rememberMe, long issuedAt, long expiresAt) {
+        Buffers buf = buffers.get();
+
+        StringBuilder json = buf.json;
+        json.setLength(0);
+        json.append("{\"jti\":\"");
+        appendEscaped(json, tokenId);
+        json.append(issuerFragment);
+        appendEscaped(json, username);
+        json.append("\",\"iat\":").append(issuedAt)
+            .append(",\"exp\":").append(expiresAt);
+        if (userId != null) {
+            json.append(",\"").append(JwtTokenProvider.CLAIM_USER_ID).append("\":").append(userId.longValue());
+        }
+        json.append(",\"").append(JwtTokenProvider.CLAIM_USERNAME).append("\":\"");
+        appendEscaped(json, username);
+        json.append('"');
+        if (roles != null) {
+            json.append(",\"").append(JwtTokenProvider.CLAIM_ROLES).append("\":[");
+            boolean first = true;
+            for (String role : roles) {
+                if (!first) {
+                    json.append(',');
+                }
+                json.append('"');
+                appendEscaped(json, role);
+                json.append('"');
+                first = false;
+            }
+            json.append(']');
+        }
+        json.append(",\"").append(JwtTokenProvider.CLAIM_REMEMBER_ME).append("\":").append(rememberMe).append('}');
+
+        byte[] payload = json.toString().getBytes(StandardCharsets.UTF_8);
+        buf.ensureCapacity(headerPrefix.length + encodedLength(payload.length) + 1
+                + encodedLength(buf.signature.length));
+
+        byte[] out = buf.output;
+        System.arraycopy(headerPrefix, 0, out, 0, headerPrefix.length);
+        int length = encode(payload, payload.length, out, headerPrefix.length);
+
+        int signatureLength = signingKey.sign(out, length, buf.signature, 0);
+        out[length++] = '.';
+        length = encode(buf.signature, signatureLength, out, length);
+
+        return new String(out, 0, length, StandardCharsets.ISO_8859_1);
+    }
+
+    private static int encodedLength(int length) {
+        return (length * 4 + 2) / 3;
+    }
+
+    /**
+     * Encode bytes as unpadded base64url
+     * @return offset just past the last written byte
+     */
+    private static int encode(byte[] src, int length, byte[] dst, int offset) {
+        int i = 0;
+        for (; i + 3 <= length; i += 3) {
+            int bits = (src[i] & 0xFF) << 16 | (src[i + 1] & 0xFF) << 8 | (src[i + 2] & 0xFF);
+            dst[offset++] = BASE64_URL[bits >>> 18];
+            dst[offset++] = BASE64_URL[(bits >>> 12) & 0x3F];
+            dst[offset++] = BASE64_URL[(bits >>> 6) & 0x3F];
+            dst[offset++] = BASE64_URL[bits & 0x3F];
+        }
+        int remaining = length - i;
+        if (remaining == 1) {
+            int bits = (src[i] & 0xFF) << 16;
+            dst[offset++] = BASE64_URL[bits >>> 18];
+            dst[offset++] = BASE64_URL[(bits >>> 12) & 0x3F];
+        } else if (remaining == 2) {
+            int bits = (src[i] & 0xFF) << 16 | (src[i + 1] & 0xFF) << 8;
+            dst[offset++] = BASE64_URL[bits >>> 18];
+            dst[offset++] = BASE64_URL[(bits >>> 12) & 0x3F];
+            dst[offset++] = BASE64_URL[(bits >>> 6) & 0x3F];
+        }
+        return offset;
+    }
+
+    private static void appendEscaped(StringBuilder sb, String value) {
+        if (value == null) {
+            return;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < 0x20) {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+    }
+
+    /**
+     * Per-thread scratch buffers, grown on demand and reused across tokens
+     */
+    private static final class Buffers {
+
+        final byte[] signature;
+        final StringBuilder json = new StringBuilder(384);
+        byte[] output = new byte[1024];
+
+        Buffers(int signatureLength) {
+            this.signature = new byte[signatureLength];
+        }
+
+        void ensureCapacity(int length) {
+            if (output.length < length) {
+                output = new byte[length];
+            }
+        }
+    }
+}
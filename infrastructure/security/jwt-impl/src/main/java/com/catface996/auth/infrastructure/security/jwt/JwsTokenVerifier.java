@@ -0,0 +1,434 @@
+package com.catface996.auth.infrastructure.security.jwt;
+
+import com.catface996.auth.common.result.ErrorCode;
+import com.catface996.auth.domain.model.session.TokenClaims;
+import com.catface996.auth.domain.model.session.TokenVerification;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Allocation-light verifier for the tokens this service issues.
+ * <p>
+ * Resolves the signing key from the exact header segment, decodes base64url into
+ * per-thread buffers, checks the signature with the key's per-thread engine and reads
+ * only the fixed claim set written by {@link JwsTokenSigner}. Anything outside that shape
+ * (unknown headers, escaped strings, nested objects, {@code nbf}) yields {@code null} so
+ * the caller can fall back to the general jjwt parser.
+ */
+final class JwsTokenVerifier {
+
+    private static final int MAX_TOKEN_LENGTH = 8192;
+    private static final int[] BASE64_URL = new int[128];
+
+    static {
+        Arrays.fill(BASE64_URL, -1);
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+        for (int i = 0; i < alphabet.length(); i++) {
+            BASE64_URL[alphabet.charAt(i)] = i;
+        }
+    }
+
+    private final HeaderIndex headerIndex;
+    private final ZoneId zoneId = ZoneId.systemDefault();
+    private final ThreadLocal<Buffers> buffers;
+
+    /**
+     * @param keys keys whose tokens are accepted, each matched by its {@code kid} header
+     * @param legacyKey HMAC key that also accepts tokens issued without a {@code kid}, or null
+     */
+    JwsTokenVerifier(Collection<SigningKey> keys, SigningKey legacyKey) {
+        Map<String, SigningKey> byHeader = new LinkedHashMap<>();
+        int maxSignatureLength = 0;
+        for (SigningKey key : keys) {
+            byHeader.put(key.headerSegment(), key);
+            maxSignatureLength = Math.max(maxSignatureLength, key.signatureLength());
+        }
+        if (legacyKey != null) {
+            byHeader.put(legacyKey.legacyHeaderSegment(), legacyKey);
+            maxSignatureLength = Math.max(maxSignatureLength, legacyKey.signatureLength());
+        }
+        this.headerIndex = new HeaderIndex(byHeader);
+        int signatureCapacity = maxSignatureLength + 3;
+        this.buffers = ThreadLocal.withInitial(() -> new Buffers(signatureCapacity));
+    }
+
+    /**
+     * Verify a token on the fast path
+     * @param token raw token string
+     * @return verification result, or null if the token must be handled by the general parser
+     */
+    TokenVerification verify(String token) {
+        int length = token.length();
+        int headerEnd = token.indexOf('.');
+        if (length > MAX_TOKEN_LENGTH || headerEnd <= 0) {
+            return null;
+        }
+        SigningKey key = headerIndex.find(token, headerEnd);
+        if (key == null) {
+            return null;
+        }
+        int payloadEnd = token.indexOf('.', headerEnd + 1);
+        if (payloadEnd < 0 || token.indexOf('.', payloadEnd + 1) >= 0) {
+            return null;
+        }
+
+        Buffers buf = buffers.get();
+        buf.ensureCapacity(length);
+
+        // Signing input is the ASCII bytes of "header.payload"
+        for (int i = 0; i < payloadEnd; i++) {
+            char c = token.charAt(i);
+            if (c >= 128) {
+                return null;
+            }
+            buf.input[i] = (byte) c;
+        }
+        int signatureLength = decode(token, payloadEnd + 1, length, buf.signature);
+        if (signatureLength < 0 || !key.verify(buf.input, payloadEnd, buf.signature, signatureLength)) {
+            return TokenVerification.failure(ErrorCode.TOKEN_INVALID);
+        }
+
+        int payloadLength = decode(token, headerEnd + 1, payloadEnd, buf.payload);
+        if (payloadLength < 0) {
+            return null;
+        }
+        ClaimsReader reader = new ClaimsReader(buf, payloadLength);
+        if (!reader.read()) {
+            return null;
+        }
+        if (reader.exp == null) {
+            return null;
+        }
+        if (System.currentTimeMillis() > reader.exp * 1000L) {
+            return TokenVerification.failure(ErrorCode.TOKEN_EXPIRED);
+        }
+
+        return TokenVerification.success(new TokenClaims(
+                reader.userId,
+                reader.username,
+                reader.roles(),
+                reader.iat != null ? LocalDateTime.ofInstant(Instant.ofEpochSecond(reader.iat), zoneId) : null,
+                LocalDateTime.ofInstant(Instant.ofEpochSecond(reader.exp), zoneId),
+                reader.rememberMe,
+                reader.jti
+        ));
+    }
+
+    /**
+     * Decode unpadded base64url from a region of a string
+     * @return number of bytes written, or -1 if the input is not valid base64url
+     */
+    private static int decode(String src, int from, int to, byte[] dst) {
+        if ((to - from) % 4 == 1 || (to - from) * 3 / 4 > dst.length) {
+            return -1;
+        }
+        int out = 0;
+        int acc = 0;
+        int bits = 0;
+        for (int i = from; i < to; i++) {
+            char c = src.charAt(i);
+            int value = c < 128 ? BASE64_URL[c] : -1;
+            if (value < 0) {
+                return -1;
+            }
+            acc = (acc << 6) | value;
+            bits += 6;
+            if (bits >= 8) {
+                bits -= 8;
+                dst[out++] = (byte) (acc >> bits);
+                acc &= (1 << bits) - 1;
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Open-addressing table from header segment to key, probed directly against the
+     * token's characters so that resolving the key costs one hash and no substring
+     */
+    private static final class HeaderIndex {
+
+        private final String[] headers;
+        private final SigningKey[] keys;
+        private final int mask;
+
+        HeaderIndex(Map<String, SigningKey> byHeader) {
+            int capacity = Integer.highestOneBit(Math.max(1, byHeader.size()) * 4 - 1) << 1;
+            this.headers = new String[capacity];
+            this.keys = new SigningKey[capacity];
+            this.mask = capacity - 1;
+            byHeader.forEach((header, key) -> {
+                int slot = header.hashCode() & mask;
+                while (headers[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                headers[slot] = header;
+                keys[slot] = key;
+            });
+        }
+
+        SigningKey find(String token, int headerEnd) {
+            // Same polynomial as String.hashCode, over the header region of the token
+            int hash = 0;
+            for (int i = 0; i < headerEnd; i++) {
+                hash = 31 * hash + token.charAt(i);
+            }
+            for (int slot = hash & mask; headers[slot] != null; slot = (slot + 1) & mask) {
+                String header = headers[slot];
+                if (header.length() == headerEnd && token.startsWith(header)) {
+                    return keys[slot];
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Per-thread scratch buffers, grown on demand and reused across tokens
+     */
+    private static final class Buffers {
+
+        byte[] input = new byte[1024];
+        byte[] payload = new byte[768];
+        final byte[] signature;
+        String[] roles = new String[4];
+
+        Buffers(int signatureCapacity) {
+            this.signature = new byte[signatureCapacity];
+        }
+
+        void ensureCapacity(int tokenLength) {
+            if (input.length < tokenLength) {
+                input = new byte[tokenLength];
+                payload = new byte[tokenLength];
+            }
+        }
+    }
+
+    /**
+     * Minimal reader for the flat claims object this service writes
+     */
+    private static final class ClaimsReader {
+
+        private final Buffers buf;
+        private final byte[] json;
+        private final int end;
+        private int pos;
+
+        String jti;
+        String username;
+        Long userId;
+        Long iat;
+        Long exp;
+        boolean rememberMe;
+        int roleCount;
+
+        ClaimsReader(Buffers buf, int end) {
+            this.buf = buf;
+            this.json = buf.payload;
+            this.end = end;
+        }
+
+        /**
+         * @return false if the payload is outside the supported shape
+         */
+        boolean read() {
+            if (!consume('{')) {
+                return false;
+            }
+            skipWhitespace();
+            if (consume('}')) {
+                return true;
+            }
+            do {
+                skipWhitespace();
+                int keyStart = pos + 1;
+                if (!skipString()) {
+                    return false;
+                }
+                int keyEnd = pos - 1;
+                skipWhitespace();
+                if (!consume(':')) {
+                    return false;
+                }
+                skipWhitespace();
+                if (!readValue(keyStart, keyEnd)) {
+                    return false;
+                }
+                skipWhitespace();
+            } while (consume(','));
+            return consume('}') && pos == end;
+        }
+
+        Set<String> roles() {
+            return switch (roleCount) {
+                case 0 -> Set.of();
+                case 1 -> Set.of(buf.roles[0]);
+                default -> Set.copyOf(Arrays.asList(buf.roles).subList(0, roleCount));
+            };
+        }
+
+        private boolean readValue(int keyStart, int keyEnd) {
+            if (keyIs(keyStart, keyEnd, "jti")) {
+                return (jti = readString()) != null;
+            } else if (keyIs(keyStart, keyEnd, "username")) {
+                return (username = readString()) != null;
+            } else if (keyIs(keyStart, keyEnd, "userId")) {
+                return (userId = readLong()) != null;
+            } else if (keyIs(keyStart, keyEnd, "exp")) {
+                return (exp = readLong()) != null;
+            } else if (keyIs(keyStart, keyEnd, "iat")) {
+                return (iat = readLong()) != null;
+            } else if (keyIs(keyStart, keyEnd, "rememberMe")) {
+                return readBoolean();
+            } else if (keyIs(keyStart, keyEnd, "roles")) {
+                return readRoles();
+            } else if (keyIs(keyStart, keyEnd, "nbf")) {
+                // Not-before is never issued here; let jjwt enforce it
+                return false;
+            }
+            return skipScalar();
+        }
+
+        private boolean keyIs(int start, int keyEnd, String name) {
+            if (keyEnd - start != name.length()) {
+                return false;
+            }
+            for (int i = 0; i < name.length(); i++) {
+                if (json[start + i] != name.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private String readString() {
+            int start = pos + 1;
+            if (!skipString()) {
+                return null;
+            }
+            return new String(json, start, pos - 1 - start, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Skip a string without escapes, leaving pos after the closing quote
+         */
+        private boolean skipString() {
+            if (!consume('"')) {
+                return false;
+            }
+            while (pos < end) {
+                byte b = json[pos++];
+                if (b == '"') {
+                    return true;
+                }
+                if (b == '\\') {
+                    return false;
+                }
+            }
+            return false;
+        }
+
+        private Long readLong() {
+            int start = pos;
+            boolean negative = consume('-');
+            long value = 0;
+            int digits = 0;
+            while (pos < end && json[pos] >= '0' && json[pos] <= '9') {
+                if (++digits > 18) {
+                    return null;
+                }
+                value = value * 10 + (json[pos++] - '0');
+            }
+            if (digits == 0 || (pos < end && (json[pos] == '.' || json[pos] == 'e' || json[pos] == 'E'))) {
+                pos = start;
+                return null;
+            }
+            return negative ? -value : value;
+        }
+
+        private boolean readBoolean() {
+            if (consumeLiteral("true")) {
+                rememberMe = true;
+                return true;
+            }
+            if (consumeLiteral("false") || consumeLiteral("null")) {
+                rememberMe = false;
+                return true;
+            }
+            return false;
+        }
+
+        private boolean readRoles() {
+            roleCount = 0;
+            if (consumeLiteral("null")) {
+                return true;
+            }
+            if (!consume('[')) {
+                return false;
+            }
+            skipWhitespace();
+            if (consume(']')) {
+                return true;
+            }
+            do {
+                skipWhitespace();
+                String role = readString();
+                if (role == null) {
+                    return false;
+                }
+                if (roleCount == buf.roles.length) {
+                    buf.roles = Arrays.copyOf(buf.roles, roleCount * 2);
+                }
+                buf.roles[roleCount++] = role;
+                skipWhitespace();
+            } while (consume(','));
+            return consume(']');
+        }
+
+        private boolean skipScalar() {
+            if (pos < end && json[pos] == '"') {
+                return skipString();
+            }
+            if (consumeLiteral("true") || consumeLiteral("false") || consumeLiteral("null")) {
+                return true;
+            }
+            return readLong() != null;
+        }
+
+        private boolean consumeLiteral(String literal) {
+            if (end - pos < literal.length()) {
+                return false;
+            }
+            for (int i = 0; i < literal.length(); i++) {
+                if (json[pos + i] != literal.charAt(i)) {
+                    return false;
+                }
+            }
+            pos += literal.length();
+            return true;
+        }
+
+        private boolean consume(char c) {
+            if (pos < end && json[pos] == c) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        private void skipWhitespace() {
+            while (pos < end && (json[pos] == ' ' || json[pos] == '\t' || json[pos] == '\n' || json[pos] == '\r')) {
+                pos++;
+            }
+        }
+    }
+}
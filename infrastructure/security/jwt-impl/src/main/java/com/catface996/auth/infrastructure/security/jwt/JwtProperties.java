@@ -13,9 +13,15 @@ import org.springframework.stereotype.Component;
 public class JwtProperties {
 
     /**
-     * Secret key for signing JWT tokens (min 256 bits for HS256)
+     * Placeholder secret shipped in earlier configurations; refused at startup
      */
-    private String secret = "your-256-bit-secret-key-for-jwt-signing-please-change-in-production";
+    public static final String SHIPPED_DEFAULT_SECRET = "your-256-bit-secret-key-for-jwt-signing-please-change-in-production";
+
+    /**
+     * Secret key for signing JWT tokens (min 256 bits for HS256); required with the HMAC
+     * algorithm or when legacy tokens are accepted
+     */
+    private String secret;
 
     /**
      * Token expiration time in seconds (default: 1 hour)
@@ -31,4 +37,74 @@ public class JwtProperties {
      * Token issuer
      */
     private String issuer = "op-stack-auth";
+
+    /**
+     * Verified-token cache settings
+     */
+    private Cache cache = new Cache();
+
+    /**
+     * Token signing key settings
+     */
+    private Signing signing = new Signing();
+
+    @Data
+    public static class Cache {
+
+        /**
+         * Whether verified tokens are cached to skip signature checks on repeat requests
+         */
+        private boolean enabled = true;
+
+        /**
+         * Maximum number of cached tokens before size-based eviction kicks in
+         */
+        private long maximumSize = 100000;
+    }
+
+    @Data
+    public static class Signing {
+
+        /**
+         * Signing algorithm: HMAC (derived from {@code secret}), RS256 or EdDSA
+         */
+        private String algorithm = "HMAC";
+
+        /**
+         * Key ID written to the {@code kid} header; derived from the key material when unset
+         */
+        private String keyId;
+
+        /**
+         * Path to the PKCS#8 PEM private key; required for RS256 and EdDSA
+         */
+        private String privateKeyLocation;
+
+        /**
+         * Path to the X.509 PEM public key; derived from the private key for RSA when unset
+         */
+        private String publicKeyLocation;
+
+        /**
+         * Path to a key ring properties file; when set it replaces the single key above and is reloaded on change
+         */
+        private String keyRingLocation;
+
+        /**
+         * Whether tokens without a {@code kid}, signed with {@code secret} before key IDs
+         * existed, keep verifying after moving to an asymmetric algorithm or a key ring.
+         * They are accepted for the longest token lifetime after startup, then refused
+         */
+        private boolean acceptLegacyTokens = false;
+
+        /**
+         * Interval in milliseconds between checks of the key ring file for changes
+         */
+        private long keyRingRefreshIntervalMs = 10000;
+
+        /**
+         * Cache-Control max-age of the JWKS document in seconds
+         */
+        private long jwksMaxAgeSeconds = 300;
+    }
 }
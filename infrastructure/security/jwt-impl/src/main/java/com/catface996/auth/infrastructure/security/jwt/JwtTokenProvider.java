@@ -1,119 +1,135 @@
 package com.catface996.auth.infrastructure.security.jwt;
 
-import com.catface996.auth.common.exception.AuthException;
+import com.catface996.auth.common.result.ErrorCode;
 import com.catface996.auth.domain.model.session.TokenClaims;
+import com.catface996.auth.domain.model.session.TokenVerification;
 import com.catface996.auth.domain.model.user.User;
 import com.catface996.auth.domain.security.TokenProvider;
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.security.SecurityException;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
-import javax.crypto.SecretKey;
-import java.nio.charset.StandardCharsets;
+import java.security.Key;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.*;
 
 /**
- * JWT implementation of TokenProvider
+ * JWT implementation of TokenProvider, the default {@code auth.token.mode}
  */
 @Slf4j
 @Component
 @RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "auth.token", name = "mode", havingValue = "jwt", matchIfMissing = true)
 public class JwtTokenProvider implements TokenProvider {
 
-    private static final String CLAIM_USER_ID = "userId";
-    private static final String CLAIM_USERNAME = "username";
-    private static final String CLAIM_ROLES = "roles";
-    private static final String CLAIM_REMEMBER_ME = "rememberMe";
+    static final String CLAIM_USER_ID = "userId";
+    static final String CLAIM_USERNAME = "username";
+    static final String CLAIM_ROLES = "roles";
+    static final String CLAIM_REMEMBER_ME = "rememberMe";
 
     private final JwtProperties jwtProperties;
-    private SecretKey secretKey;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final SigningKeyRing signingKeyRing;
+    private JwtParser jwtParser;
 
     @PostConstruct
     public void init() {
-        byte[] keyBytes = jwtProperties.getSecret().getBytes(StandardCharsets.UTF_8);
-        this.secretKey = Keys.hmacShaKeyFor(keyBytes);
+        // JwtParser is immutable and thread-safe, so build it once instead of per call;
+        // keys are resolved per token from the current key ring
+        this.jwtParser = Jwts.parser()
+                .keyLocator(this::locateKey)
+                .build();
     }
 
     @Override
     public String generateToken(User user, boolean rememberMe) {
-        Instant now = Instant.now();
-        long expirationSeconds = getExpirationSeconds(rememberMe);
-        Instant expiration = now.plusSeconds(expirationSeconds);
-        String tokenId = UUID.randomUUID().toString();
-
-        return Jwts.builder()
-                .id(tokenId)
-                .issuer(jwtProperties.getIssuer())
-                .subject(user.getUsername())
-                .issuedAt(Date.from(now))
-                .expiration(Date.from(expiration))
-                .claim(CLAIM_USER_ID, user.getId())
-                .claim(CLAIM_USERNAME, user.getUsername())
-                .claim(CLAIM_ROLES, user.getRoles())
-                .claim(CLAIM_REMEMBER_ME, rememberMe)
-                .signWith(secretKey)
-                .compact();
+        long issuedAt = Instant.now().getEpochSecond();
+        long expiresAt = issuedAt + getExpirationSeconds(rememberMe);
+
+        return signingKeyRing.current().signer().sign(
+                JtiGenerator.next(),
+                user.getId(),
+                user.getUsername(),
+                user.getRoles(),
+                rememberMe,
+                issuedAt,
+                expiresAt
+        );
     }
 
     @Override
-    public TokenClaims parseToken(String token) {
-        try {
-            Claims claims = Jwts.parser()
-                    .verifyWith(secretKey)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
+    public TokenVerification verify(String token) {
+        if (token == null || token.isBlank()) {
+            return TokenVerification.failure(ErrorCode.TOKEN_INVALID);
+        }
+        return verifiedTokenCache.verify(token, this::verifySignature);
+    }
 
-            return toTokenClaims(claims);
+    private TokenVerification verifySignature(String token) {
+        // Tokens in the exact shape we issue take the allocation-light path
+        TokenVerification verification = signingKeyRing.current().verifier().verify(token);
+        if (verification != null) {
+            return verification;
+        }
+        try {
+            Claims claims = jwtParser.parseSignedClaims(token).getPayload();
+            return TokenVerification.success(toTokenClaims(claims));
         } catch (ExpiredJwtException e) {
             log.debug("Token expired: {}", e.getMessage());
-            throw AuthException.tokenExpired();
+            return TokenVerification.failure(ErrorCode.TOKEN_EXPIRED);
         } catch (SecurityException | MalformedJwtException e) {
             log.debug("Invalid token signature: {}", e.getMessage());
-            throw AuthException.invalidToken();
-        } catch (UnsupportedJwtException e) {
-            log.debug("Unsupported token: {}", e.getMessage());
-            throw AuthException.invalidToken();
-        } catch (IllegalArgumentException e) {
-            log.debug("Token claims string is empty: {}", e.getMessage());
-            throw AuthException.invalidToken();
+            return TokenVerification.failure(ErrorCode.TOKEN_INVALID);
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Token validation failed: {}", e.getMessage());
+            return TokenVerification.failure(ErrorCode.TOKEN_INVALID);
         }
     }
 
+    /**
+     * Resolve the verification key for jjwt by {@code kid}; tokens without one predate key IDs
+     */
+    private Key locateKey(Header header) {
+        String keyId = header instanceof ProtectedHeader protectedHeader ? protectedHeader.getKeyId() : null;
+        SigningKey key = signingKeyRing.current().find(keyId);
+        return key != null ? key.verificationKey() : null;
+    }
+
     @Override
-    public boolean validateToken(String token) {
-        try {
-            Jwts.parser()
-                    .verifyWith(secretKey)
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
-        } catch (JwtException | IllegalArgumentException e) {
-            log.debug("Token validation failed: {}", e.getMessage());
-            return false;
+    public List<Map<String, Object>> getPublicJwks() {
+        List<Map<String, Object>> jwks = new ArrayList<>();
+        for (SigningKey key : signingKeyRing.current().keys()) {
+            Map<String, Object> jwk = key.toPublicJwk();
+            if (jwk != null) {
+                jwks.add(jwk);
+            }
         }
+        return jwks;
     }
 
     @Override
-    public String getTokenId(String token) {
-        try {
-            Claims claims = Jwts.parser()
-                    .verifyWith(secretKey)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-            return claims.getId();
-        } catch (JwtException | IllegalArgumentException e) {
-            log.debug("Failed to extract token ID: {}", e.getMessage());
-            throw AuthException.invalidToken();
+    public TokenClaims parseToken(String token) {
+        TokenVerification verification = verify(token);
+        if (!verification.valid()) {
+            throw verification.toException();
         }
+        return verification.claims();
+    }
+
+    @Override
+    public boolean validateToken(String token) {
+        return verify(token).valid();
+    }
+
+    @Override
+    public String getTokenId(String token) {
+        return parseToken(token).tokenId();
     }
 
     @Override
@@ -129,7 +145,7 @@ public class JwtTokenProvider implements TokenProvider {
 
         @SuppressWarnings("unchecked")
         List<String> rolesList = claims.get(CLAIM_ROLES, List.class);
-        Set<String> roles = rolesList != null ? new HashSet<>(rolesList) : Set.of();
+        Set<String> roles = rolesList != null ? Set.copyOf(rolesList) : Set.of();
 
         LocalDateTime issuedAt = claims.getIssuedAt() != null
                 ? LocalDateTime.ofInstant(claims.getIssuedAt().toInstant(), ZoneId.systemDefault())
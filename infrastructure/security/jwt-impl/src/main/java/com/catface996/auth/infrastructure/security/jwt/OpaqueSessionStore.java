@@ -0,0 +1,195 @@
+package com.catface996.auth.infrastructure.security.jwt;
+
+import com.catface996.auth.domain.model.session.TokenClaims;
+import com.catface996.auth.domain.model.session.TokenVerification;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.function.Consumer;
+
+/**
+ * In-memory store of opaque-token sessions.
+ * <p>
+ * Sessions live in a {@link SessionTable} keyed by the token's selector and are indexed
+ * in {@link ExpiryBuckets}, so expired sessions are dropped a minute at a time. With
+ * {@code auth.token.opaque.persistent.enabled} every login and logout is also recorded
+ * in a {@link GroupCommitLog}, whose snapshots are the live sessions in the same record
+ * format. The table is always updated before the log, so a change racing a compaction
+ * lands either in the snapshot or in the new generation.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "auth.token", name = "mode", havingValue = "opaque")
+public class OpaqueSessionStore {
+
+    static final String SESSIONS = "auth.token.sessions";
+
+    private static final int JOURNAL_BATCH_BYTES = 1 << 20;
+
+    private final SessionTable<Session> table;
+    private final ExpiryBuckets expiryBuckets = new ExpiryBuckets();
+    private final OpaqueTokenProperties.Persistent config;
+    private final GroupCommitLog<SessionJournalCodec.Change> journal;
+
+    public OpaqueSessionStore(OpaqueTokenProperties properties, MeterRegistry meterRegistry) {
+        this.table = new SessionTable<>(properties.getStripes(), properties.getInitialCapacity());
+        this.config = properties.getPersistent();
+        this.journal = config.isEnabled()
+                ? new GroupCommitLog<>("sessions", Path.of(config.getDirectory()).toAbsolutePath(),
+                        new SessionJournalCodec(), JOURNAL_BATCH_BYTES, config.isWaitForSync(), meterRegistry)
+                : null;
+        Gauge.builder(SESSIONS, table, SessionTable::size)
+                .description("Opaque-token sessions held in memory, including expired ones awaiting eviction")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void recover() throws IOException {
+        if (journal == null) {
+            return;
+        }
+        long now = Instant.now().getEpochSecond();
+        Consumer<SessionJournalCodec.Change> restore = change -> {
+            if (change.type() == SessionJournalCodec.REMOVE) {
+                table.remove(change.high(), change.low());
+                return;
+            }
+            long expiresAt = change.claims().expiresAt().atZone(ZoneId.systemDefault()).toEpochSecond();
+            if (expiresAt > now) {
+                index(change.high(), change.low(), change.digestHigh(), change.digestLow(), expiresAt,
+                        change.claims());
+            }
+        };
+        journal.open(new GroupCommitLog.Recovery<>() {
+            @Override
+            public long loadSnapshot(Path file) throws IOException {
+                journal.replay(file, restore);
+                return table.size();
+            }
+
+            @Override
+            public void apply(SessionJournalCodec.Change change) {
+                restore.accept(change);
+            }
+        });
+    }
+
+    /**
+     * Store a new session under the digest of its validator; the validator itself is never kept
+     * @param expiresAt expiry in epoch seconds, matching {@code claims.expiresAt()}
+     */
+    void put(long high, long low, long digestHigh, long digestLow, long expiresAt, TokenClaims claims) {
+        index(high, low, digestHigh, digestLow, expiresAt, claims);
+        if (journal != null) {
+            try {
+                journal.append(SessionJournalCodec.put(high, low, digestHigh, digestLow, claims));
+            } catch (IOException e) {
+                table.remove(high, low);
+                throw new UncheckedIOException("Failed to persist opaque-token session", e);
+            }
+        }
+    }
+
+    /**
+     * Look a session up by selector and validator digest
+     * @return the session, expired or not, or null if there is no such session
+     */
+    Session find(long high, long low, long digestHigh, long digestLow) {
+        return table.find(high, low, digestHigh, digestLow);
+    }
+
+    /**
+     * Delete a session
+     * @return true if it was present
+     */
+    boolean remove(long high, long low) {
+        boolean removed = table.remove(high, low);
+        if (removed && journal != null) {
+            try {
+                journal.append(SessionJournalCodec.remove(high, low));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to persist opaque-token session removal", e);
+            }
+        }
+        return removed;
+    }
+
+    private void index(long high, long low, long digestHigh, long digestLow, long expiresAt, TokenClaims claims) {
+        table.put(high, low, digestHigh, digestLow, expiresAt,
+                new Session(TokenVerification.success(claims), expiresAt));
+        // A session whose minute was already drained is dead on arrival; eviction skips it
+        if (!expiryBuckets.add(high, low, expiresAt)) {
+            table.removeIfExpiredBy(high, low, expiresAt);
+        }
+    }
+
+    /**
+     * Drop expired sessions every minute, one expiry bucket at a time. Evictions are not
+     * journaled: recovery skips sessions that have expired.
+     */
+    @Scheduled(fixedRate = 60000)
+    public void evictExpiredSessions() {
+        int[] removed = new int[1];
+        expiryBuckets.drainExpired(Instant.now().getEpochSecond(), (high, low, bucketEnd) -> {
+            if (table.removeIfExpiredBy(high, low, bucketEnd)) {
+                removed[0]++;
+            }
+        });
+        if (removed[0] > 0) {
+            log.debug("Evicted {} expired opaque-token sessions", removed[0]);
+        }
+    }
+
+    /**
+     * Compact the journal into a snapshot once the current generation is large enough
+     */
+    @Scheduled(fixedDelayString = "${auth.token.opaque.persistent.compaction-check-interval-ms:60000}")
+    public void compactIfNeeded() {
+        if (journal == null) {
+            return;
+        }
+        try {
+            if (journal.currentSize() >= config.getCompactionThresholdBytes()) {
+                compact();
+            }
+        } catch (IOException e) {
+            log.error("Opaque-token session compaction failed; the journal keeps growing until it succeeds", e);
+        }
+    }
+
+    void compact() throws IOException {
+        long now = Instant.now().getEpochSecond();
+        journal.compact((out, generation) -> journal.writeRecords(out, sink ->
+                table.forEach((high, low, digestHigh, digestLow, expiresAt, session) -> {
+                    if (expiresAt > now) {
+                        sink.accept(SessionJournalCodec.put(high, low, digestHigh, digestLow,
+                                session.verification().claims()));
+                    }
+                })));
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    /**
+     * A stored session: the verification handed out on every lookup, built once at login,
+     * and its expiry in epoch seconds
+     */
+    record Session(TokenVerification verification, long expiresAt) {
+    }
+}
@@ -0,0 +1,60 @@
+package com.catface996.auth.infrastructure.security.jwt;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Opaque token mode configuration properties, used when {@code auth.token.mode=opaque};
+ * token lifetimes still come from {@code auth.jwt}
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "auth.token.opaque")
+public class OpaqueTokenProperties {
+
+    /**
+     * Number of independently locked session table stripes (rounded up to a power of two)
+     */
+    private int stripes = 64;
+
+    /**
+     * Initial number of session slots across all stripes; stripes double on demand
+     */
+    private int initialCapacity = 65536;
+
+    /**
+     * Session persistence settings
+     */
+    private Persistent persistent = new Persistent();
+
+    @Data
+    public static class Persistent {
+
+        /**
+         * Whether sessions are journaled to disk and survive a restart
+         */
+        private boolean enabled = false;
+
+        /**
+         * Directory holding the session journal and snapshot files
+         */
+        private String directory = "data/sessions";
+
+        /**
+         * Whether a login or logout waits for its journal batch to be fsynced before
+         * returning; when false, a crash can lose the last unsynced batch
+         */
+        private boolean waitForSync = true;
+
+        /**
+         * Journal generation size in bytes that triggers compaction into a snapshot
+         */
+        private long compactionThresholdBytes = 64L * 1024 * 1024;
+
+        /**
+         * Interval in milliseconds between compaction checks
+         */
+        private long compactionCheckIntervalMs = 60000;
+    }
+}
@@ -0,0 +1,184 @@
+package com.catface996.auth.infrastructure.security.jwt;
+
+import com.catface996.auth.common.result.ErrorCode;
+import com.catface996.auth.domain.model.session.TokenClaims;
+import com.catface996.auth.domain.model.session.TokenVerification;
+import com.catface996.auth.domain.model.user.User;
+import com.catface996.auth.domain.security.TokenProvider;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Opaque reference-token implementation of TokenProvider.
+ * <p>
+ * A token is 32 random bytes in unpadded base64url (43 characters): a 128-bit selector,
+ * which is also the token ID, and a 128-bit validator drawn from {@link SecureRandom}.
+ * The claims stay on the server in the {@link OpaqueSessionStore}, which keeps only the
+ * first 128 bits of the validator's SHA-256, so a leaked table or journal yields no
+ * usable token. Verification is a decode, one hash and one table lookup with no
+ * signature check, and logout deletes the session
+ * instead of blacklisting it. Sessions are held per instance, so several instances need
+ * sticky routing. Enabled with {@code auth.token.mode=opaque}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "auth.token", name = "mode", havingValue = "opaque")
+public class OpaqueTokenProvider implements TokenProvider {
+
+    static final int TOKEN_LENGTH = 43;
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final ThreadLocal<SecureRandom> RANDOM = ThreadLocal.withInitial(SecureRandom::new);
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    });
+    private static final byte[] DECODE = new byte[128];
+
+    static {
+        Arrays.fill(DECODE, (byte) -1);
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+        for (int i = 0; i < alphabet.length(); i++) {
+            DECODE[alphabet.charAt(i)] = (byte) i;
+        }
+    }
+
+    private final JwtProperties jwtProperties;
+    private final OpaqueSessionStore sessionStore;
+
+    @Override
+    public String generateToken(User user, boolean rememberMe) {
+        long issuedAt = Instant.now().getEpochSecond();
+        long expiresAt = issuedAt + getExpirationSeconds(rememberMe);
+        UUID selector = JtiGenerator.nextUuid(System.currentTimeMillis());
+        SecureRandom random = RANDOM.get();
+        long[] words = {selector.getMostSignificantBits(), selector.getLeastSignificantBits(),
+                random.nextLong(), random.nextLong()};
+        ByteBuffer raw = ByteBuffer.allocate(4 * Long.BYTES);
+        for (long word : words) {
+            raw.putLong(word);
+        }
+        String token = ENCODER.encodeToString(raw.array());
+        hashValidator(words);
+
+        TokenClaims claims = new TokenClaims(
+                user.getId(),
+                user.getUsername(),
+                user.getRoles() != null ? Set.copyOf(user.getRoles()) : Set.of(),
+                toLocal(issuedAt),
+                toLocal(expiresAt),
+                rememberMe,
+                selector.toString()
+        );
+        sessionStore.put(words[0], words[1], words[2], words[3], expiresAt, claims);
+        return token;
+    }
+
+    @Override
+    public TokenVerification verify(String token) {
+        if (token == null || token.length() != TOKEN_LENGTH) {
+            return TokenVerification.failure(ErrorCode.TOKEN_INVALID);
+        }
+        // Decode the four 64-bit words in place; 43 characters carry 258 bits, the last two zero
+        long[] words = new long[4];
+        int bits = 0;
+        int pending = 0;
+        int bytes = 0;
+        for (int i = 0; i < TOKEN_LENGTH; i++) {
+            char c = token.charAt(i);
+            int value = c < DECODE.length ? DECODE[c] : -1;
+            if (value < 0) {
+                return TokenVerification.failure(ErrorCode.TOKEN_INVALID);
+            }
+            pending = (pending << 6 | value) & 0x3FFF;
+            bits += 6;
+            if (bits >= 8) {
+                bits -= 8;
+                words[bytes >>> 3] = words[bytes >>> 3] << 8 | (pending >>> bits) & 0xFF;
+                bytes++;
+            }
+        }
+        if ((pending & ((1 << bits) - 1)) != 0) {
+            return TokenVerification.failure(ErrorCode.TOKEN_INVALID);
+        }
+
+        hashValidator(words);
+        OpaqueSessionStore.Session session = sessionStore.find(words[0], words[1], words[2], words[3]);
+        if (session == null) {
+            return TokenVerification.failure(ErrorCode.TOKEN_INVALID);
+        }
+        if (session.expiresAt() <= System.currentTimeMillis() / 1000) {
+            return TokenVerification.failure(ErrorCode.TOKEN_EXPIRED);
+        }
+        return session.verification();
+    }
+
+    @Override
+    public TokenClaims parseToken(String token) {
+        TokenVerification verification = verify(token);
+        if (!verification.valid()) {
+            throw verification.toException();
+        }
+        return verification.claims();
+    }
+
+    @Override
+    public boolean validateToken(String token) {
+        return verify(token).valid();
+    }
+
+    @Override
+    public String getTokenId(String token) {
+        return parseToken(token).tokenId();
+    }
+
+    @Override
+    public long getExpirationSeconds(boolean rememberMe) {
+        return rememberMe ? jwtProperties.getRememberMeExpirationSeconds()
+                         : jwtProperties.getExpirationSeconds();
+    }
+
+    /**
+     * Delete the session; a token without one can no longer be verified either way
+     */
+    @Override
+    public boolean revoke(TokenClaims claims) {
+        JtiKey selector = JtiKey.of(claims.tokenId());
+        if (!sessionStore.remove(selector.high(), selector.low())) {
+            log.debug("Session {} was already gone", claims.tokenId());
+        }
+        return true;
+    }
+
+    /**
+     * Replace the validator in words 2 and 3 with the first 128 bits of its SHA-256
+     */
+    private static void hashValidator(long[] words) {
+        byte[] validator = ByteBuffer.allocate(2 * Long.BYTES).putLong(words[2]).putLong(words[3]).array();
+        ByteBuffer digest = ByteBuffer.wrap(SHA256.get().digest(validator));
+        words[2] = digest.getLong();
+        words[3] = digest.getLong();
+    }
+
+    private static LocalDateTime toLocal(long epochSecond) {
+        return LocalDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), ZoneId.systemDefault());
+    }
+}
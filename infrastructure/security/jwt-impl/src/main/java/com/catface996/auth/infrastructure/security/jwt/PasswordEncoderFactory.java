@@ -0,0 +1,127 @@
+package com.catface996.auth.infrastructure.security.jwt;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * Builds the application's {@link DelegatingPasswordEncoder}.
+ * <p>
+ * New hashes are written as {@code {id}hash} with the configured encoder; stored hashes of
+ * every supported encoder keep verifying, and the unprefixed BCrypt hashes written before
+ * this policy existed are matched as bcrypt. With calibration on, the bcrypt rounds and
+ * the Argon2id passes are raised from their configured floor until one hash takes about
+ * {@code auth.security.hashing.target-millis} here. Both encoders record their cost in
+ * the hash, so a stored hash only counts as outdated when its cost is lower than the
+ * current one; instances that calibrate differently never downgrade each other's hashes.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PasswordEncoderFactory {
+
+    static final String BCRYPT = "bcrypt";
+    static final String ARGON2 = "argon2";
+    static final String PBKDF2 = "pbkdf2";
+
+    private static final int MAX_BCRYPT_STRENGTH = 31;
+    private static final int MAX_ARGON2_ITERATIONS = 64;
+    private static final int ARGON2_SALT_LENGTH = 16;
+    private static final int ARGON2_HASH_LENGTH = 32;
+    private static final int PBKDF2_SALT_LENGTH = 16;
+    private static final int SAMPLES = 3;
+    private static final int MAX_CALIBRATION_ROUNDS = 3;
+    private static final String SAMPLE_PASSWORD = "calibration-Password-1";
+
+    private final PasswordHashingProperties properties;
+
+    public PasswordEncoder create() {
+        String idForEncode = properties.getEncoder().toLowerCase();
+        if (!idForEncode.equals(BCRYPT) && !idForEncode.equals(ARGON2) && !idForEncode.equals(PBKDF2)) {
+            throw new IllegalStateException("auth.security.hashing.encoder must be bcrypt, argon2 or pbkdf2, not "
+                    + properties.getEncoder());
+        }
+
+        // Only the encoder that writes new hashes is calibrated; the others just verify
+        boolean calibrate = properties.isCalibrate();
+        int bcryptStrength = calibrate && idForEncode.equals(BCRYPT)
+                ? calibrate("bcrypt rounds", properties.getBcryptStrength(), MAX_BCRYPT_STRENGTH, true, this::bcrypt)
+                : properties.getBcryptStrength();
+        int argon2Iterations = calibrate && idForEncode.equals(ARGON2)
+                ? calibrate("Argon2id passes", properties.getArgon2Iterations(), MAX_ARGON2_ITERATIONS, false, this::argon2)
+                : properties.getArgon2Iterations();
+
+        PasswordEncoder bcrypt = bcrypt(bcryptStrength);
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(idForEncode, Map.of(
+                BCRYPT, bcrypt,
+                ARGON2, argon2(argon2Iterations),
+                PBKDF2, new Pbkdf2PasswordEncoder("", PBKDF2_SALT_LENGTH, properties.getPbkdf2Iterations(),
+                        Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256)));
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+
+        log.info("Password hashes use {} (bcrypt rounds {}, Argon2id {} KiB x {} passes, PBKDF2 {} iterations)",
+                idForEncode, bcryptStrength, properties.getArgon2MemoryKib(), argon2Iterations,
+                properties.getPbkdf2Iterations());
+        return encoder;
+    }
+
+    private PasswordEncoder bcrypt(int strength) {
+        return new BCryptPasswordEncoder(strength);
+    }
+
+    private PasswordEncoder argon2(int iterations) {
+        return new Argon2PasswordEncoder(ARGON2_SALT_LENGTH, ARGON2_HASH_LENGTH, 1,
+                properties.getArgon2MemoryKib(), iterations);
+    }
+
+    /**
+     * Find the highest cost whose hash stays within the target: measure, extrapolate (the
+     * cost is exponential for bcrypt and linear for Argon2id), and measure again until the
+     * estimate settles, since early samples run cold
+     */
+    private int calibrate(String name, int floor, int ceiling, boolean exponential, IntFunction<PasswordEncoder> encoderAt) {
+        long targetNanos = properties.getTargetMillis() * 1_000_000;
+        int cost = floor;
+        long nanos = medianEncodeNanos(encoderAt.apply(cost));
+        long floorNanos = nanos;
+        for (int round = 0; round < MAX_CALIBRATION_ROUNDS; round++) {
+            double headroom = (double) targetNanos / nanos;
+            int next = exponential
+                    ? cost + (int) Math.floor(Math.log(headroom) / Math.log(2))
+                    : (int) Math.floor(cost * headroom);
+            next = Math.min(Math.max(next, floor), ceiling);
+            if (next == cost) {
+                break;
+            }
+            cost = next;
+            nanos = medianEncodeNanos(encoderAt.apply(cost));
+        }
+        log.info("Calibrated {} to {}: {} ms per hash against a {} ms target ({} ms at the floor of {})",
+                name, cost, nanos / 1_000_000, properties.getTargetMillis(), floorNanos / 1_000_000, floor);
+        return cost;
+    }
+
+    private static long medianEncodeNanos(PasswordEncoder encoder) {
+        // The first hashes pay for class loading and JIT compilation
+        for (int i = 0; i < SAMPLES; i++) {
+            encoder.encode(SAMPLE_PASSWORD);
+        }
+        long[] samples = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long started = System.nanoTime();
+            encoder.encode(SAMPLE_PASSWORD);
+            samples[i] = System.nanoTime() - started;
+        }
+        Arrays.sort(samples);
+        return samples[SAMPLES / 2];
+    }
+}
@@ -0,0 +1,63 @@
+package com.catface996.auth.infrastructure.security.jwt;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Password hashing configuration properties: the encoder policy for new hashes and the
+ * executor that runs them
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "auth.security.hashing")
+public class PasswordHashingProperties {
+
+    /**
+     * Hashing threads; 0 uses one per available processor
+     */
+    private int threads = 0;
+
+    /**
+     * Hashes allowed to wait for a thread; further logins and registrations are refused with 503
+     */
+    private int queueCapacity = 64;
+
+    /**
+     * Encoder for new and upgraded hashes: bcrypt, argon2 (Argon2id) or pbkdf2; stored hashes
+     * of any of them keep verifying
+     */
+    private String encoder = "bcrypt";
+
+    /**
+     * Whether the cost of bcrypt and Argon2id is raised at startup until one hash takes
+     * about {@link #targetMillis} on this machine; the configured costs are the floor
+     */
+    private boolean calibrate = true;
+
+    /**
+     * Per-hash latency the calibration aims for, in milliseconds
+     */
+    private long targetMillis = 100;
+
+    /**
+     * BCrypt log2 rounds, or the lowest value calibration may pick
+     */
+    private int bcryptStrength = 10;
+
+    /**
+     * Argon2id memory in KiB; not calibrated, since it is what resists GPU attacks
+     */
+    private int argon2MemoryKib = 19456;
+
+    /**
+     * Argon2id passes, or the lowest value calibration may pick
+     */
+    private int argon2Iterations = 2;
+
+    /**
+     * PBKDF2-HMAC-SHA256 iterations; never calibrated, because PBKDF2 hashes do not record
+     * their iteration count and changing it would break stored hashes
+     */
+    private int pbkdf2Iterations = 310000;
+}
@@ -0,0 +1,126 @@
+package com.catface996.auth.infrastructure.security.jwt;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Instant;
+
+/**
+ * Crash-safe implementation of TokenBlacklist.
+ * <p>
+ * Keeps the {@link CompactTokenBlacklist} index in memory and records every change in a
+ * {@link GroupCommitLog}, so logouts survive a restart. When the current log generation
+ * grows past the compaction threshold, the log rotates and the live entries are written
+ * to a {@link BlacklistSnapshot}; older files are then deleted. Startup maps the newest
+ * snapshot and replays the log generations after it. Enabled with
+ * {@code auth.blacklist.store=persistent}.
+ */
+@Slf4j
+@Component
+@Qualifier("tokenBlacklistStore")
+@ConditionalOnProperty(prefix = "auth.blacklist", name = "store", havingValue = "persistent")
+public class PersistentTokenBlacklist extends CompactTokenBlacklist {
+
+    private final BlacklistProperties.Persistent config;
+    private final GroupCommitLog<BlacklistJournalCodec.Change> journal;
+
+    public PersistentTokenBlacklist(BlacklistProperties blacklistProperties, MeterRegistry meterRegistry) {
+        super(blacklistProperties, meterRegistry);
+        this.config = blacklistProperties.getPersistent();
+        BlacklistJournalCodec codec = new BlacklistJournalCodec();
+        this.journal = new GroupCommitLog<>("blacklist", Path.of(config.getDirectory()).toAbsolutePath(), codec,
+                config.getMaxBatchRecords() * (codec.fixedLength() + Integer.BYTES), config.isWaitForSync(),
+                meterRegistry);
+    }
+
+    @PostConstruct
+    public void recover() throws IOException {
+        long now = Instant.now().getEpochSecond();
+        journal.open(new GroupCommitLog.Recovery<>() {
+            @Override
+            public long loadSnapshot(Path file) throws IOException {
+                return BlacklistSnapshot.load(file, PersistentTokenBlacklist.this::reserve,
+                        (high, low, expiresAt) -> {
+                            if (expiresAt >= now) {
+                                index(high, low, expiresAt);
+                            }
+                        });
+            }
+
+            @Override
+            public void expectRecords(long records) {
+                reserve(records);
+            }
+
+            @Override
+            public void apply(BlacklistJournalCodec.Change change) {
+                if (change.type() == BlacklistJournalCodec.REMOVE) {
+                    unindex(change.high(), change.low());
+                } else if (change.expiresAt() >= now) {
+                    index(change.high(), change.low(), change.expiresAt());
+                }
+            }
+        });
+    }
+
+    @Override
+    void onAdded(long high, long low, long expiresAt) {
+        append(new BlacklistJournalCodec.Change(BlacklistJournalCodec.ADD, high, low, expiresAt),
+                config.isWaitForSync());
+    }
+
+    @Override
+    void onRemoved(long high, long low) {
+        append(new BlacklistJournalCodec.Change(BlacklistJournalCodec.REMOVE, high, low, 0), config.isWaitForSync());
+    }
+
+    /**
+     * Replicated entries are journaled without waiting for the sync: if they are lost in a
+     * crash, the next anti-entropy round with their origin restores them
+     */
+    @Override
+    void onReplicated(long high, long low, long expiresAt) {
+        append(new BlacklistJournalCodec.Change(BlacklistJournalCodec.ADD, high, low, expiresAt), false);
+    }
+
+    private void append(BlacklistJournalCodec.Change change, boolean awaitSync) {
+        try {
+            journal.append(change, awaitSync);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to persist token blacklist change", e);
+        }
+    }
+
+    /**
+     * Compact the journal into a snapshot once the current generation is large enough
+     */
+    @Scheduled(fixedDelayString = "${auth.blacklist.persistent.compaction-check-interval-ms:60000}")
+    public void compactIfNeeded() {
+        try {
+            if (journal.currentSize() >= config.getCompactionThresholdBytes()) {
+                compact();
+            }
+        } catch (IOException e) {
+            log.error("Token blacklist compaction failed; the journal keeps growing until it succeeds", e);
+        }
+    }
+
+    void compact() throws IOException {
+        journal.compact((out, generation) ->
+                BlacklistSnapshot.write(out, generation, Instant.now().getEpochSecond(), this::forEachEntry));
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        journal.close();
+    }
+}
@@ -0,0 +1,165 @@
+package com.catface996.auth.infrastructure.security.jwt;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.ProtocolException;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+
+/**
+ * Wire format of blacklist replication.
+ * <p>
+ * A connection opens with a mutual challenge-response: each side sends a random nonce
+ * and proves knowledge of the shared secret with an HMAC-SHA256 over the other side's
+ * nonce, tagged with its role so a proof cannot be reflected back. After that the
+ * connecting side sends frames and the accepting side only answers digests:
+ * <pre>
+ * DELTA   'D' count:int (high:long low:long expiresAt:long){count}
+ * DIGEST  'G' cutoff:long sum:long{256}
+ * REPAIR  'R' buckets:int bucket:int{buckets}, then DELTA frames, then END
+ * END     'E'
+ * </pre>
+ * A digest partitions the live entries expiring at or after the cutoff into 256
+ * buckets by key hash and sums a fingerprint of each entry per bucket; the peer
+ * answers with the buckets whose sums differ and its entries in them.
+ */
+final class ReplicationProtocol {
+
+    static final byte DELTA = 'D';
+    static final byte DIGEST = 'G';
+    static final byte REPAIR = 'R';
+    static final byte END = 'E';
+
+    static final int BUCKETS = 256;
+    static final int MAX_FRAME_ENTRIES = 65536;
+
+    private static final int MAGIC = 0x424C5231;
+    private static final int NONCE_BYTES = 16;
+    private static final int PROOF_BYTES = 32;
+    private static final byte CLIENT_ROLE = 'C';
+    private static final byte SERVER_ROLE = 'S';
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private ReplicationProtocol() {
+    }
+
+    /**
+     * Authenticate an accepted connection
+     * @throws IOException if the peer does not speak the protocol or fails authentication
+     */
+    static void accept(DataInputStream in, DataOutputStream out, byte[] secret) throws IOException {
+        byte[] serverNonce = nonce();
+        out.writeInt(MAGIC);
+        out.write(serverNonce);
+        out.flush();
+
+        readMagic(in);
+        byte[] clientNonce = new byte[NONCE_BYTES];
+        in.readFully(clientNonce);
+        byte[] proof = new byte[PROOF_BYTES];
+        in.readFully(proof);
+        if (!MessageDigest.isEqual(proof, proof(secret, CLIENT_ROLE, serverNonce))) {
+            throw new ProtocolException("Replication peer failed authentication");
+        }
+        out.write(proof(secret, SERVER_ROLE, clientNonce));
+        out.flush();
+    }
+
+    /**
+     * Authenticate an outgoing connection
+     * @throws IOException if the peer does not speak the protocol or fails authentication
+     */
+    static void connect(DataInputStream in, DataOutputStream out, byte[] secret) throws IOException {
+        readMagic(in);
+        byte[] serverNonce = new byte[NONCE_BYTES];
+        in.readFully(serverNonce);
+
+        byte[] clientNonce = nonce();
+        out.writeInt(MAGIC);
+        out.write(clientNonce);
+        out.write(proof(secret, CLIENT_ROLE, serverNonce));
+        out.flush();
+
+        byte[] proof = new byte[PROOF_BYTES];
+        in.readFully(proof);
+        if (!MessageDigest.isEqual(proof, proof(secret, SERVER_ROLE, clientNonce))) {
+            throw new ProtocolException("Replication peer failed authentication");
+        }
+    }
+
+    /**
+     * Write entries held as (high, low, expiresAt) triples as DELTA frames
+     */
+    static void writeEntries(DataOutputStream out, long[] entries, int count) throws IOException {
+        for (int from = 0; from < count; from += MAX_FRAME_ENTRIES) {
+            int frameEntries = Math.min(MAX_FRAME_ENTRIES, count - from);
+            out.writeByte(DELTA);
+            out.writeInt(frameEntries);
+            for (int i = from * 3, end = (from + frameEntries) * 3; i < end; i++) {
+                out.writeLong(entries[i]);
+            }
+        }
+    }
+
+    /**
+     * Read the body of a DELTA frame, after its type byte
+     * @return number of entries read
+     */
+    static int readEntries(DataInputStream in, CompactBlacklistTable.EntryVisitor visitor) throws IOException {
+        int count = in.readInt();
+        if (count < 0 || count > MAX_FRAME_ENTRIES) {
+            throw new ProtocolException("Invalid replication frame size " + count);
+        }
+        for (int i = 0; i < count; i++) {
+            visitor.accept(in.readLong(), in.readLong(), in.readLong());
+        }
+        return count;
+    }
+
+    /**
+     * Digest bucket of a key
+     */
+    static int bucketOf(long high, long low) {
+        return (int) (mix(high ^ Long.rotateLeft(low, 32)) >>> 56);
+    }
+
+    /**
+     * Order-independent contribution of an entry to its bucket sum
+     */
+    static long fingerprint(long high, long low, long expiresAt) {
+        return mix(high ^ mix(low ^ mix(expiresAt)));
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static void readMagic(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new ProtocolException("Not a blacklist replication peer");
+        }
+    }
+
+    private static byte[] nonce() {
+        byte[] nonce = new byte[NONCE_BYTES];
+        RANDOM.nextBytes(nonce);
+        return nonce;
+    }
+
+    private static byte[] proof(byte[] secret, byte role, byte[] nonce) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret, "HmacSHA256"));
+            mac.update(role);
+            return mac.doFinal(nonce);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.catface996.auth.infrastructure.security.jwt;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Ring buffer of the most recent revocation events, numbered from 1.
+ * <p>
+ * Each event is three longs and a kind byte in preallocated arrays, so recording one
+ * allocates nothing. Once the ring is full the oldest event is overwritten; a reader
+ * whose position has been overwritten is told so and must start over from a snapshot.
+ * Readers block on a condition until an event newer than their position is recorded.
+ */
+final class RevocationEventLog {
+
+    static final byte TOKEN = 1;
+    static final byte USER = 2;
+
+    private final int mask;
+    private final byte[] kinds;
+    private final long[] values;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition recorded = lock.newCondition();
+    private long next = 1;
+
+    /**
+     * @param capacity events held, rounded up to a power of two
+     */
+    RevocationEventLog(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.mask = size - 1;
+        this.kinds = new byte[size];
+        this.values = new long[3 * size];
+    }
+
+    /**
+     * Record an event and wake waiting readers
+     * @return its sequence number
+     */
+    long append(byte kind, long a, long b, long c) {
+        lock.lock();
+        try {
+            int slot = (int) (next & mask);
+            kinds[slot] = kind;
+            values[3 * slot] = a;
+            values[3 * slot + 1] = b;
+            values[3 * slot + 2] = c;
+            recorded.signalAll();
+            return next++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return sequence number of the latest event, or 0 if none
+     */
+    long latest() {
+        lock.lock();
+        try {
+            return next - 1;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Check whether every event after the given sequence number is still held
+     */
+    boolean holdsAfter(long sequence) {
+        lock.lock();
+        try {
+            return holds(sequence);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Wait for events after a sequence number and visit them, oldest first. The visitor
+     * runs under the log's lock and must not block.
+     * @return sequence number of the last event visited, {@code after} if none arrived
+     * in time, or -1 if events after {@code after} have been overwritten
+     */
+    long read(long after, int maxEvents, long timeoutMillis, EventVisitor visitor) throws InterruptedException {
+        long remaining = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        lock.lock();
+        try {
+            while (after >= next - 1 && remaining > 0) {
+                remaining = recorded.awaitNanos(remaining);
+            }
+            if (!holds(after)) {
+                return -1;
+            }
+            long last = Math.min(next - 1, after + maxEvents);
+            for (long sequence = after + 1; sequence <= last; sequence++) {
+                int slot = (int) (sequence & mask);
+                visitor.accept(kinds[slot], values[3 * slot], values[3 * slot + 1], values[3 * slot + 2]);
+            }
+            return Math.max(after, last);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean holds(long sequence) {
+        return sequence >= 0 && sequence < next && next - 1 - sequence <= kinds.length;
+    }
+
+    /**
+     * Receives events during {@link #read}
+     */
+    @FunctionalInterface
+    interface EventVisitor {
+
+        void accept(byte kind, long a, long b, long c);
+    }
+}
@@ -0,0 +1,14 @@
+package com.catface996.auth.infrastructure.security.jwt;
+
+/**
+ * Notified of revocations entering a blacklist store
+ */
+@FunctionalInterface
+interface RevocationListener {
+
+    /**
+     * Called after a revocation has been indexed
+     * @param expiresAt epoch second after which the revocation is dead
+     */
+    void onRevoked(long high, long low, long expiresAt);
+}
@@ -0,0 +1,26 @@
+package com.catface996.auth.infrastructure.security.jwt;
+
+/**
+ * A blacklist store that can report the revocations it holds, so that a filter kept in
+ * front of it or a feed published from it sees every one, including those that never
+ * pass through {@code addToBlacklist} on this instance
+ */
+interface RevocationSource {
+
+    /**
+     * Replay the entries held now, then report every entry the store later gains other
+     * than through {@code addToBlacklist}, such as revocations replicated from peers
+     */
+    void subscribe(RevocationListener listener);
+
+    /**
+     * Report every entry the store gains from now on, through {@code addToBlacklist} or
+     * otherwise, without a replay
+     */
+    void watch(RevocationListener listener);
+
+    /**
+     * Visit the entries held now, including expired ones not yet purged
+     */
+    void forEachRevocation(RevocationListener visitor);
+}
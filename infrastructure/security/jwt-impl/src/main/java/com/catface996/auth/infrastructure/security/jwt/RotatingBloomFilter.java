@@ -0,0 +1,281 @@
+package com.catface996.auth.infrastructure.security.jwt;
+
+import com.catface996.auth.domain.security.TokenBlacklistFilter;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter of revoked token IDs that rotates with token lifetimes.
+ * <p>
+ * Revocations are grouped into generations by expiry window, so a generation can be
+ * dropped whole once its window has passed and every token it holds has expired;
+ * lookups check the few live generations. A generation that receives more revocations
+ * than it was sized for grows by adding a slice twice as large with half the
+ * false-positive rate, which keeps the generation within its target rate (a scalable
+ * Bloom filter). Bits are set with CAS and read with plain volatile loads, so lookups
+ * never lock.
+ */
+final class RotatingBloomFilter implements TokenBlacklistFilter {
+
+    private static final double LN2 = Math.log(2);
+    private static final Generation[] NONE = new Generation[0];
+    /**
+     * 2^32 bits, the most a 32-bit hash can address
+     */
+    private static final int MAX_SLICE_WORDS = 1 << 26;
+
+    private final long windowSeconds;
+    private final int expectedInsertions;
+    private final double falsePositiveRate;
+    private volatile Generation[] generations = NONE;
+
+    /**
+     * @param windowSeconds span of expiry times covered by one generation
+     * @param expectedInsertions revocations a generation is sized for before it grows
+     * @param falsePositiveRate target false-positive rate per generation
+     */
+    RotatingBloomFilter(long windowSeconds, int expectedInsertions, double falsePositiveRate) {
+        if (windowSeconds <= 0 || expectedInsertions <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Invalid Bloom filter sizing");
+        }
+        this.windowSeconds = windowSeconds;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    @Override
+    public void add(String tokenId, long expirationSeconds) {
+        JtiKey key = JtiKey.of(tokenId);
+        add(key.high(), key.low(), Instant.now().getEpochSecond() + expirationSeconds);
+    }
+
+    @Override
+    public boolean mightBeBlacklisted(String tokenId) {
+        JtiKey key = JtiKey.of(tokenId);
+        return mightContain(key.high(), key.low());
+    }
+
+    /**
+     * Record a revoked key; keys that have already expired are skipped
+     */
+    void add(long high, long low, long expiresAt) {
+        if (expiresAt < Instant.now().getEpochSecond()) {
+            return;
+        }
+        long h1 = hash1(high, low);
+        long h2 = hash2(high, low);
+        generationFor(Math.floorDiv(expiresAt, windowSeconds)).add(h1, h2);
+    }
+
+    boolean mightContain(long high, long low) {
+        long h1 = hash1(high, low);
+        long h2 = hash2(high, low);
+        for (Generation generation : generations) {
+            if (generation.mightContain(h1, h2)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Drop the generations whose whole expiry window is before now
+     * @return number of generations dropped
+     */
+    synchronized int expire(long now) {
+        Generation[] current = generations;
+        Generation[] live = Arrays.stream(current)
+                .filter(generation -> (generation.window + 1) * windowSeconds > now)
+                .toArray(Generation[]::new);
+        generations = live;
+        return current.length - live.length;
+    }
+
+    /**
+     * Estimated probability that a key never added is reported as present
+     */
+    double expectedFalsePositiveRate() {
+        double allNegative = 1;
+        for (Generation generation : generations) {
+            for (Slice slice : generation.slices) {
+                allNegative *= 1 - slice.expectedFalsePositiveRate();
+            }
+        }
+        return 1 - allNegative;
+    }
+
+    long allocatedBytes() {
+        long bytes = 0;
+        for (Generation generation : generations) {
+            for (Slice slice : generation.slices) {
+                bytes += slice.words() * (long) Long.BYTES;
+            }
+        }
+        return bytes;
+    }
+
+    int generationCount() {
+        return generations.length;
+    }
+
+    private Generation generationFor(long window) {
+        for (Generation generation : generations) {
+            if (generation.window == window) {
+                return generation;
+            }
+        }
+        synchronized (this) {
+            Generation[] current = generations;
+            for (Generation generation : current) {
+                if (generation.window == window) {
+                    return generation;
+                }
+            }
+            Generation created = new Generation(window, expectedInsertions, falsePositiveRate);
+            Generation[] grown = Arrays.copyOf(current, current.length + 1);
+            grown[current.length] = created;
+            generations = grown;
+            return created;
+        }
+    }
+
+    private static long hash1(long high, long low) {
+        return mix(high ^ mix(low));
+    }
+
+    private static long hash2(long high, long low) {
+        return mix(low ^ Long.rotateLeft(high, 32) ^ 0x9E3779B97F4A7C15L) | 1;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Revocations expiring within one window, in one or more slices
+     */
+    private static final class Generation {
+
+        final long window;
+        volatile Slice[] slices;
+
+        Generation(long window, int expectedInsertions, double falsePositiveRate) {
+            this.window = window;
+            this.slices = new Slice[]{new Slice(expectedInsertions, falsePositiveRate / 2)};
+        }
+
+        void add(long h1, long h2) {
+            // Repeats would only use up capacity
+            if (mightContain(h1, h2)) {
+                return;
+            }
+            Slice[] current = slices;
+            Slice last = current[current.length - 1];
+            if (last.isFull()) {
+                last = grow(current);
+            }
+            last.add(h1, h2);
+        }
+
+        boolean mightContain(long h1, long h2) {
+            for (Slice slice : slices) {
+                if (slice.mightContain(h1, h2)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private synchronized Slice grow(Slice[] seen) {
+            Slice[] current = slices;
+            if (current != seen) {
+                return current[current.length - 1];
+            }
+            Slice last = current[current.length - 1];
+            Slice next = new Slice(last.capacity * 2, last.falsePositiveRate / 2);
+            Slice[] grown = Arrays.copyOf(current, current.length + 1);
+            grown[current.length] = next;
+            slices = grown;
+            return next;
+        }
+    }
+
+    /**
+     * Fixed-size Bloom filter probed with double hashing
+     */
+    private static final class Slice {
+
+        final long capacity;
+        final double falsePositiveRate;
+        private final AtomicLongArray bits;
+        private final long bitCount;
+        private final int hashes;
+        private final AtomicLong insertions = new AtomicLong();
+
+        Slice(long capacity, double falsePositiveRate) {
+            this.capacity = capacity;
+            this.falsePositiveRate = falsePositiveRate;
+            long optimalBits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (LN2 * LN2));
+            int words = (int) Math.min(MAX_SLICE_WORDS, (optimalBits + 63) / 64);
+            this.bits = new AtomicLongArray(words);
+            this.bitCount = words * 64L;
+            this.hashes = Math.max(1, (int) Math.round((double) bitCount / capacity * LN2));
+        }
+
+        boolean isFull() {
+            return insertions.get() >= capacity;
+        }
+
+        void add(long h1, long h2) {
+            boolean changed = false;
+            long combined = h1;
+            for (int i = 0; i < hashes; i++, combined += h2) {
+                long index = index(combined);
+                int word = (int) (index >>> 6);
+                long mask = 1L << index;
+                long value = bits.get(word);
+                while ((value & mask) == 0) {
+                    if (bits.compareAndSet(word, value, value | mask)) {
+                        changed = true;
+                        break;
+                    }
+                    value = bits.get(word);
+                }
+            }
+            if (changed) {
+                insertions.incrementAndGet();
+            }
+        }
+
+        boolean mightContain(long h1, long h2) {
+            long combined = h1;
+            for (int i = 0; i < hashes; i++, combined += h2) {
+                long index = index(combined);
+                if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        double expectedFalsePositiveRate() {
+            return Math.pow(1 - Math.exp(-(double) hashes * insertions.get() / bitCount), hashes);
+        }
+
+        int words() {
+            return bits.length();
+        }
+
+        /**
+         * Map a hash onto [0, bitCount) without a division
+         */
+        private long index(long hash) {
+            return ((hash >>> 32) * bitCount) >>> 32;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.catface996.auth.infrastructure.security.jwt;
+
+import com.catface996.auth.domain.model.session.TokenClaims;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Record format of the opaque-token session {@link GroupCommitLog}, also used for its
+ * snapshots: variable-length records of type and selector, then for a PUT the validator
+ * digest, user, lifetime, username and roles. The log frames them with a length and a
+ * CRC32C. Only the digest is written, so the files cannot be replayed as tokens.
+ */
+final class SessionJournalCodec implements GroupCommitLog.RecordCodec<SessionJournalCodec.Change> {
+
+    static final byte PUT = 1;
+    static final byte REMOVE = 2;
+
+    private static final int MAX_RECORD_BYTES = 8192;
+
+    @Override
+    public int fixedLength() {
+        return 0;
+    }
+
+    @Override
+    public int maxLength() {
+        return MAX_RECORD_BYTES;
+    }
+
+    @Override
+    public void encode(Change change, ByteBuffer out) {
+        if (change.type() == REMOVE) {
+            out.put(REMOVE).putLong(change.high()).putLong(change.low());
+            return;
+        }
+        TokenClaims claims = change.claims();
+        byte[] username = claims.username().getBytes(StandardCharsets.UTF_8);
+        byte[][] roles = claims.roles().stream()
+                .map(role -> role.getBytes(StandardCharsets.UTF_8))
+                .toArray(byte[][]::new);
+        int length = 1 + 7 * Long.BYTES + 1 + Short.BYTES + username.length + 1;
+        for (byte[] role : roles) {
+            length += Short.BYTES + role.length;
+        }
+        if (length > MAX_RECORD_BYTES || roles.length > 255) {
+            throw new IllegalArgumentException("Session of user " + claims.userId() + " is too large to journal");
+        }
+        out.put(PUT).putLong(change.high()).putLong(change.low())
+                .putLong(change.digestHigh()).putLong(change.digestLow())
+                .putLong(claims.userId())
+                .putLong(toEpochSecond(claims.issuedAt()))
+                .putLong(toEpochSecond(claims.expiresAt()))
+                .put((byte) (claims.rememberMe() ? 1 : 0))
+                .putShort((short) username.length).put(username)
+                .put((byte) roles.length);
+        for (byte[] role : roles) {
+            out.putShort((short) role.length).put(role);
+        }
+    }
+
+    @Override
+    public Change decode(ByteBuffer body) {
+        try {
+            byte type = body.get();
+            long high = body.getLong();
+            long low = body.getLong();
+            if (type == REMOVE) {
+                return remove(high, low);
+            }
+            if (type != PUT) {
+                return null;
+            }
+            long digestHigh = body.getLong();
+            long digestLow = body.getLong();
+            long userId = body.getLong();
+            long issuedAt = body.getLong();
+            long expiresAt = body.getLong();
+            boolean rememberMe = body.get() != 0;
+            String username = readString(body);
+            int roleCount = body.get() & 0xFF;
+            Set<String> roles = new HashSet<>(roleCount * 2);
+            for (int i = 0; i < roleCount; i++) {
+                roles.add(readString(body));
+            }
+            TokenClaims claims = new TokenClaims(userId, username, Set.copyOf(roles), toLocal(issuedAt),
+                    toLocal(expiresAt), rememberMe, new JtiKey(high, low).toTokenId());
+            return put(high, low, digestHigh, digestLow, claims);
+        } catch (BufferUnderflowException e) {
+            return null;
+        }
+    }
+
+    static Change put(long high, long low, long digestHigh, long digestLow, TokenClaims claims) {
+        return new Change(PUT, high, low, digestHigh, digestLow, claims);
+    }
+
+    static Change remove(long high, long low) {
+        return new Change(REMOVE, high, low, 0, 0, null);
+    }
+
+    private static String readString(ByteBuffer body) {
+        byte[] bytes = new byte[body.getShort() & 0xFFFF];
+        body.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static long toEpochSecond(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toEpochSecond();
+    }
+
+    private static LocalDateTime toLocal(long epochSecond) {
+        return LocalDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), ZoneId.systemDefault());
+    }
+
+    /**
+     * One session change; only the selector is set for a REMOVE
+     */
+    record Change(byte type, long high, long low, long digestHigh, long digestLow, TokenClaims claims) {
+    }
+}
@@ -0,0 +1,341 @@
+package com.catface996.auth.infrastructure.security.jwt;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Lock-striped open-addressing table of opaque-token sessions keyed by 128-bit selector.
+ * <p>
+ * Each slot is five longs (selector high and low, validator digest high and low, expiry) in a
+ * flat {@code long[]} plus one reference to the session value, so a lookup touches two
+ * arrays and allocates nothing. Layout, locking and deletion follow
+ * {@link CompactBlacklistTable}: optimistic {@link StampedLock} reads per stripe, linear
+ * probing with backward-shift deletion, and the all-zero selector as the empty marker.
+ *
+ * @param <V> session value handed back by lookups
+ */
+final class SessionTable<V> {
+
+    private static final int SLOT_LONGS = 5;
+    private static final int MIN_STRIPE_CAPACITY = 16;
+    private static final int MAX_STRIPE_CAPACITY = 1 << 26;
+
+    private final Stripe<V>[] stripes;
+    private final int stripeShift;
+
+    /**
+     * @param stripeCount number of independently locked stripes, rounded up to a power of two
+     * @param initialCapacity initial total number of slots, spread over the stripes
+     */
+    @SuppressWarnings("unchecked")
+    SessionTable(int stripeCount, int initialCapacity) {
+        int stripesPow2 = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        int stripeCapacity = Math.max(MIN_STRIPE_CAPACITY,
+                Integer.highestOneBit(Math.max(1, initialCapacity / stripesPow2 - 1)) << 1);
+        this.stripeShift = 64 - Integer.numberOfTrailingZeros(stripesPow2);
+        this.stripes = new Stripe[stripesPow2];
+        for (int i = 0; i < stripesPow2; i++) {
+            stripes[i] = new Stripe<>(stripeCapacity);
+        }
+    }
+
+    /**
+     * Insert a session, replacing any session with the same selector
+     */
+    void put(long high, long low, long digestHigh, long digestLow, long expiresAt, V value) {
+        long hash = hash(high, low);
+        Stripe<V> stripe = stripeFor(hash);
+        long stamp = stripe.lock.writeLock();
+        try {
+            stripe.put(high, low, digestHigh, digestLow, expiresAt, value, (int) hash);
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Look a session up by selector and check its validator digest, without taking a lock
+     * unless a writer interferes
+     * @return the session, or null if the selector is unknown or the digest differs
+     */
+    V find(long high, long low, long digestHigh, long digestLow) {
+        long hash = hash(high, low);
+        Stripe<V> stripe = stripeFor(hash);
+        long stamp = stripe.lock.tryOptimisticRead();
+        V value = stripe.find(high, low, digestHigh, digestLow, (int) hash);
+        if (!stripe.lock.validate(stamp)) {
+            stamp = stripe.lock.readLock();
+            try {
+                value = stripe.find(high, low, digestHigh, digestLow, (int) hash);
+            } finally {
+                stripe.lock.unlockRead(stamp);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Remove a session
+     * @return true if it was present
+     */
+    boolean remove(long high, long low) {
+        long hash = hash(high, low);
+        Stripe<V> stripe = stripeFor(hash);
+        long stamp = stripe.lock.writeLock();
+        try {
+            return stripe.remove(high, low, (int) hash, 0);
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Remove a session only if it expires at or before the given second
+     * @return true if it was removed
+     */
+    boolean removeIfExpiredBy(long high, long low, long epochSecond) {
+        long hash = hash(high, low);
+        Stripe<V> stripe = stripeFor(hash);
+        long stamp = stripe.lock.writeLock();
+        try {
+            return stripe.remove(high, low, (int) hash, epochSecond);
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Visit every session, holding each stripe's read lock while it is visited
+     */
+    void forEach(EntryVisitor<V> visitor) {
+        for (Stripe<V> stripe : stripes) {
+            long stamp = stripe.lock.readLock();
+            try {
+                long[] slots = stripe.slots.keys;
+                Object[] values = stripe.slots.values;
+                for (int slot = 0; slot < values.length; slot++) {
+                    int base = slot * SLOT_LONGS;
+                    if (slots[base] != 0 || slots[base + 1] != 0) {
+                        @SuppressWarnings("unchecked")
+                        V value = (V) values[slot];
+                        visitor.accept(slots[base], slots[base + 1], slots[base + 2], slots[base + 3],
+                                slots[base + 4], value);
+                    }
+                }
+            } finally {
+                stripe.lock.unlockRead(stamp);
+            }
+        }
+    }
+
+    /**
+     * Number of sessions, including expired ones not yet evicted
+     */
+    long size() {
+        long size = 0;
+        for (Stripe<V> stripe : stripes) {
+            size += stripe.size;
+        }
+        return size;
+    }
+
+    private Stripe<V> stripeFor(long hash) {
+        return stripes.length == 1 ? stripes[0] : stripes[(int) (hash >>> stripeShift)];
+    }
+
+    /**
+     * Same mix as {@link CompactBlacklistTable}; selectors are UUIDv7 whose high half is
+     * mostly timestamp, so both halves must be mixed
+     */
+    private static long hash(long high, long low) {
+        long h = high * 0x9E3779B97F4A7C15L ^ low;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        return h ^ (h >>> 33);
+    }
+
+    /**
+     * Receives sessions during {@link #forEach}
+     */
+    @FunctionalInterface
+    interface EntryVisitor<V> {
+
+        void accept(long high, long low, long digestHigh, long digestLow, long expiresAt, V value);
+    }
+
+    private static final class Stripe<V> {
+
+        final StampedLock lock = new StampedLock();
+        Slots slots;
+        int size;
+
+        Stripe(int capacity) {
+            this.slots = new Slots(capacity);
+        }
+
+        /**
+         * Probe for a selector; safe to run without the lock because the probe is bounded
+         * by the capacity of the arrays it started with and the caller validates afterwards
+         */
+        @SuppressWarnings("unchecked")
+        V find(long high, long low, long digestHigh, long digestLow, int hash) {
+            Slots current = slots;
+            long[] s = current.keys;
+            Object[] v = current.values;
+            int mask = v.length - 1;
+            int slot = hash & mask;
+            for (int probes = 0; probes <= mask; probes++) {
+                int base = slot * SLOT_LONGS;
+                long h = s[base];
+                long l = s[base + 1];
+                if (h == high && l == low) {
+                    // Compare both halves without an early exit
+                    return ((s[base + 2] ^ digestHigh) | (s[base + 3] ^ digestLow)) == 0 ? (V) v[slot] : null;
+                }
+                if (h == 0 && l == 0) {
+                    return null;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return null;
+        }
+
+        void put(long high, long low, long digestHigh, long digestLow, long expiresAt, V value, int hash) {
+            if ((size + 1) * 4L > slots.values.length * 3L) {
+                if (slots.values.length >= MAX_STRIPE_CAPACITY) {
+                    throw new IllegalStateException("Session stripe is full at " + size + " entries");
+                }
+                resize(slots.values.length * 2);
+            }
+            long[] s = slots.keys;
+            Object[] values = slots.values;
+            int mask = values.length - 1;
+            int slot = hash & mask;
+            while (true) {
+                int base = slot * SLOT_LONGS;
+                long h = s[base];
+                long l = s[base + 1];
+                boolean empty = h == 0 && l == 0;
+                if (empty || (h == high && l == low)) {
+                    values[slot] = value;
+                    s[base + 2] = digestHigh;
+                    s[base + 3] = digestLow;
+                    s[base + 4] = expiresAt;
+                    s[base + 1] = low;
+                    s[base] = high;
+                    if (empty) {
+                        size++;
+                    }
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+
+        /**
+         * Remove a selector, optionally only if it expires at or before {@code expiredBy} (0 removes unconditionally)
+         */
+        boolean remove(long high, long low, int hash, long expiredBy) {
+            long[] s = slots.keys;
+            int mask = slots.values.length - 1;
+            int slot = hash & mask;
+            for (int probes = 0; probes <= mask; probes++) {
+                int base = slot * SLOT_LONGS;
+                long h = s[base];
+                long l = s[base + 1];
+                if (h == high && l == low) {
+                    if (expiredBy != 0 && s[base + 4] > expiredBy) {
+                        return false;
+                    }
+                    deleteAt(slot);
+                    return true;
+                }
+                if (h == 0 && l == 0) {
+                    return false;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return false;
+        }
+
+        /**
+         * Empty a slot and shift later entries of the probe run back so no tombstone is needed
+         */
+        private void deleteAt(int hole) {
+            long[] s = slots.keys;
+            Object[] values = slots.values;
+            int mask = values.length - 1;
+            int next = (hole + 1) & mask;
+            while (true) {
+                int base = next * SLOT_LONGS;
+                long h = s[base];
+                long l = s[base + 1];
+                if (h == 0 && l == 0) {
+                    break;
+                }
+                int home = (int) hash(h, l) & mask;
+                // Move the entry if its home slot is not cyclically within (hole, next]
+                boolean movable = hole <= next
+                        ? home <= hole || home > next
+                        : home <= hole && home > next;
+                if (movable) {
+                    int holeBase = hole * SLOT_LONGS;
+                    values[hole] = values[next];
+                    s[holeBase + 2] = s[base + 2];
+                    s[holeBase + 3] = s[base + 3];
+                    s[holeBase + 4] = s[base + 4];
+                    s[holeBase + 1] = l;
+                    s[holeBase] = h;
+                    hole = next;
+                }
+                next = (next + 1) & mask;
+            }
+            int holeBase = hole * SLOT_LONGS;
+            for (int i = 0; i < SLOT_LONGS; i++) {
+                s[holeBase + i] = 0;
+            }
+            values[hole] = null;
+            size--;
+        }
+
+        private void resize(int capacity) {
+            long[] old = slots.keys;
+            Object[] oldValues = slots.values;
+            Slots next = new Slots(capacity);
+            long[] grown = next.keys;
+            Object[] grownValues = next.values;
+            int mask = capacity - 1;
+            for (int slot = 0; slot < oldValues.length; slot++) {
+                int base = slot * SLOT_LONGS;
+                long h = old[base];
+                long l = old[base + 1];
+                if (h == 0 && l == 0) {
+                    continue;
+                }
+                int target = (int) hash(h, l) & mask;
+                while (grown[target * SLOT_LONGS] != 0 || grown[target * SLOT_LONGS + 1] != 0) {
+                    target = (target + 1) & mask;
+                }
+                System.arraycopy(old, base, grown, target * SLOT_LONGS, SLOT_LONGS);
+                grownValues[target] = oldValues[slot];
+            }
+            slots = next;
+        }
+    }
+
+    /**
+     * Keys and values of one stripe, swapped as a unit on resize so that an optimistic
+     * reader never pairs arrays of different sizes
+     */
+    private static final class Slots {
+
+        final long[] keys;
+        final Object[] values;
+
+        Slots(int capacity) {
+            this.keys = new long[capacity * SLOT_LONGS];
+            this.values = new Object[capacity];
+        }
+    }
+}
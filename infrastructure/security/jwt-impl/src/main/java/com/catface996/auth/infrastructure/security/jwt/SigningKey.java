@@ -0,0 +1,279 @@
+package com.catface996.auth.infrastructure.security.jwt;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.SignatureException;
+import java.security.interfaces.EdECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * A token signing key identified by {@code kid}.
+ * <p>
+ * Wraps either an HMAC secret or an asymmetric key pair (RS256, Ed25519) behind one
+ * sign/verify contract over byte ranges, so the issuance and fast-path verification
+ * engines are algorithm-agnostic. Each thread lazily initialises its own {@link Mac} or
+ * {@link Signature} per key; both reset themselves after every operation, so the
+ * expensive key setup happens once per thread rather than once per token.
+ */
+final class SigningKey {
+
+    private static final Pattern KEY_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+    private static final int X509_ED25519_PREFIX_LENGTH = 12;
+    private static final int MIN_RSA_KEY_BITS = 2048;
+
+    private final String keyId;
+    private final JwsAlgorithm algorithm;
+    private final Key signingKey;
+    private final Key verificationKey;
+    private final int signatureLength;
+    private final String headerSegment;
+    private final ThreadLocal<Engine> engines = ThreadLocal.withInitial(Engine::new);
+
+    private SigningKey(String keyId, JwsAlgorithm algorithm, Key signingKey, Key verificationKey, int signatureLength) {
+        if (keyId == null || !KEY_ID.matcher(keyId).matches()) {
+            throw new IllegalArgumentException("Key ID must match " + KEY_ID.pattern() + ": " + keyId);
+        }
+        this.keyId = keyId;
+        this.algorithm = algorithm;
+        this.signingKey = signingKey;
+        this.verificationKey = verificationKey;
+        this.signatureLength = signatureLength;
+        this.headerSegment = encodeHeader("{\"alg\":\"" + algorithm.name() + "\",\"kid\":\"" + keyId + "\"}");
+    }
+
+    /**
+     * Create an HMAC key; the secret both signs and verifies
+     * @param keyId key ID, or null to derive one from the key material
+     */
+    static SigningKey hmac(String keyId, SecretKey secretKey) {
+        JwsAlgorithm algorithm = JwsAlgorithm.forMacKey(secretKey.getAlgorithm());
+        try {
+            int macLength = Mac.getInstance(algorithm.jcaName()).getMacLength();
+            return new SigningKey(keyId != null ? keyId : deriveKeyId(secretKey), algorithm, secretKey, secretKey, macLength);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to initialise " + algorithm.jcaName(), e);
+        }
+    }
+
+    /**
+     * Create an asymmetric key
+     * @param keyId key ID, or null to derive one from the public key
+     * @param privateKey private key, or null for a verification-only key
+     */
+    static SigningKey asymmetric(String keyId, JwsAlgorithm algorithm, PrivateKey privateKey, PublicKey publicKey) {
+        int signatureLength = switch (algorithm) {
+            case RS256 -> {
+                if (!(publicKey instanceof RSAPublicKey rsa) || rsa.getModulus().bitLength() < MIN_RSA_KEY_BITS) {
+                    throw new IllegalArgumentException("RS256 requires an RSA key of at least " + MIN_RSA_KEY_BITS + " bits");
+                }
+                yield (rsa.getModulus().bitLength() + 7) / 8;
+            }
+            case EdDSA -> {
+                if (!(publicKey instanceof EdECPublicKey ed) || !"Ed25519".equals(ed.getParams().getName())) {
+                    throw new IllegalArgumentException("EdDSA requires an Ed25519 key");
+                }
+                yield 64;
+            }
+            default -> throw new IllegalArgumentException(algorithm + " is not an asymmetric algorithm");
+        };
+        return new SigningKey(keyId != null ? keyId : deriveKeyId(publicKey), algorithm, privateKey, publicKey, signatureLength);
+    }
+
+    String keyId() {
+        return keyId;
+    }
+
+    JwsAlgorithm algorithm() {
+        return algorithm;
+    }
+
+    Key verificationKey() {
+        return verificationKey;
+    }
+
+    /**
+     * Whether this key holds the private half (or secret) needed to issue tokens
+     */
+    boolean canSign() {
+        return signingKey != null;
+    }
+
+    /**
+     * Exact signature length in bytes
+     */
+    int signatureLength() {
+        return signatureLength;
+    }
+
+    /**
+     * Base64url-encoded JWS header ({@code alg} and {@code kid}) of tokens signed with this key
+     */
+    String headerSegment() {
+        return headerSegment;
+    }
+
+    /**
+     * Base64url-encoded header without {@code kid}, as issued before keys were identified;
+     * only meaningful for HMAC keys
+     */
+    String legacyHeaderSegment() {
+        return encodeHeader("{\"alg\":\"" + algorithm.name() + "\"}");
+    }
+
+    /**
+     * Sign {@code input[0, length)} into {@code out} at {@code offset}
+     * @return number of signature bytes written
+     */
+    int sign(byte[] input, int length, byte[] out, int offset) {
+        if (signingKey == null) {
+            throw new IllegalStateException("Key " + keyId + " is verification-only");
+        }
+        Engine engine = engines.get();
+        try {
+            if (algorithm.isMac()) {
+                Mac mac = engine.mac();
+                mac.update(input, 0, length);
+                mac.doFinal(out, offset);
+                return signatureLength;
+            }
+            Signature signer = engine.signer();
+            signer.update(input, 0, length);
+            return signer.sign(out, offset, out.length - offset);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to sign with key " + keyId, e);
+        }
+    }
+
+    /**
+     * Verify a signature over {@code input[0, length)}; MACs are compared in constant time
+     */
+    boolean verify(byte[] input, int length, byte[] signature, int signatureLength) {
+        if (signatureLength != this.signatureLength) {
+            return false;
+        }
+        Engine engine = engines.get();
+        try {
+            if (algorithm.isMac()) {
+                Mac mac = engine.mac();
+                mac.update(input, 0, length);
+                mac.doFinal(engine.expected, 0);
+                return constantTimeEquals(engine.expected, signature, signatureLength);
+            }
+            Signature verifier = engine.verifier();
+            verifier.update(input, 0, length);
+            return verifier.verify(signature, 0, signatureLength);
+        } catch (SignatureException e) {
+            return false;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to verify with key " + keyId, e);
+        }
+    }
+
+    /**
+     * Public JWK (RFC 7517) for this key
+     * @return JWK members, or null for HMAC keys which must never be published
+     */
+    Map<String, Object> toPublicJwk() {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        Map<String, Object> jwk = new LinkedHashMap<>();
+        switch (algorithm) {
+            case RS256 -> {
+                RSAPublicKey rsa = (RSAPublicKey) verificationKey;
+                jwk.put("kty", "RSA");
+                jwk.put("n", encoder.encodeToString(unsignedBytes(rsa.getModulus())));
+                jwk.put("e", encoder.encodeToString(unsignedBytes(rsa.getPublicExponent())));
+            }
+            case EdDSA -> {
+                byte[] encoded = verificationKey.getEncoded();
+                jwk.put("kty", "OKP");
+                jwk.put("crv", "Ed25519");
+                jwk.put("x", encoder.encodeToString(
+                        Arrays.copyOfRange(encoded, X509_ED25519_PREFIX_LENGTH, encoded.length)));
+            }
+            default -> {
+                return null;
+            }
+        }
+        jwk.put("use", "sig");
+        jwk.put("alg", algorithm.name());
+        jwk.put("kid", keyId);
+        return jwk;
+    }
+
+    private static String deriveKeyId(Key key) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(key.getEncoded());
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(hash, 12));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static String encodeHeader(String header) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(header.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static byte[] unsignedBytes(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        return bytes[0] == 0 && bytes.length > 1 ? Arrays.copyOfRange(bytes, 1, bytes.length) : bytes;
+    }
+
+    private static boolean constantTimeEquals(byte[] a, byte[] b, int length) {
+        int diff = 0;
+        for (int i = 0; i < length; i++) {
+            diff |= a[i] ^ b[i];
+        }
+        return diff == 0;
+    }
+
+    /**
+     * Per-thread crypto state for this key, initialised on first use
+     */
+    private final class Engine {
+
+        private final byte[] expected = new byte[signatureLength];
+        private Mac mac;
+        private Signature signer;
+        private Signature verifier;
+
+        Mac mac() throws GeneralSecurityException {
+            if (mac == null) {
+                Mac instance = Mac.getInstance(algorithm.jcaName());
+                instance.init(verificationKey);
+                mac = instance;
+            }
+            return mac;
+        }
+
+        Signature signer() throws GeneralSecurityException {
+            if (signer == null) {
+                Signature instance = Signature.getInstance(algorithm.jcaName());
+                instance.initSign((PrivateKey) signingKey);
+                signer = instance;
+            }
+            return signer;
+        }
+
+        Signature verifier() throws GeneralSecurityException {
+            if (verifier == null) {
+                Signature instance = Signature.getInstance(algorithm.jcaName());
+                instance.initVerify((PublicKey) verificationKey);
+                verifier = instance;
+            }
+            return verifier;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.catface996.auth.infrastructure.security.jwt;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.RSAPrivateCrtKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.RSAPublicKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+
+/**
+ * Loads asymmetric signing keys from PEM files
+ */
+final class SigningKeyLoader {
+
+    private SigningKeyLoader() {
+    }
+
+    /**
+     * Load a key pair from PEM files
+     * @param algorithm RS256 or EdDSA
+     * @param keyId key ID, or null to derive one from the public key
+     * @param privateKeyLocation path to a PKCS#8 PEM private key
+     * @param publicKeyLocation path to an X.509 PEM public key; optional for RSA
+     */
+    static SigningKey load(JwsAlgorithm algorithm, String keyId, String privateKeyLocation, String publicKeyLocation) {
+        try {
+            KeyFactory keyFactory = KeyFactory.getInstance(keyFactoryAlgorithm(algorithm));
+            if (privateKeyLocation == null || privateKeyLocation.isBlank()) {
+                // A generated key pair would differ per instance and per restart, invalidating tokens
+                throw new IllegalStateException("auth.jwt.signing.private-key-location is required for " + algorithm);
+            }
+
+            PrivateKey privateKey = keyFactory.generatePrivate(new PKCS8EncodedKeySpec(readPem(privateKeyLocation)));
+            PublicKey publicKey;
+            if (publicKeyLocation != null && !publicKeyLocation.isBlank()) {
+                publicKey = keyFactory.generatePublic(new X509EncodedKeySpec(readPem(publicKeyLocation)));
+            } else if (privateKey instanceof RSAPrivateCrtKey rsa) {
+                publicKey = keyFactory.generatePublic(new RSAPublicKeySpec(rsa.getModulus(), rsa.getPublicExponent()));
+            } else {
+                throw new IllegalStateException("A public key location is required for " + algorithm);
+            }
+            return SigningKey.asymmetric(keyId, algorithm, privateKey, publicKey);
+        } catch (GeneralSecurityException | IOException e) {
+            throw new IllegalStateException("Failed to load " + algorithm + " signing key", e);
+        }
+    }
+
+    /**
+     * Load a verification-only key from an X.509 PEM public key
+     */
+    static SigningKey loadPublic(JwsAlgorithm algorithm, String keyId, String publicKeyLocation) {
+        try {
+            KeyFactory keyFactory = KeyFactory.getInstance(keyFactoryAlgorithm(algorithm));
+            PublicKey publicKey = keyFactory.generatePublic(new X509EncodedKeySpec(readPem(publicKeyLocation)));
+            return SigningKey.asymmetric(keyId, algorithm, null, publicKey);
+        } catch (GeneralSecurityException | IOException e) {
+            throw new IllegalStateException("Failed to load " + algorithm + " public key", e);
+        }
+    }
+
+    /**
+     * Generate a throwaway key pair, for benchmarks; the service itself never signs with one
+     */
+    static KeyPair generate(JwsAlgorithm algorithm) throws GeneralSecurityException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance(keyFactoryAlgorithm(algorithm));
+        if (algorithm == JwsAlgorithm.RS256) {
+            generator.initialize(2048);
+        }
+        return generator.generateKeyPair();
+    }
+
+    private static String keyFactoryAlgorithm(JwsAlgorithm algorithm) {
+        return switch (algorithm) {
+            case RS256 -> "RSA";
+            case EdDSA -> "Ed25519";
+            default -> throw new IllegalArgumentException(algorithm + " is not an asymmetric algorithm");
+        };
+    }
+
+    private static byte[] readPem(String location) throws IOException {
+        String pem = Files.readString(Path.of(location));
+        String base64 = pem.replaceAll("-----(BEGIN|END) [A-Z ]+-----", "").replaceAll("\\s", "");
+        return Base64.getDecoder().decode(base64);
+    }
+}
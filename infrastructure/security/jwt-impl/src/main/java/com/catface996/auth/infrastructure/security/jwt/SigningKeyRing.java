@@ -0,0 +1,285 @@
+package com.catface996.auth.infrastructure.security.jwt;
+
+import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Set of token signing keys indexed by {@code kid}.
+ * <p>
+ * New tokens are signed with the active key; every key in the ring verifies. Readers
+ * take an immutable {@link Snapshot} through one volatile read, so verification never
+ * locks and a rotation is a single reference swap.
+ * <p>
+ * With {@code auth.jwt.signing.key-ring-location} set, keys come from a properties file
+ * that is polled for changes and reloaded without a restart:
+ * <pre>
+ * active=2026-10
+ * keys.2026-10.algorithm=EdDSA
+ * keys.2026-10.private-key-location=2026-10.pem
+ * keys.2026-10.public-key-location=2026-10.pub.pem
+ * keys.2026-09.algorithm=EdDSA
+ * keys.2026-09.public-key-location=2026-09.pub.pem
+ * keys.shared.algorithm=HMAC
+ * keys.shared.secret=...
+ * </pre>
+ * Relative locations resolve against the file's directory. A key removed from the file
+ * keeps verifying until the longest-lived token it could have signed has expired, so
+ * rotating never invalidates outstanding tokens. Key IDs must not be reused for
+ * different key material. A file that fails to load is logged and ignored, leaving
+ * the current ring in place.
+ * <p>
+ * Without a key file the ring holds the single key described by {@code auth.jwt.signing}.
+ * Tokens without a {@code kid}, issued before tokens carried one, verify against the
+ * {@code auth.jwt.secret} key only while that secret is the HMAC signing key. After a move
+ * to asymmetric keys or a key file they are refused, unless
+ * {@code auth.jwt.signing.accept-legacy-tokens} keeps them for the longest token lifetime
+ * after startup; a secret anyone could know would otherwise let anyone forge them.
+ * <p>
+ * Only built in {@code auth.token.mode=jwt}; opaque tokens are not signed and need no keys.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "auth.token", name = "mode", havingValue = "jwt", matchIfMissing = true)
+@RequiredArgsConstructor
+public class SigningKeyRing {
+
+    private static final String HMAC = "HMAC";
+    private static final String ACTIVE = "active";
+    private static final String KEYS_PREFIX = "keys.";
+
+    private final JwtProperties jwtProperties;
+
+    private volatile Snapshot snapshot;
+
+    // Guarded by this; only touched when building a new snapshot
+    private SigningKey legacyKey;
+    private Instant legacyKeyUntil;
+    private SigningKey activeKey;
+    private Map<String, SigningKey> configuredKeys = Map.of();
+    private final Map<String, RetiredKey> retiredKeys = new HashMap<>();
+    private Path keyRingPath;
+    private FileTime lastModified;
+    private long lastSize = -1;
+
+    @PostConstruct
+    public synchronized void init() {
+        JwtProperties.Signing signing = jwtProperties.getSigning();
+        String secret = jwtProperties.getSecret();
+        if (JwtProperties.SHIPPED_DEFAULT_SECRET.equals(secret)) {
+            throw new IllegalStateException("auth.jwt.secret is still the shipped placeholder; set AUTH_JWT_SECRET");
+        }
+        String location = signing.getKeyRingLocation();
+        boolean keyFile = location != null && !location.isBlank();
+        boolean hmacSigning = HMAC.equalsIgnoreCase(signing.getAlgorithm()) && !keyFile;
+
+        if (hmacSigning || signing.isAcceptLegacyTokens()) {
+            if (secret == null || secret.isBlank()) {
+                throw new IllegalStateException("auth.jwt.secret is required with the HMAC algorithm or legacy tokens");
+            }
+            this.legacyKey = SigningKey.hmac(
+                    HMAC.equalsIgnoreCase(signing.getAlgorithm()) ? signing.getKeyId() : null,
+                    Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)));
+            // While the secret signs, its tokens stay valid; otherwise they die out with the longest lifetime
+            this.legacyKeyUntil = hmacSigning ? null : Instant.now().plusSeconds(maxTokenLifetimeSeconds());
+            if (!hmacSigning) {
+                log.warn("Accepting tokens without a kid signed by auth.jwt.secret until {}", legacyKeyUntil);
+            }
+        }
+
+        if (keyFile) {
+            this.keyRingPath = Path.of(location).toAbsolutePath();
+            // Fail fast at startup; later reload failures keep the current ring
+            loadKeyFile();
+            return;
+        }
+
+        SigningKey key = hmacSigning
+                ? legacyKey
+                : SigningKeyLoader.load(JwsAlgorithm.valueOf(signing.getAlgorithm()), signing.getKeyId(),
+                        signing.getPrivateKeyLocation(), signing.getPublicKeyLocation());
+        install(key, Map.of(key.keyId(), key));
+    }
+
+    /**
+     * Current immutable view of the ring
+     */
+    Snapshot current() {
+        return snapshot;
+    }
+
+    /**
+     * Reload the key file if it changed, and drop retired keys whose tokens have all expired
+     */
+    @Scheduled(fixedDelayString = "${auth.jwt.signing.key-ring-refresh-interval-ms:10000}",
+               initialDelayString = "${auth.jwt.signing.key-ring-refresh-interval-ms:10000}")
+    public synchronized void refresh() {
+        if (keyRingPath != null) {
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(keyRingPath, BasicFileAttributes.class);
+                if (!attributes.lastModifiedTime().equals(lastModified) || attributes.size() != lastSize) {
+                    loadKeyFile();
+                    return;
+                }
+            } catch (IOException | RuntimeException e) {
+                log.error("Failed to reload signing keys from {}, keeping the current key ring", keyRingPath, e);
+            }
+        }
+        Instant now = Instant.now();
+        if (retiredKeys.values().stream().anyMatch(retired -> retired.isExpired(now))
+                || (legacyKey != null && legacyKeyUntil != null && now.isAfter(legacyKeyUntil))) {
+            install(activeKey, configuredKeys);
+        }
+    }
+
+    private void loadKeyFile() {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(keyRingPath, BasicFileAttributes.class);
+            Properties properties = new Properties();
+            try (Reader reader = Files.newBufferedReader(keyRingPath, StandardCharsets.UTF_8)) {
+                properties.load(reader);
+            }
+
+            Map<String, SigningKey> keys = new LinkedHashMap<>();
+            for (String name : properties.stringPropertyNames()) {
+                if (name.startsWith(KEYS_PREFIX) && name.lastIndexOf('.') > KEYS_PREFIX.length()) {
+                    String keyId = name.substring(KEYS_PREFIX.length(), name.lastIndexOf('.'));
+                    if (!keys.containsKey(keyId)) {
+                        keys.put(keyId, loadKey(keyId, properties));
+                    }
+                }
+            }
+
+            String activeKeyId = properties.getProperty(ACTIVE);
+            SigningKey key = activeKeyId != null ? keys.get(activeKeyId.trim()) : null;
+            if (key == null || !key.canSign()) {
+                throw new IllegalStateException("Active key '" + activeKeyId + "' is missing or has no private key");
+            }
+
+            install(key, keys);
+            this.lastModified = attributes.lastModifiedTime();
+            this.lastSize = attributes.size();
+            log.info("Loaded {} signing keys from {}, active key {}", keys.size(), keyRingPath, key.keyId());
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read signing keys from " + keyRingPath, e);
+        }
+    }
+
+    private SigningKey loadKey(String keyId, Properties properties) {
+        String prefix = KEYS_PREFIX + keyId + ".";
+        String algorithm = properties.getProperty(prefix + "algorithm", HMAC).trim();
+        if (HMAC.equalsIgnoreCase(algorithm)) {
+            String secret = properties.getProperty(prefix + "secret");
+            if (secret == null || secret.isEmpty()) {
+                throw new IllegalStateException("HMAC key " + keyId + " has no secret");
+            }
+            return SigningKey.hmac(keyId, Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)));
+        }
+
+        JwsAlgorithm jwsAlgorithm = JwsAlgorithm.valueOf(algorithm);
+        String privateKeyLocation = resolve(properties.getProperty(prefix + "private-key-location"));
+        String publicKeyLocation = resolve(properties.getProperty(prefix + "public-key-location"));
+        if (privateKeyLocation != null) {
+            return SigningKeyLoader.load(jwsAlgorithm, keyId, privateKeyLocation, publicKeyLocation);
+        }
+        if (publicKeyLocation == null) {
+            throw new IllegalStateException("Key " + keyId + " has neither a private nor a public key location");
+        }
+        return SigningKeyLoader.loadPublic(jwsAlgorithm, keyId, publicKeyLocation);
+    }
+
+    private String resolve(String location) {
+        if (location == null || location.isBlank()) {
+            return null;
+        }
+        return keyRingPath.resolveSibling(location.trim()).toString();
+    }
+
+    /**
+     * Publish a new snapshot, retiring keys that left the configuration
+     */
+    private void install(SigningKey active, Map<String, SigningKey> configured) {
+        Instant now = Instant.now();
+        Instant retainUntil = now.plusSeconds(maxTokenLifetimeSeconds());
+        for (SigningKey key : configuredKeys.values()) {
+            if (!configured.containsKey(key.keyId())) {
+                retiredKeys.put(key.keyId(), new RetiredKey(key, retainUntil));
+                log.info("Signing key {} retired, verifying its tokens until {}", key.keyId(), retainUntil);
+            }
+        }
+        retiredKeys.keySet().removeAll(configured.keySet());
+        retiredKeys.values().removeIf(retired -> retired.isExpired(now));
+
+        if (legacyKey != null && legacyKeyUntil != null && now.isAfter(legacyKeyUntil)) {
+            log.info("Legacy token acceptance ended, tokens without a kid are now refused");
+            legacyKey = null;
+        }
+
+        Map<String, SigningKey> keys = new LinkedHashMap<>(configured);
+        retiredKeys.forEach((keyId, retired) -> keys.putIfAbsent(keyId, retired.key()));
+        if (legacyKey != null) {
+            keys.putIfAbsent(legacyKey.keyId(), legacyKey);
+        }
+
+        this.activeKey = active;
+        this.configuredKeys = Map.copyOf(configured);
+        this.snapshot = new Snapshot(
+                active,
+                legacyKey,
+                Map.copyOf(keys),
+                new JwsTokenVerifier(keys.values(), legacyKey),
+                new JwsTokenSigner(active, jwtProperties.getIssuer())
+        );
+    }
+
+    /**
+     * Immutable view of the ring: the signer for the active key and a verifier over all keys
+     * @param legacyKey key for tokens issued without a {@code kid}, or null if they are refused
+     */
+    record Snapshot(SigningKey activeKey,
+                    SigningKey legacyKey,
+                    Map<String, SigningKey> keysById,
+                    JwsTokenVerifier verifier,
+                    JwsTokenSigner signer) {
+
+        /**
+         * Resolve a key by {@code kid}, or the legacy key when the token has none
+         */
+        SigningKey find(String keyId) {
+            return keyId != null ? keysById.get(keyId) : legacyKey;
+        }
+
+        Collection<SigningKey> keys() {
+            return keysById.values();
+        }
+    }
+
+    private long maxTokenLifetimeSeconds() {
+        return Math.max(jwtProperties.getExpirationSeconds(), jwtProperties.getRememberMeExpirationSeconds());
+    }
+
+    private record RetiredKey(SigningKey key, Instant retainUntil) {
+
+        boolean isExpired(Instant now) {
+            return now.isAfter(retainUntil);
+        }
+    }
+}
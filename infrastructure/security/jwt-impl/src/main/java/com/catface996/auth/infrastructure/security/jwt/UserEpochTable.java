@@ -0,0 +1,176 @@
+package com.catface996.auth.infrastructure.security.jwt;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Open-addressing map from user ID to revocation epoch second, held as interleaved
+ * (key, value) pairs in one {@code long[]}: 16 bytes per slot and no objects.
+ * <p>
+ * Writes are rare administrative actions, so a single {@link StampedLock} guards the
+ * table; lookups run under an optimistic read and only take the read lock if a writer
+ * raced them. Key 0 marks an empty slot, so user IDs must be positive.
+ */
+final class UserEpochTable {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private final StampedLock lock = new StampedLock();
+    private long[] slots;
+    private int size;
+
+    UserEpochTable(int initialCapacity) {
+        this.slots = new long[2 * capacityFor(initialCapacity)];
+    }
+
+    /**
+     * @return the user's epoch second, or 0 if none
+     */
+    long get(long userId) {
+        long stamp = lock.tryOptimisticRead();
+        long epoch = find(slots, userId);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                epoch = find(slots, userId);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return epoch;
+    }
+
+    /**
+     * Raise a user's epoch; a lower epoch than the current one is ignored
+     * @return true if the epoch changed
+     */
+    boolean raise(long userId, long epochSecond) {
+        if (userId <= 0) {
+            throw new IllegalArgumentException("User ID must be positive: " + userId);
+        }
+        long stamp = lock.writeLock();
+        try {
+            if ((size + 1) * 4L > (slots.length / 2) * 3L) {
+                slots = rehash(slots, 2 * slots.length, Long.MIN_VALUE);
+            }
+            int mask = slots.length / 2 - 1;
+            for (int slot = (int) mix(userId) & mask; ; slot = (slot + 1) & mask) {
+                long key = slots[2 * slot];
+                if (key == userId) {
+                    if (epochSecond <= slots[2 * slot + 1]) {
+                        return false;
+                    }
+                    slots[2 * slot + 1] = epochSecond;
+                    return true;
+                }
+                if (key == 0) {
+                    slots[2 * slot + 1] = epochSecond;
+                    slots[2 * slot] = userId;
+                    size++;
+                    return true;
+                }
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Drop every epoch at or before the given epoch second
+     * @return number of epochs dropped
+     */
+    int removeUpTo(long epochSecond) {
+        long stamp = lock.writeLock();
+        try {
+            int before = size;
+            slots = rehash(slots, 2 * capacityFor(size), epochSecond);
+            return before - size;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Visit every entry under the read lock
+     */
+    void forEach(EntryVisitor visitor) {
+        long stamp = lock.readLock();
+        try {
+            long[] current = slots;
+            for (int i = 0; i < current.length; i += 2) {
+                if (current[i] != 0) {
+                    visitor.accept(current[i], current[i + 1]);
+                }
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Probe for a key; bounded by the capacity so a torn optimistic read cannot loop forever
+     */
+    private static long find(long[] slots, long userId) {
+        int capacity = slots.length / 2;
+        int mask = capacity - 1;
+        int slot = (int) mix(userId) & mask;
+        for (int probes = 0; probes < capacity; probes++, slot = (slot + 1) & mask) {
+            long key = slots[2 * slot];
+            if (key == userId) {
+                return slots[2 * slot + 1];
+            }
+            if (key == 0) {
+                return 0;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Copy the entries with an epoch after {@code dropUpTo} into a table of the given length
+     */
+    private long[] rehash(long[] from, int length, long dropUpTo) {
+        long[] to = new long[Math.max(length, 2 * MIN_CAPACITY)];
+        int mask = to.length / 2 - 1;
+        size = 0;
+        for (int i = 0; i < from.length; i += 2) {
+            long key = from[i];
+            if (key == 0 || from[i + 1] <= dropUpTo) {
+                continue;
+            }
+            int slot = (int) mix(key) & mask;
+            while (to[2 * slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            to[2 * slot] = key;
+            to[2 * slot + 1] = from[i + 1];
+            size++;
+        }
+        return to;
+    }
+
+    private static int capacityFor(int entries) {
+        int capacity = MIN_CAPACITY;
+        while (capacity * 3L < entries * 4L + 4) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    /**
+     * Receives entries during {@link #forEach}
+     */
+    @FunctionalInterface
+    interface EntryVisitor {
+
+        void accept(long userId, long epochSecond);
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        return z ^ (z >>> 33);
+    }
+}
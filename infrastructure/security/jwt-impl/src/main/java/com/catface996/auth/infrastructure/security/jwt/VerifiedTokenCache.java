@@ -0,0 +1,118 @@
+package com.catface996.auth.infrastructure.security.jwt;
+
+import com.catface996.auth.domain.model.session.TokenClaims;
+import com.catface996.auth.domain.model.session.TokenVerification;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of successfully verified tokens, keyed by the SHA-256 digest of the token.
+ * Entries never outlive the token's own expiration, so a hit is always a token that
+ * would still pass signature and expiry checks. Revocation is unaffected because
+ * callers check the blacklist after verification, on hits and misses alike.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "auth.token", name = "mode", havingValue = "jwt", matchIfMissing = true)
+public class VerifiedTokenCache {
+
+    private static final String CACHE_NAME = "jwt.verified-tokens";
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    });
+
+    private final Cache<TokenDigest, TokenClaims> cache;
+
+    public VerifiedTokenCache(JwtProperties jwtProperties, MeterRegistry meterRegistry) {
+        JwtProperties.Cache config = jwtProperties.getCache();
+        if (!config.isEnabled()) {
+            this.cache = null;
+            log.info("Verified-token cache is disabled");
+            return;
+        }
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(config.getMaximumSize())
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Return the cached verification for a token, or run the verifier and cache a successful result
+     * @param token raw token string
+     * @param verifier full verification used on a cache miss
+     * @return verification result
+     */
+    public TokenVerification verify(String token, Function<String, TokenVerification> verifier) {
+        if (cache == null) {
+            return verifier.apply(token);
+        }
+
+        TokenDigest digest = TokenDigest.of(token);
+        TokenClaims claims = cache.getIfPresent(digest);
+        if (claims != null) {
+            return TokenVerification.success(claims);
+        }
+
+        TokenVerification verification = verifier.apply(token);
+        if (verification.valid() && verification.claims().expiresAt() != null) {
+            cache.put(digest, verification.claims());
+        }
+        return verification;
+    }
+
+    /**
+     * Expires each entry exactly when its token does
+     */
+    private static final class TokenExpiry implements Expiry<TokenDigest, TokenClaims> {
+
+        @Override
+        public long expireAfterCreate(TokenDigest key, TokenClaims value, long currentTime) {
+            Instant expiresAt = value.expiresAt().atZone(ZoneId.systemDefault()).toInstant();
+            return Math.max(0, Duration.between(Instant.now(), expiresAt).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(TokenDigest key, TokenClaims value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(TokenDigest key, TokenClaims value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    /**
+     * SHA-256 digest of a token; a cryptographic digest so that no other token can be crafted to hit an entry
+     */
+    private record TokenDigest(long w0, long w1, long w2, long w3) {
+
+        static TokenDigest of(String token) {
+            byte[] hash = SHA_256.get().digest(token.getBytes(StandardCharsets.US_ASCII));
+            ByteBuffer buffer = ByteBuffer.wrap(hash);
+            return new TokenDigest(buffer.getLong(), buffer.getLong(), buffer.getLong(), buffer.getLong());
+        }
+    }
+}
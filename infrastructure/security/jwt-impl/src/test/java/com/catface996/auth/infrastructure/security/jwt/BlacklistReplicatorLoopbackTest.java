@@ -0,0 +1,168 @@
+package com.catface996.auth.infrastructure.security.jwt;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Several {@link BlacklistReplicator}s talking to each other over loopback, each on a
+ * port picked free by the OS, with anti-entropy rounds far enough apart that only the
+ * connect-time round runs during a test.
+ */
+class BlacklistReplicatorLoopbackTest {
+
+    private static final String SECRET = "loopback-replication-secret";
+    private static final long EXPIRATION_SECONDS = 3600;
+    private static final long WAIT_MILLIS = 10000;
+
+    private final List<Node> nodes = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        for (Node node : nodes) {
+            node.replicator().stop();
+        }
+    }
+
+    @Test
+    void revocationsReachEveryPeerAsDeltas() throws Exception {
+        int[] ports = {freePort(), freePort(), freePort()};
+        Node a = start(ports[0], SECRET, ports[1], ports[2]);
+        Node b = start(ports[1], SECRET, ports[0], ports[2]);
+        Node c = start(ports[2], SECRET, ports[0], ports[1]);
+        await(() -> a.connectedTo(ports[1]) && a.connectedTo(ports[2]), "a connected to its peers");
+
+        List<String> tokenIds = revoke(a, 100);
+
+        await(() -> b.hasAll(tokenIds) && c.hasAll(tokenIds), "b and c received every revocation");
+        // Queued while connected, so each one went to both peers as a delta
+        await(() -> a.count("auth.blacklist.replication.sent") >= 2 * tokenIds.size(), "a sent every delta");
+        assertThat(b.count("auth.blacklist.replication.received")).isGreaterThanOrEqualTo(tokenIds.size());
+        assertThat(c.count("auth.blacklist.replication.received")).isGreaterThanOrEqualTo(tokenIds.size());
+    }
+
+    @Test
+    void restartedPeerIsRepairedByAntiEntropy() throws Exception {
+        int[] ports = {freePort(), freePort()};
+        Node a = start(ports[0], SECRET, ports[1]);
+        Node b = start(ports[1], SECRET, ports[0]);
+        await(() -> a.connectedTo(ports[1]), "a connected to b");
+        List<String> beforeRestart = revoke(a, 50);
+        await(() -> b.hasAll(beforeRestart), "b received the first revocations");
+
+        b.replicator().stop();
+        nodes.remove(b);
+        // An idle sender only notices the closed connection when its next delta fails
+        List<String> whileDown = new ArrayList<>();
+        await(() -> whileDown.addAll(revoke(a, 1)) && !a.connectedTo(ports[1]), "a noticed b is down");
+        double sentBeforeRestart = a.count("auth.blacklist.replication.sent");
+        // Nothing is queued for a disconnected peer, so only anti-entropy can deliver these
+        whileDown.addAll(revoke(a, 50));
+
+        Node restarted = start(ports[1], SECRET, ports[0]);
+        await(() -> restarted.hasAll(beforeRestart) && restarted.hasAll(whileDown),
+                "the restarted peer caught up");
+        assertThat(a.count("auth.blacklist.replication.sent")).isEqualTo(sentBeforeRestart);
+    }
+
+    @Test
+    void peerWithWrongSecretIsRejected() throws Exception {
+        int[] ports = {freePort(), freePort()};
+        Node a = start(ports[0], SECRET, ports[1]);
+        Node intruder = start(ports[1], "not-the-" + SECRET, ports[0]);
+
+        List<String> fromA = revoke(a, 10);
+        List<String> fromIntruder = revoke(intruder, 10);
+        // Several reconnect attempts in each direction
+        Thread.sleep(1000);
+
+        assertThat(a.connectedTo(ports[1])).isFalse();
+        assertThat(intruder.connectedTo(ports[0])).isFalse();
+        assertThat(a.hasAny(fromIntruder)).isFalse();
+        assertThat(intruder.hasAny(fromA)).isFalse();
+    }
+
+    private Node start(int port, String secret, int... peerPorts) throws IOException {
+        BlacklistProperties properties = new BlacklistProperties();
+        BlacklistProperties.Replication replication = properties.getReplication();
+        replication.setEnabled(true);
+        replication.setBindAddress("127.0.0.1");
+        replication.setPort(port);
+        replication.setSecret(secret);
+        for (int peerPort : peerPorts) {
+            replication.getPeers().add(address(peerPort));
+        }
+        replication.setAntiEntropyIntervalMs(600000);
+        replication.setReconnectDelayMs(100);
+        replication.setSocketTimeoutMs(2000);
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        CompactTokenBlacklist blacklist = new CompactTokenBlacklist(properties, meterRegistry);
+        BlacklistReplicator replicator = new BlacklistReplicator(blacklist, properties, meterRegistry);
+        replicator.start();
+        Node node = new Node(blacklist, replicator, meterRegistry);
+        nodes.add(node);
+        return node;
+    }
+
+    private static List<String> revoke(Node node, int count) {
+        List<String> tokenIds = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String tokenId = JtiGenerator.next();
+            node.blacklist().addToBlacklist(tokenId, EXPIRATION_SECONDS);
+            tokenIds.add(tokenId);
+        }
+        return tokenIds;
+    }
+
+    private static void await(BooleanSupplier condition, String description) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + WAIT_MILLIS;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("Timed out waiting until " + description);
+            }
+            Thread.sleep(20);
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static String address(int port) {
+        return "127.0.0.1:" + port;
+    }
+
+    private record Node(CompactTokenBlacklist blacklist, BlacklistReplicator replicator,
+                        SimpleMeterRegistry meterRegistry) {
+
+        boolean hasAll(List<String> tokenIds) {
+            return tokenIds.stream().allMatch(blacklist::isBlacklisted);
+        }
+
+        boolean hasAny(List<String> tokenIds) {
+            return tokenIds.stream().anyMatch(blacklist::isBlacklisted);
+        }
+
+        boolean connectedTo(int port) {
+            return meterRegistry.get("auth.blacklist.replication.connected")
+                    .tag("peer", address(port))
+                    .gauge()
+                    .value() == 1;
+        }
+
+        double count(String counter) {
+            return meterRegistry.get(counter).counter().count();
+        }
+    }
+}
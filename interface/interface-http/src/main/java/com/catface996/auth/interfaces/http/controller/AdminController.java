@@ -1,19 +1,31 @@
 package com.catface996.auth.interfaces.http.controller;
 
+import com.catface996.auth.application.service.AuthService;
 import com.catface996.auth.common.result.Result;
+import com.catface996.auth.interfaces.http.dto.request.TokenRevocationRequest;
+import com.catface996.auth.interfaces.http.dto.response.TokenRevocationResponse;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -27,6 +39,8 @@ import java.util.Map;
 @SecurityRequirement(name = "bearerAuth")
 public class AdminController {
 
+    private final AuthService authService;
+
     @Operation(summary = "管理员仪表盘", description = "获取管理员仪表盘数据，包括当前用户信息和权限列表。权限由Gateway通过Auth服务统一校验。")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "获取成功，返回仪表盘数据"),
@@ -61,4 +75,46 @@ public class AdminController {
 
         return ResponseEntity.ok(Result.success(stats));
     }
+
+    @Operation(summary = "吊销用户全部令牌", description = "使指定用户在此之前签发的所有令牌立即失效（\"在所有设备上退出\"），" +
+            "包括未记录令牌ID的令牌。吊销时间点持久化，并在各实例内存中校验，不增加验证时的数据库访问。需要ADMIN权限。")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "吊销成功，返回吊销时间点"),
+            @ApiResponse(responseCode = "401", description = "未认证，请先登录"),
+            @ApiResponse(responseCode = "403", description = "无ADMIN权限")
+    })
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @PostMapping("/users/{userId}/revoke-tokens")
+    public ResponseEntity<Result<TokenRevocationResponse>> revokeUserTokens(
+            @Parameter(description = "用户ID", required = true) @PathVariable Long userId,
+            Authentication authentication) {
+        LocalDateTime revokedBefore = authService.revokeAllTokens(List.of(userId));
+        log.info("All tokens of user {} revoked by {}", userId, authentication.getName());
+        return ResponseEntity.ok(Result.success(TokenRevocationResponse.builder()
+                .userCount(1)
+                .revokedBefore(revokedBefore)
+                .build()));
+    }
+
+    @Operation(summary = "批量吊销用户令牌", description = "一次吊销多个用户的全部令牌，每个用户只记录一个吊销时间点，" +
+            "代替逐个令牌加入黑名单。单次最多" + TokenRevocationRequest.MAX_USERS + "个用户。需要ADMIN权限。")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "吊销成功，返回用户数和吊销时间点"),
+            @ApiResponse(responseCode = "400", description = "用户ID列表为空、包含无效ID或超过上限"),
+            @ApiResponse(responseCode = "401", description = "未认证，请先登录"),
+            @ApiResponse(responseCode = "403", description = "无ADMIN权限")
+    })
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @PostMapping("/users/revoke-tokens")
+    public ResponseEntity<Result<TokenRevocationResponse>> revokeTokensInBulk(
+            @Valid @RequestBody TokenRevocationRequest request,
+            Authentication authentication) {
+        LinkedHashSet<Long> userIds = new LinkedHashSet<>(request.getUserIds());
+        LocalDateTime revokedBefore = authService.revokeAllTokens(userIds);
+        log.info("All tokens of {} users revoked by {}", userIds.size(), authentication.getName());
+        return ResponseEntity.ok(Result.success(TokenRevocationResponse.builder()
+                .userCount(userIds.size())
+                .revokedBefore(revokedBefore)
+                .build()));
+    }
 }
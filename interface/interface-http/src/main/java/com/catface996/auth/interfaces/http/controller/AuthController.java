@@ -7,8 +7,11 @@ import com.catface996.auth.application.result.TokenValidationResult;
 import com.catface996.auth.application.result.UserInfo;
 import com.catface996.auth.application.service.AuthService;
 import com.catface996.auth.common.result.Result;
+import com.catface996.auth.domain.model.session.TokenVerification;
+import com.catface996.auth.interfaces.http.dto.request.BatchTokenValidationRequest;
 import com.catface996.auth.interfaces.http.dto.request.LoginRequest;
 import com.catface996.auth.interfaces.http.dto.request.RegisterRequest;
+import com.catface996.auth.interfaces.http.dto.response.BatchTokenValidationResponse;
 import com.catface996.auth.interfaces.http.dto.response.TokenValidationResponse;
 import com.catface996.auth.interfaces.http.dto.response.LoginResponse;
 import com.catface996.auth.interfaces.http.dto.response.RegisterResponse;
@@ -24,10 +27,19 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
 /**
  * 认证控制器 - 处理用户注册、登录、登出等认证相关操作
  */
@@ -38,16 +50,29 @@ import org.springframework.web.bind.annotation.*;
 @Tag(name = "认证管理", description = "用户认证与授权相关接口，包括注册、登录、登出、Token刷新和验证等功能")
 public class AuthController {
 
+    /**
+     * Accept 类型，使 /validate 返回仅响应头的验证结果
+     */
+    public static final String AUTH_DECISION_MEDIA_TYPE = "application/vnd.op-stack.auth-decision";
+
+    private static final String HEADER_USER_ID = "X-User-Id";
+    private static final String HEADER_USER_NAME = "X-User-Name";
+    private static final String HEADER_USER_ROLES = "X-User-Roles";
+
     private final AuthService authService;
 
+    @Value("${auth.validate.decision-max-age-seconds:30}")
+    private long decisionMaxAgeSeconds;
+
     @Operation(summary = "用户注册", description = "创建新用户账号，需要提供用户名、邮箱和密码。用户名需为3-32位字母数字下划线，密码需包含大小写字母和数字，长度8-128位。")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "注册成功，返回用户信息"),
             @ApiResponse(responseCode = "400", description = "请求参数不合法"),
-            @ApiResponse(responseCode = "409", description = "用户名或邮箱已被注册")
+            @ApiResponse(responseCode = "409", description = "用户名或邮箱已被注册"),
+            @ApiResponse(responseCode = "503", description = "密码哈希队列已满，请按 Retry-After 稍后重试")
     })
     @PostMapping("/register")
-    public ResponseEntity<Result<RegisterResponse>> register(
+    public CompletableFuture<ResponseEntity<Result<RegisterResponse>>> register(
             @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "用户注册信息", required = true)
             @Valid @RequestBody RegisterRequest request) {
 
@@ -59,28 +84,30 @@ public class AuthController {
                 .password(request.getPassword())
                 .build();
 
-        UserInfo userInfo = authService.register(command);
-
-        RegisterResponse response = RegisterResponse.from(
-                userInfo.getId(),
-                userInfo.getUsername(),
-                userInfo.getEmail(),
-                userInfo.getStatus(),
-                userInfo.getRoles()
-        );
+        // 密码哈希在专用线程池完成，请求线程不等待
+        return authService.register(command).thenApply(userInfo -> {
+            RegisterResponse response = RegisterResponse.from(
+                    userInfo.getId(),
+                    userInfo.getUsername(),
+                    userInfo.getEmail(),
+                    userInfo.getStatus(),
+                    userInfo.getRoles()
+            );
 
-        return ResponseEntity.status(HttpStatus.CREATED)
-                .body(Result.success(response));
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .body(Result.success(response));
+        });
     }
 
     @Operation(summary = "用户登录", description = "使用用户名/邮箱和密码进行身份认证，认证成功后返回JWT访问令牌。支持记住我功能，开启后令牌有效期延长至30天。")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "登录成功，返回访问令牌和用户信息"),
             @ApiResponse(responseCode = "401", description = "用户名或密码错误"),
-            @ApiResponse(responseCode = "423", description = "账号已被锁定，请稍后重试")
+            @ApiResponse(responseCode = "423", description = "账号已被锁定，请稍后重试"),
+            @ApiResponse(responseCode = "503", description = "密码哈希队列已满，请按 Retry-After 稍后重试")
     })
     @PostMapping("/login")
-    public ResponseEntity<Result<LoginResponse>> login(
+    public CompletableFuture<ResponseEntity<Result<LoginResponse>>> login(
             @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "用户登录凭证", required = true)
             @Valid @RequestBody LoginRequest request,
             HttpServletRequest servletRequest) {
@@ -95,11 +122,9 @@ public class AuthController {
                 .userAgent(servletRequest.getHeader("User-Agent"))
                 .build();
 
-        AuthResult authResult = authService.login(command);
-
-        LoginResponse response = LoginResponse.from(authResult);
-
-        return ResponseEntity.ok(Result.success(response));
+        // 密码校验在专用线程池完成，请求线程不等待
+        return authService.login(command)
+                .thenApply(authResult -> ResponseEntity.ok(Result.success(LoginResponse.from(authResult))));
     }
 
     @Operation(summary = "用户登出", description = "使当前JWT令牌失效，将令牌加入黑名单。登出后该令牌无法再用于访问受保护的资源。")
@@ -110,9 +135,13 @@ public class AuthController {
     @PostMapping("/logout")
     public ResponseEntity<Result<Void>> logout(
             @Parameter(description = "Bearer令牌，格式：Bearer {token}", example = "Bearer eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9...")
-            @RequestHeader(value = "Authorization", required = false) String authHeader) {
+            @RequestHeader(value = "Authorization", required = false) String authHeader,
+            @Parameter(hidden = true)
+            @RequestAttribute(value = TokenVerification.REQUEST_ATTRIBUTE, required = false) TokenVerification verification) {
 
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+        if (verification != null) {
+            authService.logout(verification);
+        } else if (authHeader != null && authHeader.startsWith("Bearer ")) {
             String token = authHeader.substring(7);
             authService.logout(token);
         }
@@ -149,13 +178,19 @@ public class AuthController {
     @GetMapping("/me")
     public ResponseEntity<Result<UserInfo>> getCurrentUser(
             @Parameter(description = "Bearer令牌，格式：Bearer {token}", required = true)
-            @RequestHeader("Authorization") String authHeader) {
+            @RequestHeader("Authorization") String authHeader,
+            @Parameter(hidden = true)
+            @RequestAttribute(value = TokenVerification.REQUEST_ATTRIBUTE, required = false) TokenVerification verification) {
 
-        String token = authHeader.startsWith("Bearer ")
-                ? authHeader.substring(7)
-                : authHeader;
-
-        UserInfo userInfo = authService.getCurrentUser(token);
+        UserInfo userInfo;
+        if (verification != null) {
+            userInfo = authService.getCurrentUser(verification);
+        } else {
+            String token = authHeader.startsWith("Bearer ")
+                    ? authHeader.substring(7)
+                    : authHeader;
+            userInfo = authService.getCurrentUser(token);
+        }
 
         return ResponseEntity.ok(Result.success(userInfo));
     }
@@ -170,28 +205,111 @@ public class AuthController {
     @GetMapping("/validate")
     public ResponseEntity<Result<TokenValidationResponse>> validateToken(
             @Parameter(description = "待验证的Bearer令牌，格式：Bearer {token}")
-            @RequestHeader(value = "Authorization", required = false) String authHeader) {
+            @RequestHeader(value = "Authorization", required = false) String authHeader,
+            @Parameter(hidden = true)
+            @RequestAttribute(value = TokenVerification.REQUEST_ATTRIBUTE, required = false) TokenVerification verification) {
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             TokenValidationResponse response = TokenValidationResponse.failure("Missing or invalid Authorization header");
             return ResponseEntity.ok(Result.success(response));
         }
 
-        String token = authHeader.substring(7);
-        TokenValidationResult result = authService.validateToken(token);
+        TokenValidationResult result = verification != null
+                ? authService.validateToken(verification)
+                : authService.validateToken(authHeader.substring(7));
+
+        return ResponseEntity.ok(Result.success(toValidationResponse(result)));
+    }
+
+    @Operation(
+            summary = "验证令牌-仅响应头（代理专用）",
+            description = "供 nginx auth_request / envoy ext_authz 使用的验证模式：令牌有效返回204，无效返回401，均无响应体。" +
+                    "用户ID、用户名和角色通过 X-User-Id、X-User-Name、X-User-Roles 响应头返回，" +
+                    "Cache-Control 的 max-age 不超过令牌剩余有效期，代理可据此缓存验证结果。" +
+                    "也可以请求 /validate 并设置 Accept: " + AUTH_DECISION_MEDIA_TYPE + " 使用该模式。"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "令牌有效，用户信息在响应头中"),
+            @ApiResponse(responseCode = "401", description = "令牌缺失、无效、已过期或已吊销")
+    })
+    @GetMapping("/validate/header")
+    public ResponseEntity<Void> validateTokenHeaders(
+            @Parameter(description = "待验证的Bearer令牌，格式：Bearer {token}")
+            @RequestHeader(value = "Authorization", required = false) String authHeader) {
+
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return unauthorizedDecision();
+        }
+
+        TokenValidationResult result = authService.validateToken(authHeader.substring(7));
+        if (!result.isValid()) {
+            return unauthorizedDecision();
+        }
+
+        long remainingSeconds = result.getExpiresAt() != null
+                ? Duration.between(LocalDateTime.now(), result.getExpiresAt()).getSeconds()
+                : 0;
+        long maxAge = Math.min(remainingSeconds, decisionMaxAgeSeconds);
+        CacheControl cacheControl = maxAge > 0
+                ? CacheControl.maxAge(maxAge, TimeUnit.SECONDS).cachePrivate()
+                : CacheControl.noStore();
+
+        return ResponseEntity.noContent()
+                .cacheControl(cacheControl)
+                .varyBy(HttpHeaders.AUTHORIZATION)
+                .header(HEADER_USER_ID, String.valueOf(result.getUserId()))
+                .header(HEADER_USER_NAME, result.getUsername())
+                .header(HEADER_USER_ROLES, result.getRoles() != null ? String.join(",", result.getRoles()) : "")
+                .build();
+    }
 
-        TokenValidationResponse response;
+    @Operation(hidden = true)
+    @GetMapping(value = "/validate", produces = AUTH_DECISION_MEDIA_TYPE)
+    public ResponseEntity<Void> validateTokenHeadersByAccept(
+            @RequestHeader(value = "Authorization", required = false) String authHeader) {
+        return validateTokenHeaders(authHeader);
+    }
+
+    @Operation(
+            summary = "批量验证令牌（Gateway专用）",
+            description = "一次验证多个JWT令牌，按请求顺序返回每个令牌的验证结果。重复的令牌只验证一次，黑名单批量查询。单次最多" +
+                    BatchTokenValidationRequest.MAX_BATCH_SIZE + "个令牌。"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "返回验证结果列表，与请求中的令牌按下标一一对应"),
+            @ApiResponse(responseCode = "400", description = "令牌列表为空或超过上限")
+    })
+    @PostMapping("/validate/batch")
+    public ResponseEntity<Result<BatchTokenValidationResponse>> validateTokens(
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "待验证的令牌列表", required = true)
+            @Valid @RequestBody BatchTokenValidationRequest request) {
+
+        List<String> tokens = request.getTokens().stream()
+                .map(token -> token != null && token.startsWith("Bearer ") ? token.substring(7) : token)
+                .toList();
+
+        List<TokenValidationResponse> responses = authService.validateTokens(tokens).stream()
+                .map(this::toValidationResponse)
+                .toList();
+
+        return ResponseEntity.ok(Result.success(BatchTokenValidationResponse.of(responses)));
+    }
+
+    private ResponseEntity<Void> unauthorizedDecision() {
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .cacheControl(CacheControl.noStore())
+                .build();
+    }
+
+    private TokenValidationResponse toValidationResponse(TokenValidationResult result) {
         if (result.isValid()) {
-            response = TokenValidationResponse.success(
+            return TokenValidationResponse.success(
                     result.getUserId(),
                     result.getUsername(),
                     result.getRoles()
             );
-        } else {
-            response = TokenValidationResponse.failure(result.getErrorMessage());
         }
-
-        return ResponseEntity.ok(Result.success(response));
+        return TokenValidationResponse.failure(result.getErrorMessage());
     }
 
     private String getClientIp(HttpServletRequest request) {
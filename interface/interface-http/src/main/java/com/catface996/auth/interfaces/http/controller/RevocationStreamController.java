@@ -0,0 +1,118 @@
+package com.catface996.auth.interfaces.http.controller;
+
+import com.catface996.auth.application.service.RevocationStreamService;
+import com.catface996.auth.application.service.RevocationStreamSink;
+import com.catface996.auth.common.exception.AuthException;
+import com.catface996.auth.common.result.ErrorCode;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+
+/**
+ * 令牌吊销推送控制器 - 以 SSE 推送黑名单新增和用户吊销时间点，供网关维护本地副本
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/auth/v1/revocations")
+@RequiredArgsConstructor
+@Tag(name = "令牌吊销推送", description = "实时推送令牌吊销事件，网关据此在本地判断吊销状态，无需调用验证接口")
+public class RevocationStreamController {
+
+    /**
+     * 订阅方出示访问密钥的请求头
+     */
+    public static final String HEADER_ACCESS_KEY = "X-Revocation-Stream-Key";
+
+    private final RevocationStreamService revocationStreamService;
+
+    /**
+     * 推送线程在此时间内自行结束；连接超时略长于它
+     */
+    @Value("${auth.revocation.stream.max-duration-ms:1800000}")
+    private long maxDurationMs;
+
+    @Value("${auth.revocation.stream.heartbeat-interval-ms:15000}")
+    private long heartbeatIntervalMs;
+
+    @Operation(summary = "订阅令牌吊销事件", description = "以 Server-Sent Events 推送吊销事件。首次连接依次收到 reset、若干 snapshot 批次和 ready，" +
+            "之后每次吊销以 revocations 批次实时推送。每个批次按列给出 tokenIds/tokenExpiresAt（令牌在过期前均视为已吊销）" +
+            "和 userIds/userEpochs（该用户签发时间不晚于此时间点的令牌均已吊销），时间均为 epoch 秒。" +
+            "断线后携带 Last-Event-ID 重连即从断点续传；断点已不可用时重新从 reset 开始。连接会定期结束，客户端应自动重连。")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "事件流"),
+            @ApiResponse(responseCode = "401", description = "访问密钥无效"),
+            @ApiResponse(responseCode = "503", description = "订阅数已达上限，请按 Retry-After 稍后重连")
+    })
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> stream(
+            @Parameter(description = "访问密钥，须与 auth.revocation.stream.access-key 一致；服务端未配置时拒绝所有订阅")
+            @RequestHeader(value = HEADER_ACCESS_KEY, required = false) String accessKey,
+            @Parameter(description = "最后应用的事件ID，由 EventSource 重连时自动携带")
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventIdHeader,
+            @Parameter(description = "最后应用的事件ID，无法设置请求头时使用")
+            @RequestParam(value = "lastEventId", required = false) String lastEventIdParam) {
+
+        String lastEventId = lastEventIdHeader != null ? lastEventIdHeader : lastEventIdParam;
+        SseEmitter emitter = new SseEmitter(maxDurationMs + 2 * heartbeatIntervalMs);
+        try {
+            revocationStreamService.stream(accessKey, lastEventId, new SseEmitterSink(emitter));
+        } catch (AuthException e) {
+            // SSE 客户端不解析错误体，只返回状态码
+            if (e.getCode() == ErrorCode.SERVICE_UNAVAILABLE.getCode()) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, heartbeatIntervalMs / 1000)))
+                        .build();
+            }
+            log.warn("Revocation stream refused: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                // 禁止反向代理缓冲事件
+                .header("X-Accel-Buffering", "no")
+                .body(emitter);
+    }
+
+    /**
+     * 把推送写入 SseEmitter
+     */
+    private record SseEmitterSink(SseEmitter emitter) implements RevocationStreamSink {
+
+        @Override
+        public void send(String id, String name, Object data) throws IOException {
+            SseEmitter.SseEventBuilder event = SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON);
+            if (id != null) {
+                event.id(id);
+            }
+            emitter.send(event);
+        }
+
+        @Override
+        public void heartbeat() throws IOException {
+            emitter.send(SseEmitter.event().comment(""));
+        }
+
+        @Override
+        public void complete() {
+            emitter.complete();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.catface996.auth.interfaces.http.controller;
+
+import com.catface996.auth.application.service.AuthService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 公开元数据控制器 - 提供 JWKS 公钥集，供网关和下游服务本地验证令牌
+ */
+@RestController
+@RequestMapping("/.well-known")
+@RequiredArgsConstructor
+@Tag(name = "公开元数据", description = "令牌验证公钥等公开元数据接口")
+public class WellKnownController {
+
+    private final AuthService authService;
+
+    /**
+     * JWKS 文档的缓存时间（秒）
+     */
+    @Value("${auth.jwt.signing.jwks-max-age-seconds:300}")
+    private long jwksMaxAgeSeconds;
+
+    @Operation(summary = "获取JWKS公钥集", description = "返回当前用于验证令牌签名的公钥（RFC 7517 格式），按 kid 匹配令牌头。支持 ETag 条件请求；使用共享密钥签名时 keys 为空。")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "返回公钥集"),
+            @ApiResponse(responseCode = "304", description = "公钥集未变化")
+    })
+    @GetMapping("/jwks.json")
+    public ResponseEntity<Map<String, Object>> getJwks(WebRequest request) {
+        List<Map<String, Object>> keys = authService.getJsonWebKeys();
+        String etag = "\"" + Integer.toHexString(keys.hashCode()) + "\"";
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofSeconds(jwksMaxAgeSeconds)).cachePublic())
+                .eTag(etag)
+                .body(Map.of("keys", keys));
+    }
+}
@@ -0,0 +1,29 @@
+package com.catface996.auth.interfaces.http.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Request DTO for batch token validation (used by Gateway)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchTokenValidationRequest {
+
+    /**
+     * Maximum number of tokens accepted in one batch
+     */
+    public static final int MAX_BATCH_SIZE = 100;
+
+    @NotEmpty(message = "Tokens are required")
+    @Size(max = MAX_BATCH_SIZE, message = "At most " + MAX_BATCH_SIZE + " tokens can be validated per batch")
+    private List<String> tokens;
+}
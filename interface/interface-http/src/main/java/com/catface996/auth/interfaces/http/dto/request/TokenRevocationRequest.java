@@ -0,0 +1,31 @@
+package com.catface996.auth.interfaces.http.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Request DTO for revoking all tokens of many users at once
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenRevocationRequest {
+
+    /**
+     * Maximum number of users accepted in one request
+     */
+    public static final int MAX_USERS = 10000;
+
+    @NotEmpty(message = "User IDs are required")
+    @Size(max = MAX_USERS, message = "At most " + MAX_USERS + " users can be revoked per request")
+    private List<@NotNull @Positive Long> userIds;
+}
@@ -0,0 +1,29 @@
+package com.catface996.auth.interfaces.http.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Response DTO for batch token validation (used by Gateway)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchTokenValidationResponse {
+
+    /**
+     * Validation results, in the same order as the requested tokens
+     */
+    private List<TokenValidationResponse> results;
+
+    public static BatchTokenValidationResponse of(List<TokenValidationResponse> results) {
+        return BatchTokenValidationResponse.builder()
+                .results(results)
+                .build();
+    }
+}
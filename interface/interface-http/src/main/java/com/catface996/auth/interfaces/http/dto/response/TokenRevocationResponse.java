@@ -0,0 +1,28 @@
+package com.catface996.auth.interfaces.http.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Response DTO for revoking all tokens of one or more users
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenRevocationResponse {
+
+    /**
+     * Number of distinct users whose tokens were revoked
+     */
+    private int userCount;
+
+    /**
+     * Tokens of these users issued at or before this time are rejected
+     */
+    private LocalDateTime revokedBefore;
+}